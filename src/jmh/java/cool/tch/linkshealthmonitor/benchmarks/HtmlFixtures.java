@@ -0,0 +1,102 @@
+package cool.tch.linkshealthmonitor.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/19 17:30
+ * @Desc 基准测试用的HTML页面（按常见博客的结构和大小生成，内容固定，每次运行结果可比）
+ */
+public class HtmlFixtures {
+
+    // 本站外部访问地址
+    public static final String OUR_URL = "https://tch.cool";
+
+    // 友链页面地址
+    public static final String PAGE_URL = "https://friend.example.com/links/";
+
+    // HttpClient每次交给BodySubscriber的字节数
+    public static final int CHUNK_BYTES = 16 * 1024;
+
+    private HtmlFixtures() {
+    }
+
+    /**
+     * 页面
+     */
+    public enum Page {
+        // 博客首页（约60KB，head中有内联样式和脚本）
+        BLOG_HOME(blogHome()),
+        // 友链页面（约150KB，300个友链，本站友链在最后）
+        LINKS_PAGE(linksPage(300, true)),
+        // 友链页面（约150KB，不包含本站友链，需要扫描整个页面）
+        LINKS_PAGE_MISSING(linksPage(300, false)),
+        // 单页应用（约200KB，标题前有大段内联的JSON）
+        SPA_SHELL(spaShell());
+
+        // 页面内容（UTF-8）
+        private final byte[] bytes;
+
+        Page(String html) {
+            this.bytes = html.getBytes(StandardCharsets.UTF_8);
+        }
+
+        public byte[] getBytes() {
+            return bytes;
+        }
+    }
+
+    private static String blogHome() {
+        StringBuilder html = new StringBuilder(64 * 1024);
+        html.append("<!DOCTYPE html><html lang=\"zh-CN\"><head><meta charset=\"utf-8\">")
+            .append("<meta name=\"viewport\" content=\"width=device-width, initial-scale=1\">")
+            .append("<title>  朋友的博客 | 记录生活与技术  </title><style>");
+        repeat(html, ".post-card{display:flex;margin:0 auto;padding:1rem;border-radius:8px}", 150);
+        html.append("</style><script>");
+        repeat(html, "window.__theme={mode:'auto',accent:'#3b82f6',fonts:['PingFang SC','Noto Sans']};", 120);
+        html.append("</script></head><body><main>");
+        for (int i = 0; i < 40; i++) {
+            html.append("<article class=\"post-card\"><h2><a href=\"/archives/post-").append(i).append("\">第")
+                .append(i).append("篇文章的标题</a></h2><p>");
+            repeat(html, "这是一段文章摘要，用来模拟真实页面中的中文内容。", 8);
+            html.append("</p></article>");
+        }
+        return html.append("</main></body></html>").toString();
+    }
+
+    private static String linksPage(int links, boolean containsOurLink) {
+        StringBuilder html = new StringBuilder(160 * 1024);
+        html.append("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><title>友情链接 - 朋友的博客</title>")
+            .append("<link rel=\"stylesheet\" href=\"/assets/main.css\"></head><body><div class=\"links\">");
+        for (int i = 0; i < links; i++) {
+            html.append("<div class=\"link-card\"><a class=\"link\" target=\"_blank\" rel=\"noopener\" href=\"https://friend-")
+                .append(i).append(".example.org/\"><img loading=\"lazy\" src=\"https://friend-").append(i)
+                .append(".example.org/avatar.png\" alt=\"avatar\"><span class=\"name\">朋友").append(i)
+                .append("</span><span class=\"desc\">");
+            repeat(html, "热爱生活，喜欢折腾。", 6);
+            html.append("</span></a></div>\n");
+        }
+        if (containsOurLink) {
+            html.append("<div class=\"link-card\"><a href=\"https://tch.cool/\">天成诸君</a></div>");
+        }
+        return html.append("</div><script src=\"/assets/main.js\"></script></body></html>").toString();
+    }
+
+    private static String spaShell() {
+        StringBuilder html = new StringBuilder(210 * 1024);
+        html.append("<!DOCTYPE html><html><head><meta charset=\"utf-8\"><script id=\"__NEXT_DATA__\" type=\"application/json\">");
+        html.append("{\"props\":{\"pageProps\":{\"posts\":[");
+        for (int i = 0; i < 1500; i++) {
+            html.append("{\"id\":").append(i).append(",\"title\":\"Post ").append(i)
+                .append("\",\"slug\":\"post-").append(i).append("\",\"tags\":[\"java\",\"halo\"]},");
+        }
+        html.append("{}]}}}</script><title>SPA Blog</title></head><body><div id=\"__next\"></div></body></html>");
+        return html.toString();
+    }
+
+    private static void repeat(StringBuilder html, String text, int times) {
+        for (int i = 0; i < times; i++) {
+            html.append(text);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package cool.tch.linkshealthmonitor.benchmarks;
+
+import cool.tch.linkshealthmonitor.extension.LinkMetadataAnnotations;
+import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorResult;
+import cool.tch.linkshealthmonitor.task.LinksHealthMonitorUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.BeanUtils;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static cool.tch.linkshealthmonitor.constant.Constant.ANNOTATIONS_FIELD_ENABLE_MONITOR;
+import static cool.tch.linkshealthmonitor.constant.Constant.ANNOTATIONS_FIELD_FRIEND_LINK_URL;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/19 18:00
+ * @Desc 每个友链都会执行的元数据解析和监测记录创建基准测试
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class LinkRecordBenchmark {
+
+    // Link的元数据（除了插件的字段，还有Halo和其他插件的字段）
+    private final Map<String, String> annotations = Map.of(
+        ANNOTATIONS_FIELD_ENABLE_MONITOR, "true",
+        ANNOTATIONS_FIELD_FRIEND_LINK_URL, "https://friend.example.com/links/",
+        "content.halo.run/last-modified-time", "2026-10-19T10:00:00Z",
+        "plugin.halo.run/plugin-name", "PluginLinks"
+    );
+
+    /**
+     * 解析Link的元数据
+     */
+    @Benchmark
+    public LinkMetadataAnnotations fromMap() {
+        return LinkMetadataAnnotations.fromMap(annotations);
+    }
+
+    /**
+     * 创建监测记录（与LinksHealthMonitorTask.newCheckRecord相同）
+     */
+    @Benchmark
+    public LinksHealthMonitorResult.LinkHealthMonitorRecord newCheckRecord() {
+        return checkRecord();
+    }
+
+    /**
+     * 创建监测记录并复制为无需友链监测记录（与LinksHealthMonitorTask.noMonitorOutcome相同）
+     */
+    @Benchmark
+    public LinksHealthMonitorResult.NoMonitorRecord noMonitorRecord() {
+        LinksHealthMonitorResult.NoMonitorRecord noMonitorRecord = new LinksHealthMonitorResult.NoMonitorRecord();
+        BeanUtils.copyProperties(checkRecord(), noMonitorRecord);
+        return noMonitorRecord;
+    }
+
+    private static LinksHealthMonitorResult.LinkHealthMonitorRecord checkRecord() {
+        LinksHealthMonitorResult.LinkHealthMonitorRecord checkRecord = new LinksHealthMonitorResult.LinkHealthMonitorRecord();
+        checkRecord.setLinkName("link-0f6c2a9e");
+        checkRecord.setLinkUrl(LinksHealthMonitorUtils.normalizeUrl("https://friend.example.com/"));
+        checkRecord.setLinkDisplayName("朋友的博客");
+        checkRecord.setLinkLogo("https://friend.example.com/avatar.png");
+        checkRecord.setLinkGroup("link-group-friends");
+        checkRecord.setLinkVersion(3L);
+        checkRecord.setLastCheckedAt(Instant.now());
+        return checkRecord;
+    }
+}
@@ -0,0 +1,45 @@
+package cool.tch.linkshealthmonitor.benchmarks;
+
+import cool.tch.linkshealthmonitor.task.LinksHealthMonitorUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/19 17:50
+ * @Desc LinksHealthMonitorUtils.normalizeUrl基准测试（每个友链的url、logo、友链页面地址都会标准化）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class NormalizeUrlBenchmark {
+
+    @Param({
+        // 已经是标准的地址（最常见）
+        "https://friend.example.com",
+        // 末尾有"/"
+        "https://friend.example.com/links/",
+        // 反斜杠和多余的"/"
+        "https:\\\\friend.example.com\\\\links//page/",
+        // 大写的主机名和默认端口
+        "HTTPS://Friend.Example.COM:443/links",
+        // 国际化域名
+        "https://例子.测试/links"
+    })
+    public String url;
+
+    @Benchmark
+    public String normalizeUrl() {
+        return LinksHealthMonitorUtils.normalizeUrl(url);
+    }
+}
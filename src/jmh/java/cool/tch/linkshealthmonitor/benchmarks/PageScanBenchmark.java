@@ -0,0 +1,68 @@
+package cool.tch.linkshealthmonitor.benchmarks;
+
+import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorResult;
+import cool.tch.linkshealthmonitor.task.LinksHealthMonitorUtils;
+import cool.tch.linkshealthmonitor.task.PageScanner;
+import cool.tch.linkshealthmonitor.task.SiteResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/19 17:40
+ * @Desc 网站页面的流式扫描（标题提取、本站友链扫描）基准测试，按HttpClient的分块大小输入
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class PageScanBenchmark {
+
+    @Param({"BLOG_HOME", "LINKS_PAGE", "LINKS_PAGE_MISSING", "SPA_SHELL"})
+    public HtmlFixtures.Page page;
+
+    private byte[] bytes;
+
+    @Setup
+    public void setup() {
+        bytes = page.getBytes();
+    }
+
+    /**
+     * 只提取标题（网站页面）
+     */
+    @Benchmark
+    public String title() {
+        return scan(new PageScanner("utf-8", HtmlFixtures.PAGE_URL, null)).getTitle();
+    }
+
+    /**
+     * 提取标题并扫描本站友链，再写入监测记录（友链页面）
+     */
+    @Benchmark
+    public LinksHealthMonitorResult.LinkHealthMonitorRecord backlink() {
+        PageScanner scanner = scan(new PageScanner("utf-8", HtmlFixtures.PAGE_URL, HtmlFixtures.OUR_URL));
+        SiteResponse friendLinkPage = new SiteResponse(200, HtmlFixtures.PAGE_URL, scanner.getTitle(), scanner.getContainsOurLink());
+
+        LinksHealthMonitorResult.LinkHealthMonitorRecord checkRecord = new LinksHealthMonitorResult.LinkHealthMonitorRecord();
+        LinksHealthMonitorUtils.isContainsOurLink(HtmlFixtures.OUR_URL, HtmlFixtures.PAGE_URL, friendLinkPage, checkRecord);
+        return checkRecord;
+    }
+
+    private PageScanner scan(PageScanner scanner) {
+        for (int offset = 0; offset < bytes.length && !scanner.isDone(); offset += HtmlFixtures.CHUNK_BYTES) {
+            scanner.feed(bytes, offset, Math.min(HtmlFixtures.CHUNK_BYTES, bytes.length - offset));
+        }
+        return scanner;
+    }
+}
@@ -0,0 +1,140 @@
+package cool.tch.linkshealthmonitor.benchmarks;
+
+import cool.tch.linkshealthmonitor.config.LinksHealthMonitorConfig;
+import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorResult;
+import cool.tch.linkshealthmonitor.tasks.SimulatedInternet;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/19 19:30
+ * @Desc 在模拟的互联网上执行一次完整监测的基准测试（100、1000、10000个友链，虚拟线程和响应式两种监测方式）
+ * 报告整次监测的耗时，以及监测期间的堆内存峰值和平台线程数峰值（包括模拟网站的HTTP服务器，它的请求在虚拟线程中处理）
+ * 默认的行为比例中有0.5%的网站超时、0.5%的网站持续慢速发送，每个这样的网站都要等待请求超时（10秒）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class SimulatedRunBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int linkCount;
+
+    @Param({"false", "true"})
+    public boolean reactiveCheckEnable;
+
+    private SimulatedInternet internet;
+
+    private LinksHealthMonitorConfig config;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        internet = new SimulatedInternet(linkCount, new SimulatedInternet.Profile());
+
+        config = new LinksHealthMonitorConfig();
+        config.setCheckConcurrency(64);
+        config.setMaxConnections(64);
+        // 所有网站都在本机，不限制每秒请求数（默认每秒10个请求时，耗时只取决于限流）
+        config.setRequestsPerSecond(0);
+        config.setReactiveCheckEnable(reactiveCheckEnable);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        internet.close();
+    }
+
+    @Benchmark
+    public LinksHealthMonitorResult.ResultSpec fullCheck(RunResources resources) {
+        resources.start();
+        try {
+            return internet.runFullCheck(config);
+        } finally {
+            resources.stop();
+        }
+    }
+
+    /**
+     * 监测期间的资源占用（作为JMH的附加指标输出）
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class RunResources {
+
+        // 采样间隔（毫秒）
+        private static final long SAMPLE_INTERVAL_MILLIS = 5;
+
+        private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+        private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+        // 堆内存使用量的峰值（MB，按采样间隔采样）
+        public long peakHeapMb;
+
+        // 平台线程数的峰值（虚拟线程不计入）
+        public long peakThreads;
+
+        private volatile boolean sampling;
+
+        private volatile long peakHeapBytes;
+
+        private Thread sampler;
+
+        /**
+         * 每次监测前回收垃圾，让堆内存的基线一致
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            System.gc();
+            peakHeapMb = 0;
+            peakThreads = 0;
+        }
+
+        void start() {
+            peakHeapBytes = MEMORY.getHeapMemoryUsage().getUsed();
+            THREADS.resetPeakThreadCount();
+            sampling = true;
+            sampler = Thread.ofPlatform().daemon().name("run-resources-sampler").start(() -> {
+                while (sampling) {
+                    peakHeapBytes = Math.max(peakHeapBytes, MEMORY.getHeapMemoryUsage().getUsed());
+                    try {
+                        Thread.sleep(SAMPLE_INTERVAL_MILLIS);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            });
+        }
+
+        void stop() {
+            sampling = false;
+            try {
+                sampler.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            peakHeapMb = Math.max(peakHeapBytes, MEMORY.getHeapMemoryUsage().getUsed()) / (1024 * 1024);
+            // 不计入采样线程
+            peakThreads = THREADS.getPeakThreadCount() - 1;
+        }
+    }
+}
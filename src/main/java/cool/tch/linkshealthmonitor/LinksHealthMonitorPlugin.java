@@ -1,6 +1,10 @@
 package cool.tch.linkshealthmonitor;
 
+import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorDailySummary;
 import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorResult;
+import cool.tch.linkshealthmonitor.task.LinksHealthMonitorTask;
+import cool.tch.linkshealthmonitor.task.MonitorMetrics;
+import cool.tch.linkshealthmonitor.task.SharedHttpClient;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import run.halo.app.extension.Scheme;
@@ -25,9 +29,19 @@ public class LinksHealthMonitorPlugin extends BasePlugin {
 
     private final SchemeManager schemeManager;
 
-    public LinksHealthMonitorPlugin(PluginContext pluginContext, SchemeManager schemeManager) {
+    private final SharedHttpClient sharedHttpClient;
+
+    private final MonitorMetrics monitorMetrics;
+
+    private final LinksHealthMonitorTask linksHealthMonitorTask;
+
+    public LinksHealthMonitorPlugin(PluginContext pluginContext, SchemeManager schemeManager, SharedHttpClient sharedHttpClient,
+        MonitorMetrics monitorMetrics, LinksHealthMonitorTask linksHealthMonitorTask) {
         super(pluginContext);
         this.schemeManager = schemeManager;
+        this.sharedHttpClient = sharedHttpClient;
+        this.monitorMetrics = monitorMetrics;
+        this.linksHealthMonitorTask = linksHealthMonitorTask;
     }
 
     @Override
@@ -35,6 +49,7 @@ public class LinksHealthMonitorPlugin extends BasePlugin {
         log.info("{}【{}】启动", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR);
         // 注册自定义模型
         schemeManager.register(LinksHealthMonitorResult.class);
+        schemeManager.register(LinksHealthMonitorDailySummary.class);
     }
 
     @Override
@@ -43,5 +58,12 @@ public class LinksHealthMonitorPlugin extends BasePlugin {
         // 取消注册自定义模型
         Scheme scheme = schemeManager.get(LinksHealthMonitorResult.class);
         schemeManager.unregister(scheme);
+        schemeManager.unregister(schemeManager.get(LinksHealthMonitorDailySummary.class));
+        // 停止监测任务，关闭合并监测记录的线程
+        linksHealthMonitorTask.close();
+        // 关闭共用的HTTP客户端
+        sharedHttpClient.close();
+        // 移除注册的指标
+        monitorMetrics.close();
     }
 }
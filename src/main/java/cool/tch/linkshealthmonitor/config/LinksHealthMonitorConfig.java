@@ -12,4 +12,55 @@ public class LinksHealthMonitorConfig {
 
     // 自定义cron
     private String customizedCron;
+
+    // 友链监测的并发数
+    private Integer checkConcurrency;
+
+    // 同一主机的并发上限
+    private Integer perHostConcurrency;
+
+    // 全局每秒请求数（0表示不限制）
+    private Integer requestsPerSecond;
+
+    // 是否启用响应式监测（非阻塞）
+    private boolean reactiveCheckEnable;
+
+    // 同时打开的连接数上限
+    private Integer maxConnections;
+
+    // 是否启用HTTP/2（为null时启用）
+    private Boolean http2Enable;
+
+    // 是否启用增量监测
+    private boolean incrementalCheckEnable;
+
+    // 增量监测时监测记录的有效期（分钟）
+    private Integer incrementalStaleMinutes;
+
+    // 是否启用自适应监测频率（增量监测时，越稳定的友链监测间隔越长）
+    private boolean adaptiveCheckEnable;
+
+    // 自适应监测频率时监测记录有效期的上限（分钟）
+    private Integer adaptiveMaxStaleMinutes;
+
+    // 增量监测时每小时的请求预算（0表示不限制）
+    private Integer hourlyRequestBudget;
+
+    // 友链修改后是否立即监测该友链（为null时启用）
+    private Boolean linkChangeCheckEnable;
+
+    // 是否启用分散监测
+    private boolean spreadCheckEnable;
+
+    // 是否启用增量存储（只保存相对关键帧变化的记录，需要同时启用增量监测）
+    private boolean deltaStorageEnable;
+
+    // 增量存储时的关键帧间隔
+    private Integer keyframeInterval;
+
+    // 保留的监测结果数
+    private Integer resultRetentionCount;
+
+    // 每日汇总的保留天数（0表示不删除）
+    private Integer summaryRetentionDays;
 }
@@ -27,6 +27,75 @@ public class Constant {
     // 服务关闭时,等待所有正在执行的任务完成，最多等待的秒数
     public static final int CUSTOM_THREAD_AWAIT_TIME = 60;
 
+    // 友链并发监测的默认并发数
+    public static final int DEFAULT_CHECK_CONCURRENCY = 8;
+
+    // 友链并发监测的最大并发数（防止配置过大拖垮服务器）
+    public static final int MAX_CHECK_CONCURRENCY = 64;
+
+    // 同一主机的默认并发上限（很多友链共用同一个静态托管或CDN）
+    public static final int DEFAULT_PER_HOST_CONCURRENCY = 2;
+
+    // 默认的全局每秒请求数
+    public static final int DEFAULT_REQUESTS_PER_SECOND = 10;
+
+    // 默认的同时打开的连接数上限
+    public static final int DEFAULT_MAX_CONNECTIONS = 32;
+
+    // 增量监测时监测记录的默认有效期（分钟），过期后重新监测
+    public static final int DEFAULT_INCREMENTAL_STALE_MINUTES = 24 * 60;
+
+    // 自适应监测频率时监测记录有效期的默认上限（分钟）
+    public static final int DEFAULT_ADAPTIVE_MAX_STALE_MINUTES = 7 * 24 * 60;
+
+    // 监测一个友链预计发出的请求数（网站、logo、友链页面），用于按请求预算估算可以监测的友链数
+    public static final int ESTIMATED_REQUESTS_PER_LINK = 3;
+
+    // 友链修改后等待的秒数（期间的连续修改合并为一次监测）
+    public static final int LINK_CHANGE_DEBOUNCE_SECONDS = 10;
+
+    // 友链连续修改时最多推迟监测的秒数
+    public static final int LINK_CHANGE_MAX_DELAY_SECONDS = 60;
+
+    // 分散监测时使用两次执行间隔的百分比（留出余量，下次执行前全部监测完）
+    public static final int SPREAD_WINDOW_PERCENT = 90;
+
+    // 分散监测的时间片（秒），同一时间片内的友链一起监测
+    public static final int SPREAD_SLOT_SECONDS = 60;
+
+    // 默认保留的监测结果数（更早的监测结果汇总到每日汇总后删除）
+    public static final int DEFAULT_RESULT_RETENTION_COUNT = 100;
+
+    // 每日汇总的默认保留天数
+    public static final int DEFAULT_SUMMARY_RETENTION_DAYS = 365;
+
+    // 清理历史监测结果时每批处理的监测结果数
+    public static final int RETENTION_BATCH_SIZE = 50;
+
+    // 每次监测后最多清理的批数（积压较多时分多次清理）
+    public static final int RETENTION_MAX_BATCHES_PER_RUN = 20;
+
+    // 增量存储时默认的关键帧间隔（每隔多少个监测结果保存一次完整的监测结果）
+    public static final int DEFAULT_KEYFRAME_INTERVAL = 24;
+
+    // 分页查询监测记录时默认每页的记录数
+    public static final int RECORD_PAGE_DEFAULT_SIZE = 20;
+
+    // 分页查询监测记录时每页最多的记录数
+    public static final int RECORD_PAGE_MAX_SIZE = 500;
+
+    // 推送监测进度时心跳的间隔（秒）
+    public static final int PROGRESS_HEARTBEAT_SECONDS = 15;
+
+    // 任务执行信息中返回最近一次监测最慢的主机数
+    public static final int SLOWEST_HOSTS_COUNT = 10;
+
+    // 友链监测线程名前缀
+    public static final String CHECK_THREAD_NAME_PREFIX = "links-health-monitor-check-";
+
+    // 合并监测记录的线程名（分散监测的批次、变更监测依次在这个线程中执行）
+    public static final String MERGE_THREAD_NAME = "links-health-monitor-merge";
+
     // 默认的最短时间，供前端展示
     public static final String DEFAULT_SHORTEST_TIME = "1秒";
 
@@ -45,8 +114,26 @@ public class Constant {
     // 网络请求方法 GET
     public static final String HTTP_REQUEST_METHOD_GET = "GET";
 
-    // 网络请求User-Agent
-    public static final String HTTP_REQUEST_USER_AGENT = "Mozilla/5.0 (compatible; FriendLinkHealth-Monitor/1.0)";
+    // 模拟浏览器访问时的User-Agent（Chrome）
+    public static final String HTTP_REQUEST_BROWSER_USER_AGENT = "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/142.0.0.0 Safari/537.36";
+
+    // 模拟浏览器访问时的Accept
+    public static final String HTTP_REQUEST_BROWSER_ACCEPT = "text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,image/apng,*/*;q=0.8,application/signed-exchange;v=b3;q=0.7";
+
+    // 请求图片时的Accept
+    public static final String HTTP_REQUEST_IMAGE_ACCEPT = "image/avif,image/webp,image/apng,image/svg+xml,image/*,*/*;q=0.8";
+
+    // 提取页面标题时最多读取的字节数
+    public static final int TITLE_SCAN_MAX_BYTES = 64 * 1024;
+
+    // 流式读取页面时每次读取的字节数
+    public static final int STREAM_READ_BUFFER_BYTES = 8 * 1024;
+
+    // TLS会话缓存的数量（用于TLS会话恢复，省去完整握手）
+    public static final int TLS_SESSION_CACHE_SIZE = 1024;
+
+    // TLS会话缓存的有效期（秒）
+    public static final int TLS_SESSION_TIMEOUT_SECONDS = 3600;
 
     // 默认的友链页面路由
     public static final String[] DEFAULT_FRIEND_LINK_ROUTES = {"/links", "/link", "/friends"};
@@ -1,21 +1,40 @@
 package cool.tch.linkshealthmonitor.endpoint;
 
-import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorResult;
-import cool.tch.linkshealthmonitor.service.CustomResourceService;
+import cool.tch.linkshealthmonitor.service.LatestResultCache;
+import cool.tch.linkshealthmonitor.service.ResultIndex;
 import cool.tch.linkshealthmonitor.task.LinksHealthMonitorTask;
 import cool.tch.linkshealthmonitor.task.MonitorableScheduledFuture;
+import cool.tch.linkshealthmonitor.task.RunProgress;
 import lombok.RequiredArgsConstructor;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.server.RequestPredicates;
 import org.springframework.web.reactive.function.server.RouterFunction;
 import org.springframework.web.reactive.function.server.RouterFunctions;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import run.halo.app.core.extension.endpoint.CustomEndpoint;
 import run.halo.app.extension.GroupVersion;
+import run.halo.app.extension.ListResult;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 
+import static cool.tch.linkshealthmonitor.constant.Constant.PROGRESS_HEARTBEAT_SECONDS;
+import static cool.tch.linkshealthmonitor.constant.Constant.RECORD_PAGE_DEFAULT_SIZE;
+import static cool.tch.linkshealthmonitor.constant.Constant.RECORD_PAGE_MAX_SIZE;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM;
 
 /**
  * @Author Denchouka
@@ -26,19 +45,42 @@ import static org.springframework.http.MediaType.APPLICATION_JSON;
 @RequiredArgsConstructor
 public class LinksHealthMonitorEndpoint implements CustomEndpoint {
 
+    // 监测记录的查询参数
+    private static final List<String> RECORD_QUERY_PARAMS = List.of("page", "size", "type", "status", "group", "fields");
+
     private final LinksHealthMonitorTask linksHealthMonitorTask;
 
-    // 操作自定义模型
-    private final CustomResourceService service;
+    // 最新友链监测记录的缓存
+    private final LatestResultCache latestResultCache;
+
+    // 监测进度的广播
+    private final RunProgress runProgress;
 
     @Override
     public RouterFunction<ServerResponse> endpoint() {
         return RouterFunctions.route()
             .GET("/status", RequestPredicates.accept(APPLICATION_JSON), this::status)
             .GET("/latestResult", RequestPredicates.accept(APPLICATION_JSON), this::latestResults)
+            .GET("/progress", this::progress)
             .build();
     }
 
+    /**
+     * 推送监测进度（Server-Sent Events，订阅时先推送最近一次的进度）
+     * @param request request
+     * @return 监测进度
+     */
+    private Mono<ServerResponse> progress(ServerRequest request) {
+        Flux<ServerSentEvent<Object>> events = runProgress.events()
+            .map(event -> ServerSentEvent.builder((Object) event).event(event.getType().name()).build());
+        // 定时发送注释，防止代理因为长时间没有数据断开连接
+        Flux<ServerSentEvent<Object>> heartbeats = Flux.interval(Duration.ofSeconds(PROGRESS_HEARTBEAT_SECONDS))
+            .map(tick -> ServerSentEvent.builder().comment("heartbeat").build());
+        return ServerResponse.ok()
+            .contentType(TEXT_EVENT_STREAM)
+            .body(BodyInserters.fromServerSentEvents(Flux.merge(events, heartbeats)));
+    }
+
     /**
      * 获取任务执行信息
      * @param request request
@@ -56,8 +98,79 @@ public class LinksHealthMonitorEndpoint implements CustomEndpoint {
      * @return 友链监测结果
      */
     private Mono<ServerResponse> latestResults(ServerRequest request) {
-        Mono<LinksHealthMonitorResult> latestResult = service.getLatestResult();
-        return ServerResponse.ok().body(latestResult, LinksHealthMonitorResult.class);
+        // 有查询参数时分页查询监测记录，否则返回完整的监测结果
+        ResultIndex.RecordQuery query = parseRecordQuery(request);
+        // 监测结果没有变化时返回304
+        return latestResultCache.get()
+            .flatMap(snapshot -> request.checkNotModified(snapshot.etag())
+                .switchIfEmpty(Mono.defer(() -> ServerResponse.ok()
+                    .eTag(snapshot.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .bodyValue(query == null ? snapshot.result() : snapshot.index().query(query)))))
+            .switchIfEmpty(Mono.defer(() -> query == null
+                ? ServerResponse.ok().build()
+                : ServerResponse.ok().bodyValue(ListResult.emptyResult())));
+    }
+
+    /**
+     * 解析监测记录的查询参数
+     * page、size：分页（size为0时不分页）；type：monitor（默认）或者nomonitor；
+     * status：inaccessible、logo-broken、backlink-missing、name-changed，多个用逗号分隔；group：分组的name；fields：返回的字段，多个用逗号分隔
+     * @param request request
+     * @return 查询条件（没有查询参数时为null）
+     */
+    private ResultIndex.RecordQuery parseRecordQuery(ServerRequest request) {
+        MultiValueMap<String, String> params = request.queryParams();
+        if (RECORD_QUERY_PARAMS.stream().noneMatch(params::containsKey)) {
+            return null;
+        }
+
+        int page = parseInt(params.getFirst("page"), 1, "page");
+        // 指定了页码时默认每页RECORD_PAGE_DEFAULT_SIZE条，否则默认不分页
+        int size = Math.min(parseInt(params.getFirst("size"), params.containsKey("page") ? RECORD_PAGE_DEFAULT_SIZE : 0, "size"),
+            RECORD_PAGE_MAX_SIZE);
+
+        String type = params.getFirst("type");
+        if (type != null && !"monitor".equals(type) && !"nomonitor".equals(type)) {
+            throw new ServerWebInputException("type必须是monitor或者nomonitor");
+        }
+
+        Set<ResultIndex.RecordStatus> statuses = EnumSet.noneOf(ResultIndex.RecordStatus.class);
+        for (String value : splitValues(params.get("status"))) {
+            ResultIndex.RecordStatus status = ResultIndex.RecordStatus.fromValue(value);
+            if (status == null) {
+                throw new ServerWebInputException("不支持的status：" + value);
+            }
+            statuses.add(status);
+        }
+
+        return new ResultIndex.RecordQuery(page, size, "nomonitor".equals(type), statuses,
+            StringUtils.defaultIfBlank(params.getFirst("group"), null), splitValues(params.get("fields")));
+    }
+
+    private static int parseInt(String value, int defaultValue, String name) {
+        if (StringUtils.isBlank(value)) {
+            return defaultValue;
+        }
+        try {
+            return Math.max(Integer.parseInt(value.trim()), 0);
+        } catch (NumberFormatException e) {
+            throw new ServerWebInputException(name + "必须是整数");
+        }
+    }
+
+    /**
+     * 拆分逗号分隔的参数值（参数可以重复）
+     */
+    private static List<String> splitValues(List<String> values) {
+        List<String> result = new ArrayList<>();
+        if (values != null) {
+            values.forEach(value -> Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(StringUtils::isNotEmpty)
+                .forEach(result::add));
+        }
+        return result;
     }
 
     @Override
@@ -0,0 +1,79 @@
+package cool.tch.linkshealthmonitor.extension;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import run.halo.app.extension.AbstractExtension;
+import run.halo.app.extension.GVK;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/19 10:30
+ * @Desc 友链监测的每日汇总（超出保留数量的历史监测结果按天汇总为每个友链的可用率后删除）
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@GVK(kind = "MonitorDailySummary",
+    group = "result.linkshealthmonitor.tch.cool",
+    version = "v1alpha1",
+    singular = "dailysummary",
+    plural = "dailysummaries")
+public class LinksHealthMonitorDailySummary extends AbstractExtension {
+
+    @Schema(requiredMode = Schema.RequiredMode.REQUIRED)
+    private SummarySpec summarySpec;
+
+    @Data
+    public static class SummarySpec {
+
+        // 汇总的日期（yyyy-MM-dd，北京时间）
+        @Schema(requiredMode = Schema.RequiredMode.REQUIRED)
+        private String date;
+
+        // 汇总的监测结果数
+        private int resultCount;
+
+        // 最后汇总的监测结果的创建时间（早于等于该时间的监测结果不再重复汇总）
+        private Instant lastResultAt;
+
+        // 每个友链的可用率
+        private List<LinkUptime> linkUptimeList;
+    }
+
+    /**
+     * 友链的可用率
+     */
+    @Data
+    public static class LinkUptime {
+
+        // 友链基本信息（最后一次汇总时的）
+        // 检索友链的key(自定义模型Link元数据的name)
+        private String linkName;
+
+        // 友链的url(自定义模型的url)
+        private String linkUrl;
+
+        // 友链的网站名称(自定义模型的displayName)
+        private String linkDisplayName;
+
+        // 监测次数
+        private int checks;
+
+        // 正常的次数（网站、logo可以访问，网站名称没有变更，配置了友链页面时包含本站友链）
+        private int healthyChecks;
+
+        // 网站可以访问的次数
+        private int websiteAccessibleChecks;
+
+        // 网站logo可以访问的次数
+        private int logoAccessibleChecks;
+
+        // 包含本站友链的次数
+        private int containsOurLinkChecks;
+
+        // 可用率（正常的次数 / 监测次数，百分比）
+        private double uptime;
+    }
+}
@@ -5,6 +5,7 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import run.halo.app.extension.AbstractExtension;
 import run.halo.app.extension.GVK;
+import java.time.Instant;
 import java.util.List;
 
 /**
@@ -38,11 +39,33 @@ public class LinksHealthMonitorResult extends AbstractExtension {
         // 执行任务的Cron表达式
         private String cronExpression;
 
+        // 监测时的本站外部地址（标准化，本站地址变更后增量监测不再沿用上次的记录）
+        private String ourUrl;
+
         // 友链监测记录
         private List<LinkHealthMonitorRecord> linkHealthMonitorRecordList;
 
         // 友链监测记录
         private List<NoMonitorRecord> noMonitorRecordList;
+
+        // 友链页面的条件请求缓存（下次监测时发送If-None-Match/If-Modified-Since）
+        private List<PageValidator> pageValidatorList;
+
+        // 增量存储
+        // 关键帧的name（为null时是完整的监测结果；否则各记录列表只包含相对关键帧变化的记录）
+        private String keyframeName;
+
+        // 关键帧之后的第几个监测结果
+        private int deltaIndex;
+
+        // 相对关键帧删除的友链监测记录（友链的name）
+        private List<String> removedLinkNames;
+
+        // 相对关键帧删除的无需友链监测记录（友链的name）
+        private List<String> removedNoMonitorLinkNames;
+
+        // 相对关键帧删除的友链页面的条件请求缓存（页面地址）
+        private List<String> removedPageValidatorUrls;
     }
 
     /**
@@ -88,6 +111,66 @@ public class LinksHealthMonitorResult extends AbstractExtension {
 
         // 是否包含本站友链
         private boolean containsOurLink;
+
+        // 增量监测
+        // 友链的版本(自定义模型Link元数据的version，友链修改后变化)
+        private Long linkVersion;
+
+        // 影响监测的友链数据（插件重启后判断友链变更是否需要重新监测）
+        private String linkFingerprint;
+
+        // 最近一次实际监测的时间（沿用上次的记录时不变）
+        private Instant lastCheckedAt;
+
+        // 连续正常的监测次数（自适应监测频率，越稳定的友链监测间隔越长）
+        private int healthyStreak;
+
+        // 请求耗时
+        // 网站页面的请求耗时
+        private ProbeTiming siteTiming;
+
+        // 网站logo的请求耗时
+        private ProbeTiming logoTiming;
+
+        // 友链页面的请求耗时（友链页面就是网站首页时与网站页面相同）
+        private ProbeTiming friendLinkPageTiming;
+    }
+
+    /**
+     * 一次请求（包括跟随的重定向）各阶段的耗时（毫秒）
+     * HttpClient不单独提供建立连接和TLS握手的耗时，新建连接时包含在首字节耗时中
+     */
+    @Data
+    public static class ProbeTiming {
+
+        // DNS解析耗时（解析失败或者地址是IP时为null）
+        // 拿到限流许可后由插件单独解析一次，HttpClient建立连接时会再解析一次（通常直接使用JVM的DNS缓存），
+        // 这里是第一次解析的耗时，第二次解析没有命中缓存时的耗时计入首字节耗时
+        private Long dnsMillis;
+
+        // 等待限流许可的耗时
+        private long queueMillis;
+
+        // 首字节耗时（从发出请求到收到最终响应头，包括建立连接、TLS握手和重定向）
+        private Long ttfbMillis;
+
+        // 接收内容的耗时（从收到最终响应头到读取结束）
+        private Long downloadMillis;
+
+        // 总耗时
+        private long totalMillis;
+
+        // 最终响应的状态码（访问失败时为-1）
+        private int statusCode;
+
+        // 读取的字节数（得到结果后取消下载，不一定是完整的内容）
+        private long bytesRead;
+
+        // 跟随的重定向次数
+        private int redirects;
+
+        // 请求失败的原因（timeout、dns、tls、connect、error，收到响应时为null）
+        private String failure;
     }
 
     /**
@@ -114,5 +197,36 @@ public class LinksHealthMonitorResult extends AbstractExtension {
 
         // 友链的网站分组(自定义模型的groupName对应的displayName)
         private String linkGroupDisplayName;
+
+        // 影响监测的友链数据（插件重启后判断友链变更是否需要重新监测）
+        private String linkFingerprint;
+    }
+
+    /**
+     * 友链页面的条件请求缓存
+     */
+    @Data
+    public static class PageValidator {
+
+        // 页面地址（标准化）
+        private String url;
+
+        // 扫描时的本站外部地址（本站地址变更后缓存的结果失效）
+        private String ourUrl;
+
+        // 响应头ETag
+        private String etag;
+
+        // 响应头Last-Modified
+        private String lastModified;
+
+        // 跟随重定向后的最终地址
+        private String finalUrl;
+
+        // 页面标题
+        private String title;
+
+        // 是否包含本站友链
+        private boolean containsOurLink;
     }
 }
@@ -0,0 +1,104 @@
+package cool.tch.linkshealthmonitor.listener;
+
+import cool.tch.linkshealthmonitor.extension.Link;
+import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorResult;
+import cool.tch.linkshealthmonitor.service.CustomResourceService;
+import cool.tch.linkshealthmonitor.task.LinkChangeQueue;
+import cool.tch.linkshealthmonitor.task.LinksHealthMonitorUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import run.halo.app.extension.ExtensionClient;
+import run.halo.app.extension.controller.Controller;
+import run.halo.app.extension.controller.ControllerBuilder;
+import run.halo.app.extension.controller.Reconciler;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/18 23:10
+ * @Desc 友链变更的监听器（友链的地址、logo、网站名称、分组、友链页面或者是否监测变更时，把该友链加入监测队列）
+ * 修改友链的其他内容（如描述、排序）不会触发监测
+ * 变更合并到最新的监测结果后才记录新的友链数据；没有合并时（未启用变更监测、还没有监测结果）下次变更时仍会监测
+ */
+@Component
+@RequiredArgsConstructor
+public class LinkChangeReconciler implements Reconciler<Reconciler.Request> {
+
+    // 与自定义模型交互
+    private final ExtensionClient client;
+
+    // 操作自定义模型
+    private final CustomResourceService service;
+
+    // 友链变更的监测队列
+    private final LinkChangeQueue linkChangeQueue;
+
+    // 友链的name -> 已监测的影响监测的友链数据（第一次变更时从最新的监测结果中加载）
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+
+    // 是否已从最新的监测结果中加载
+    private volatile boolean loaded;
+
+    @Override
+    public Result reconcile(Request request) {
+        loadFingerprints();
+
+        String linkName = request.name();
+        Optional<Link> link = client.fetch(Link.class, linkName);
+        // 友链已删除，从监测结果中移除
+        if (link.isEmpty() || link.get().getMetadata().getDeletionTimestamp() != null || link.get().getSpec() == null) {
+            String previous = fingerprints.get(linkName);
+            if (previous != null) {
+                linkChangeQueue.enqueue(linkName, () -> fingerprints.remove(linkName, previous));
+            }
+            return Result.doNotRetry();
+        }
+
+        String fingerprint = LinksHealthMonitorUtils.fingerprintOf(link.get());
+        if (!fingerprint.equals(fingerprints.get(linkName))) {
+            linkChangeQueue.enqueue(linkName, () -> fingerprints.put(linkName, fingerprint));
+        }
+        return Result.doNotRetry();
+    }
+
+    @Override
+    public Controller setupWith(ControllerBuilder builder) {
+        return builder
+            .extension(new Link())
+            // 已有的友链由定时监测负责
+            .syncAllOnStart(false)
+            .build();
+    }
+
+    /**
+     * 从最新的监测结果中加载友链数据（插件启动后第一次变更时加载一次）
+     * 使用监测时保存的友链数据，不从监测结果推断（不可访问的友链没有友链页面路由）；没有保存的旧监测记录不加载
+     */
+    private synchronized void loadFingerprints() {
+        if (loaded) {
+            return;
+        }
+
+        LinksHealthMonitorResult latest = service.getLatestResult().block();
+        LinksHealthMonitorResult.ResultSpec resultSpec = latest == null ? null : latest.getResultSpec();
+        if (resultSpec != null) {
+            if (resultSpec.getLinkHealthMonitorRecordList() != null) {
+                resultSpec.getLinkHealthMonitorRecordList().forEach(record -> loadFingerprint(record.getLinkName(),
+                    record.getLinkFingerprint()));
+            }
+            if (resultSpec.getNoMonitorRecordList() != null) {
+                resultSpec.getNoMonitorRecordList().forEach(record -> loadFingerprint(record.getLinkName(),
+                    record.getLinkFingerprint()));
+            }
+        }
+        loaded = true;
+    }
+
+    private void loadFingerprint(String linkName, String fingerprint) {
+        if (linkName != null && fingerprint != null) {
+            fingerprints.putIfAbsent(linkName, fingerprint);
+        }
+    }
+}
@@ -3,10 +3,12 @@ package cool.tch.linkshealthmonitor.service;
 import cool.tch.linkshealthmonitor.extension.Link;
 import cool.tch.linkshealthmonitor.extension.LinkGroup;
 import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorResult;
+import cool.tch.linkshealthmonitor.task.ResultDelta;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import run.halo.app.extension.ListOptions;
 import run.halo.app.extension.PageRequestImpl;
@@ -15,7 +17,10 @@ import run.halo.app.extension.router.selector.FieldSelector;
 import run.halo.app.infra.ExternalUrlSupplier;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static cool.tch.linkshealthmonitor.constant.Constant.LINKS_HEALTH_MONITOR;
 import static cool.tch.linkshealthmonitor.constant.Constant.LINKS_HEALTH_MONITOR_DESC;
@@ -42,12 +47,7 @@ public class CustomResourceService {
      * @return 所有的友链数据
      */
     public List<Link> getAllLinks() {
-        // 查询所有的友链
-        ListOptions listOptions = new ListOptions();
-        // 筛选对象metadata.deletionTimestamp为空的，即未被删除的数据
-        FieldSelector fieldSelector = FieldSelector.of(isNull("metadata.deletionTimestamp"));
-        listOptions.setFieldSelector(fieldSelector);
-        return client.listAll(Link.class, listOptions, Sort.by("metadata.creationTimestamp"))
+        return listAllLinks()
                 .collectList()
                 .timeout(Duration.ofSeconds(10))
                 .onErrorResume(error -> {
@@ -57,6 +57,37 @@ public class CustomResourceService {
                 .block();
     }
 
+    /**
+     * 获取所有的友链数据（响应式）
+     * @return 所有的友链数据
+     */
+    public Flux<Link> listAllLinks() {
+        // 查询所有的友链
+        ListOptions listOptions = new ListOptions();
+        // 筛选对象metadata.deletionTimestamp为空的，即未被删除的数据
+        FieldSelector fieldSelector = FieldSelector.of(isNull("metadata.deletionTimestamp"));
+        listOptions.setFieldSelector(fieldSelector);
+        return client.listAll(Link.class, listOptions, Sort.by("metadata.creationTimestamp"));
+    }
+
+    /**
+     * 根据name获取友链数据（不存在或者已删除的友链不返回）
+     * @param linkNames 友链的name
+     * @return 友链数据（获取失败时为null）
+     */
+    public List<Link> getLinksByNames(Collection<String> linkNames) {
+        return Flux.fromIterable(linkNames)
+            .flatMap(linkName -> client.fetch(Link.class, linkName))
+            .filter(link -> link.getMetadata().getDeletionTimestamp() == null)
+            .collectList()
+            .timeout(Duration.ofSeconds(10))
+            .onErrorResume(error -> {
+                log.error("{}【{}】获取友链数据失败: {}", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR, error.getMessage(), error);
+                return Mono.empty();
+            })
+            .block();
+    }
+
     /**
      * 获取最新友链监测记录
      * @return 最新友链监测记录
@@ -88,9 +119,51 @@ public class CustomResourceService {
                 } else {
                     return Mono.empty();
                 }
+            })
+            // 增量存储的监测结果，根据关键帧还原
+            .flatMap(this::resolveResult);
+    }
+
+    /**
+     * 根据name获取监测结果（不还原增量）
+     * @param name 监测结果的name
+     * @return 监测结果
+     */
+    public Mono<LinksHealthMonitorResult> getResult(String name) {
+        return client.fetch(LinksHealthMonitorResult.class, name)
+            .timeout(Duration.ofSeconds(10))
+            .onErrorResume(error -> {
+                log.error("{}【{}】获取友链监测记录失败: {}", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR, error.getMessage(), error);
+                return Mono.empty();
             });
     }
 
+    /**
+     * 还原增量存储的监测结果（元数据不变，记录替换为关键帧加上增量）
+     * 关键帧不存在时无法还原，增量只有变化的记录，不能当作完整的监测结果，返回空（等同于还没有监测结果：
+     * 不合并变更监测和分散监测的结果，下一次完整监测重新保存关键帧）
+     * @param result 监测结果
+     * @return 完整的监测结果（关键帧不存在时为空）
+     */
+    public Mono<LinksHealthMonitorResult> resolveResult(LinksHealthMonitorResult result) {
+        LinksHealthMonitorResult.ResultSpec resultSpec = result.getResultSpec();
+        if (resultSpec == null || resultSpec.getKeyframeName() == null) {
+            return Mono.just(result);
+        }
+
+        return getResult(resultSpec.getKeyframeName())
+            .filter(keyframe -> keyframe.getResultSpec() != null)
+            .map(keyframe -> {
+                result.setResultSpec(ResultDelta.decode(keyframe.getResultSpec(), resultSpec));
+                return result;
+            })
+            .switchIfEmpty(Mono.defer(() -> {
+                log.warn("{}【{}】友链监测记录的关键帧【{}】不存在，无法还原", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR,
+                    resultSpec.getKeyframeName());
+                return Mono.empty();
+            }));
+    }
+
     /**
      * 构建按创建时间降序排序的 Sort 对象
      * @return Sort 对象
@@ -100,19 +173,26 @@ public class CustomResourceService {
     }
 
     /**
-     * 根据分组的groupName获取分组的displayName
-     * @param groupName 分组的groupName
-     * @return 分组的displayName
+     * 获取所有分组的displayName（每次监测开始时查询一次，监测中按groupName直接查表）
+     * @return 分组的groupName -> 分组的displayName（获取失败时为空）
      */
-    public String getGroupDisplayNameByName(String groupName) {
-        return client.fetch(LinkGroup.class, groupName)
-            .map(linkGroup -> linkGroup.getSpec().getDisplayName())
+    public Map<String, String> getGroupDisplayNames() {
+        return listGroupDisplayNames().block();
+    }
+
+    /**
+     * 获取所有分组的displayName（响应式）
+     * @return 分组的groupName -> 分组的displayName（获取失败时为空）
+     */
+    public Mono<Map<String, String>> listGroupDisplayNames() {
+        return client.listAll(LinkGroup.class, new ListOptions(), Sort.unsorted())
+            .filter(linkGroup -> linkGroup.getSpec() != null && linkGroup.getSpec().getDisplayName() != null)
+            .collectMap(linkGroup -> linkGroup.getMetadata().getName(), linkGroup -> linkGroup.getSpec().getDisplayName())
             .timeout(Duration.ofSeconds(10))
             .onErrorResume(error -> {
                 log.error("{}【{}】获取分组数据失败: {}", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR, error.getMessage(), error);
-                return null;
-            })
-            .block();
+                return Mono.just(new HashMap<>());
+            });
     }
 
     /**
@@ -0,0 +1,101 @@
+package cool.tch.linkshealthmonitor.service;
+
+import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorResult;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import run.halo.app.extension.MetadataOperator;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/19 13:00
+ * @Desc 最新友链监测记录的缓存（监测结果保存后整体替换，控制台查询时不再查询自定义模型）
+ * 插件启动后第一次查询时从自定义模型加载
+ */
+@Component
+@RequiredArgsConstructor
+public class LatestResultCache {
+
+    // 操作自定义模型
+    private final CustomResourceService service;
+
+    // 最新的监测结果（为null时未加载）
+    private final AtomicReference<Snapshot> latest = new AtomicReference<>();
+
+    /**
+     * 获取最新的监测结果
+     * @return 最新的监测结果（还没有监测结果时为空）
+     */
+    public Mono<Snapshot> get() {
+        Snapshot snapshot = latest.get();
+        if (snapshot != null) {
+            return Mono.just(snapshot);
+        }
+
+        return service.getLatestResult()
+            .map(result -> {
+                Snapshot loaded = snapshotOf(result);
+                // 加载期间已经保存了新的监测结果时，以新的为准
+                return latest.compareAndSet(null, loaded) ? loaded : latest.get();
+            });
+    }
+
+    /**
+     * 监测结果保存后替换缓存（只接受更新的监测结果：完整监测和合并监测同时进行时，先开始的合并不会覆盖新的完整监测结果）
+     * @param stored 保存后的监测结果（增量存储时只包含变化的记录）
+     * @param resultSpec 完整的监测结果
+     */
+    public void put(LinksHealthMonitorResult stored, LinksHealthMonitorResult.ResultSpec resultSpec) {
+        LinksHealthMonitorResult result = new LinksHealthMonitorResult();
+        result.setMetadata(stored.getMetadata());
+        result.setResultSpec(resultSpec);
+        latest.accumulateAndGet(snapshotOf(result), LatestResultCache::newer);
+    }
+
+    /**
+     * 两个监测结果中更新的一个
+     * 同一个监测结果按版本比较，不同的监测结果按创建时间比较；无法比较时以后保存的为准
+     * @param current 缓存的监测结果（可以为null）
+     * @param candidate 刚保存的监测结果
+     * @return 更新的监测结果
+     */
+    private static Snapshot newer(Snapshot current, Snapshot candidate) {
+        if (current == null) {
+            return candidate;
+        }
+
+        MetadataOperator cached = current.result().getMetadata();
+        MetadataOperator saved = candidate.result().getMetadata();
+        if (Objects.equals(cached.getName(), saved.getName())) {
+            return cached.getVersion() != null && saved.getVersion() != null && saved.getVersion() < cached.getVersion()
+                ? current : candidate;
+        }
+        Instant cachedAt = cached.getCreationTimestamp();
+        Instant savedAt = saved.getCreationTimestamp();
+        return cachedAt != null && savedAt != null && savedAt.isBefore(cachedAt) ? current : candidate;
+    }
+
+    private static Snapshot snapshotOf(LinksHealthMonitorResult result) {
+        return new Snapshot(result, etagOf(result), new ResultIndex(result.getResultSpec()));
+    }
+
+    /**
+     * 强ETag（监测结果的name和版本，每次保存后变化）
+     */
+    private static String etagOf(LinksHealthMonitorResult result) {
+        MetadataOperator metadata = result.getMetadata();
+        return "\"" + metadata.getName() + "-" + metadata.getVersion() + "\"";
+    }
+
+    /**
+     * 缓存的监测结果
+     * @param result 完整的监测结果
+     * @param etag 强ETag
+     * @param index 监测结果的索引
+     */
+    public record Snapshot(LinksHealthMonitorResult result, String etag, ResultIndex index) {
+    }
+}
@@ -0,0 +1,185 @@
+package cool.tch.linkshealthmonitor.service;
+
+import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorResult;
+import org.apache.commons.lang3.StringUtils;
+import run.halo.app.extension.ListResult;
+import run.halo.app.infra.utils.JsonUtils;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/19 13:40
+ * @Desc 监测结果的索引（缓存替换时构建一次，按状态、分组筛选，分页并只返回需要的字段）
+ */
+public class ResultIndex {
+
+    // 友链监测记录
+    private final List<LinksHealthMonitorResult.LinkHealthMonitorRecord> records;
+
+    // 友链监测记录的状态（按位，与records的顺序一致）
+    private final int[] statusMasks;
+
+    // 分组的name -> 友链监测记录的下标
+    private final Map<String, List<Integer>> recordsByGroup = new HashMap<>();
+
+    // 无需友链监测记录
+    private final List<LinksHealthMonitorResult.NoMonitorRecord> noMonitorRecords;
+
+    // 分组的name -> 无需友链监测记录的下标
+    private final Map<String, List<Integer>> noMonitorRecordsByGroup = new HashMap<>();
+
+    /**
+     * @param resultSpec 完整的监测结果
+     */
+    public ResultIndex(LinksHealthMonitorResult.ResultSpec resultSpec) {
+        records = resultSpec == null || resultSpec.getLinkHealthMonitorRecordList() == null
+            ? Collections.emptyList()
+            : resultSpec.getLinkHealthMonitorRecordList();
+        noMonitorRecords = resultSpec == null || resultSpec.getNoMonitorRecordList() == null
+            ? Collections.emptyList()
+            : resultSpec.getNoMonitorRecordList();
+
+        statusMasks = new int[records.size()];
+        for (int i = 0; i < records.size(); i++) {
+            LinksHealthMonitorResult.LinkHealthMonitorRecord record = records.get(i);
+            for (RecordStatus status : RecordStatus.values()) {
+                if (status.matcher.test(record)) {
+                    statusMasks[i] |= 1 << status.ordinal();
+                }
+            }
+            recordsByGroup.computeIfAbsent(StringUtils.defaultString(record.getLinkGroup()), key -> new ArrayList<>()).add(i);
+        }
+        for (int i = 0; i < noMonitorRecords.size(); i++) {
+            noMonitorRecordsByGroup.computeIfAbsent(StringUtils.defaultString(noMonitorRecords.get(i).getLinkGroup()),
+                key -> new ArrayList<>()).add(i);
+        }
+    }
+
+    /**
+     * 查询监测记录
+     * @param query 查询条件
+     * @return 分页的监测记录（指定了字段时每条记录只包含这些字段）
+     */
+    public ListResult<Object> query(RecordQuery query) {
+        List<? extends Object> source;
+        List<Integer> positions;
+        int mask = 0;
+        if (query.noMonitor()) {
+            source = noMonitorRecords;
+            positions = positionsOf(noMonitorRecordsByGroup, noMonitorRecords.size(), query.group());
+        } else {
+            source = records;
+            positions = positionsOf(recordsByGroup, records.size(), query.group());
+            for (RecordStatus status : query.statuses()) {
+                mask |= 1 << status.ordinal();
+            }
+        }
+
+        // 满足任意一个状态即可
+        List<Integer> matched = new ArrayList<>();
+        for (int position : positions) {
+            if (mask == 0 || (statusMasks[position] & mask) != 0) {
+                matched.add(position);
+            }
+        }
+
+        List<Object> items = new ArrayList<>();
+        for (int position : ListResult.subList(matched, query.page(), query.size())) {
+            items.add(project(source.get(position), query.fields()));
+        }
+        return new ListResult<>(query.page(), query.size(), matched.size(), items);
+    }
+
+    /**
+     * 分组内记录的下标（未指定分组时为全部，按原有顺序）
+     */
+    private static List<Integer> positionsOf(Map<String, List<Integer>> byGroup, int total, String group) {
+        if (group == null) {
+            List<Integer> all = new ArrayList<>(total);
+            for (int i = 0; i < total; i++) {
+                all.add(i);
+            }
+            return all;
+        }
+        return byGroup.getOrDefault(group, Collections.emptyList());
+    }
+
+    /**
+     * 只保留需要的字段（未指定字段时返回完整的记录）
+     */
+    private static Object project(Object record, Collection<String> fields) {
+        if (fields.isEmpty()) {
+            return record;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> all = JsonUtils.DEFAULT_JSON_MAPPER.convertValue(record, Map.class);
+        Map<String, Object> projected = new LinkedHashMap<>();
+        for (String field : fields) {
+            if (all.containsKey(field)) {
+                projected.put(field, all.get(field));
+            }
+        }
+        return projected;
+    }
+
+    /**
+     * 友链监测记录的状态
+     */
+    public enum RecordStatus {
+        // 网站无法访问
+        INACCESSIBLE("inaccessible", record -> !record.isWebsiteAccessible()),
+        // 网站logo无法访问（网站无法访问时不监测logo，不计入）
+        LOGO_BROKEN("logo-broken", record -> record.isWebsiteAccessible() && !record.isLogoAccessible()),
+        // 配置了友链页面但不包含本站友链
+        BACKLINK_MISSING("backlink-missing",
+            record -> StringUtils.isNotBlank(record.getFriendLinkRoute()) && !record.isContainsOurLink()),
+        // 网站名称有变更（displayNameChanged为true表示网站标题与网站名称一致；网站无法访问时不监测，不计入）
+        NAME_CHANGED("name-changed", record -> record.isWebsiteAccessible() && !record.isDisplayNameChanged());
+
+        // 查询参数的值
+        private final String value;
+
+        private final Predicate<LinksHealthMonitorResult.LinkHealthMonitorRecord> matcher;
+
+        RecordStatus(String value, Predicate<LinksHealthMonitorResult.LinkHealthMonitorRecord> matcher) {
+            this.value = value;
+            this.matcher = matcher;
+        }
+
+        /**
+         * 根据查询参数的值获取状态
+         * @param value 查询参数的值
+         * @return 状态（不存在时为null）
+         */
+        public static RecordStatus fromValue(String value) {
+            for (RecordStatus status : values()) {
+                if (status.value.equalsIgnoreCase(value)) {
+                    return status;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 查询条件
+     * @param page 页码（从1开始）
+     * @param size 每页的记录数（0表示不分页）
+     * @param noMonitor 是否查询无需友链监测记录
+     * @param statuses 状态（满足任意一个即可，为空时不筛选；只对友链监测记录有效）
+     * @param group 分组的name（为null时不筛选）
+     * @param fields 返回的字段（为空时返回完整的记录）
+     */
+    public record RecordQuery(int page, int size, boolean noMonitor, Set<RecordStatus> statuses, String group,
+                              List<String> fields) {
+    }
+}
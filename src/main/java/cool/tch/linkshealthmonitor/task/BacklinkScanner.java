@@ -0,0 +1,377 @@
+package cool.tch.linkshealthmonitor.task;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jsoup.parser.Parser;
+import java.net.IDN;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/18 19:20
+ * @Desc 流式的本站友链扫描（边读取边解析标签，找到本站友链即结束）
+ * 与原先基于Jsoup的判断一致：<a>的href（解析为绝对地址后）或<input type="submit">的value等于本站地址
+ * 只缓存当前标签的内容（有上限），内存占用与页面大小无关
+ */
+public class BacklinkScanner implements StreamingScanner {
+
+    // 单个标签最多缓存的字节数（超过的标签不解析）
+    private static final int MAX_TAG_BYTES = 16 * 1024;
+
+    // 内容不是HTML的标签（其中的"<a"等不是标签）
+    private static final String[] RAW_TEXT_TAGS = {"script", "style", "textarea", "title"};
+
+    // 控制字符
+    private static final Pattern CONTROL_CHARS = Pattern.compile("[\\x00-\\x1f]");
+
+    private enum State {
+        // 标签外
+        TEXT,
+        // 标签内
+        TAG,
+        // 注释内
+        COMMENT,
+        // script、style等标签的内容中
+        RAW_TEXT
+    }
+
+    // 本站外部访问地址（标准化）
+    private final String ourUrl;
+
+    // 本站外部访问地址的Unicode形式（主机名是国际化域名时，页面中也可能直接写Unicode的域名；否则为null）
+    private final String ourUnicodeUrl;
+
+    // 页面的字符集
+    private final Charset charset;
+
+    // 解析相对地址用的基础地址（页面的最终地址，页面中有<base>时以<base>为准）
+    private URI baseUrl;
+
+    // 是否已经遇到过<base>
+    private boolean baseTagSeen;
+
+    // 当前标签的内容（不含"<"和">"）
+    private final byte[] tag = new byte[MAX_TAG_BYTES];
+
+    private int tagLength;
+
+    // 当前标签超过了缓存上限
+    private boolean tagOverflow;
+
+    // 当前所在的引号（0表示不在引号内）
+    private byte quote;
+
+    // 上一个非空白字节（用于判断引号是否是属性值的开始）
+    private byte lastNonSpace;
+
+    // 注释结束符"-->"已匹配的"-"个数
+    private int commentDashes;
+
+    // RAW_TEXT状态下等待的结束标签（如"</script"）和已匹配的字节数
+    private String rawTextEnd;
+
+    private int rawTextMatched;
+
+    private State state = State.TEXT;
+
+    private boolean found;
+
+    public BacklinkScanner(String ourUrl, String baseUrl, Charset charset) {
+        this.ourUrl = ourUrl;
+        this.ourUnicodeUrl = unicodeFormOf(ourUrl);
+        this.charset = charset;
+        this.baseUrl = baseUriOf(baseUrl);
+    }
+
+    @Override
+    public boolean feed(byte[] bytes, int offset, int length) {
+        int end = offset + length;
+        for (int i = offset; i < end && !found; i++) {
+            accept(bytes[i]);
+        }
+        return found;
+    }
+
+    @Override
+    public boolean isDone() {
+        return found;
+    }
+
+    /**
+     * 是否找到本站友链
+     * @return 是否找到本站友链
+     */
+    public boolean isFound() {
+        return found;
+    }
+
+    /**
+     * 处理一个字节
+     */
+    private void accept(byte b) {
+        switch (state) {
+            case TEXT -> {
+                if (b == '<') {
+                    startTag();
+                }
+            }
+            case TAG -> acceptTagByte(b);
+            case COMMENT -> {
+                if (b == '>' && commentDashes >= 2) {
+                    state = State.TEXT;
+                }
+                commentDashes = b == '-' ? commentDashes + 1 : 0;
+            }
+            case RAW_TEXT -> {
+                byte expected = (byte) rawTextEnd.charAt(rawTextMatched);
+                if (toLowerCase(b) == expected) {
+                    rawTextMatched++;
+                    if (rawTextMatched == rawTextEnd.length()) {
+                        // 结束标签本身按普通标签继续读取到">"
+                        startTag();
+                        state = State.TAG;
+                    }
+                } else {
+                    rawTextMatched = b == '<' ? 1 : 0;
+                }
+            }
+        }
+    }
+
+    private void startTag() {
+        state = State.TAG;
+        tagLength = 0;
+        tagOverflow = false;
+        quote = 0;
+        lastNonSpace = 0;
+    }
+
+    private void acceptTagByte(byte b) {
+        if (quote != 0) {
+            if (b == quote) {
+                quote = 0;
+            }
+        } else if ((b == '"' || b == '\'') && lastNonSpace == '=') {
+            quote = b;
+        } else if (b == '>') {
+            endTag();
+            return;
+        }
+
+        if (tagLength < MAX_TAG_BYTES) {
+            tag[tagLength++] = b;
+        } else {
+            tagOverflow = true;
+        }
+        if (!isSpace(b)) {
+            lastNonSpace = b;
+        }
+
+        // 注释
+        if (tagLength == 3 && tag[0] == '!' && tag[1] == '-' && tag[2] == '-') {
+            state = State.COMMENT;
+            commentDashes = 0;
+        }
+    }
+
+    /**
+     * 读完一个标签
+     */
+    private void endTag() {
+        state = State.TEXT;
+        if (tagOverflow || tagLength == 0) {
+            return;
+        }
+
+        String name = readTagName();
+        switch (name) {
+            case "a" -> {
+                String href = attribute("href");
+                if (href != null && isOurUrl(resolve(href))) {
+                    found = true;
+                }
+            }
+            case "input" -> {
+                String type = attribute("type");
+                if (type != null && "submit".equalsIgnoreCase(type.trim()) && isOurUrl(attribute("value"))) {
+                    found = true;
+                }
+            }
+            case "base" -> {
+                String href = attribute("href");
+                // 只有第一个<base>有效
+                if (href != null && !baseTagSeen) {
+                    baseTagSeen = true;
+                    URI resolved = baseUriOf(resolve(href));
+                    // 解析失败时保持原来的基础地址
+                    if (resolved != null) {
+                        baseUrl = resolved;
+                    }
+                }
+            }
+            default -> {
+                for (String rawTextTag : RAW_TEXT_TAGS) {
+                    if (rawTextTag.equals(name)) {
+                        state = State.RAW_TEXT;
+                        rawTextEnd = "</" + rawTextTag;
+                        rawTextMatched = 0;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 读取标签名（小写）
+     */
+    private String readTagName() {
+        int end = 0;
+        while (end < tagLength && !isSpace(tag[end]) && tag[end] != '/') {
+            end++;
+        }
+        return new String(tag, 0, end, charset).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 读取属性值（解码实体；属性重复时取第一个，与Jsoup一致）
+     * @param attributeName 属性名（小写）
+     * @return 属性值（没有该属性时为null，没有值时为空字符串）
+     */
+    private String attribute(String attributeName) {
+        int i = 0;
+        // 跳过标签名
+        while (i < tagLength && !isSpace(tag[i]) && tag[i] != '/') {
+            i++;
+        }
+
+        while (i < tagLength) {
+            // 跳过空白和"/"
+            while (i < tagLength && (isSpace(tag[i]) || tag[i] == '/')) {
+                i++;
+            }
+            int nameStart = i;
+            while (i < tagLength && !isSpace(tag[i]) && tag[i] != '=' && tag[i] != '/') {
+                i++;
+            }
+            int nameEnd = i;
+            while (i < tagLength && isSpace(tag[i])) {
+                i++;
+            }
+
+            String value = "";
+            if (i < tagLength && tag[i] == '=') {
+                i++;
+                while (i < tagLength && isSpace(tag[i])) {
+                    i++;
+                }
+                int valueStart;
+                int valueEnd;
+                if (i < tagLength && (tag[i] == '"' || tag[i] == '\'')) {
+                    byte valueQuote = tag[i++];
+                    valueStart = i;
+                    while (i < tagLength && tag[i] != valueQuote) {
+                        i++;
+                    }
+                    valueEnd = i++;
+                } else {
+                    valueStart = i;
+                    while (i < tagLength && !isSpace(tag[i])) {
+                        i++;
+                    }
+                    valueEnd = i;
+                }
+                value = new String(tag, valueStart, Math.max(0, Math.min(valueEnd, tagLength) - valueStart), charset);
+            }
+
+            if (nameEnd > nameStart && attributeName.equalsIgnoreCase(new String(tag, nameStart, nameEnd - nameStart, charset))) {
+                return Parser.unescapeEntities(value, true);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 把地址解析为绝对地址（与Jsoup的abs:href一致，解析失败时为空字符串）
+     */
+    private String resolve(String href) {
+        // 去除首尾空白和控制字符
+        String relative = CONTROL_CHARS.matcher(href).replaceAll("").trim();
+        try {
+            if (baseUrl == null) {
+                URI absolute = URI.create(relative);
+                return absolute.isAbsolute() ? absolute.toString() : "";
+            }
+            // 空地址就是基础地址（URI按目录解析）
+            if (relative.isEmpty()) {
+                return baseUrl.toString();
+            }
+            // 只有查询参数的相对地址，保留基础地址的路径
+            if (relative.startsWith("?")) {
+                relative = baseUrl.getRawPath() + relative;
+            }
+            return baseUrl.resolve(relative).toString();
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+
+    /**
+     * 解析相对地址用的基础地址（只接受有主机名的绝对地址，路径为空时补上"/"，否则URI会把相对路径直接拼在主机名后）
+     * @param url 地址
+     * @return 基础地址（无效时为null）
+     */
+    private static URI baseUriOf(String url) {
+        if (StringUtils.isBlank(url)) {
+            return null;
+        }
+        try {
+            URI uri = URI.create(url);
+            if (!uri.isAbsolute() || uri.getRawAuthority() == null) {
+                return null;
+            }
+            return StringUtils.isEmpty(uri.getRawPath()) ? uri.resolve("/") : uri;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 是否是本站地址
+     */
+    private boolean isOurUrl(String url) {
+        return ourUrl.equals(url) || (ourUnicodeUrl != null && ourUnicodeUrl.equals(url));
+    }
+
+    /**
+     * 主机名是国际化域名（punycode）时地址的Unicode形式
+     * @param url 标准化的地址
+     * @return Unicode形式的地址（不是国际化域名时为null）
+     */
+    private static String unicodeFormOf(String url) {
+        if (!StringUtils.containsIgnoreCase(url, "xn--")) {
+            return null;
+        }
+        try {
+            String host = URI.create(url).getHost();
+            if (host == null) {
+                return null;
+            }
+            int hostStart = url.indexOf(host);
+            String unicodeHost = IDN.toUnicode(host, IDN.ALLOW_UNASSIGNED);
+            return url.substring(0, hostStart) + unicodeHost + url.substring(hostStart + host.length());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r' || b == '\f';
+    }
+
+    private static byte toLowerCase(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+}
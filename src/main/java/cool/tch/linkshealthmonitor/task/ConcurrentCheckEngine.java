@@ -0,0 +1,76 @@
+package cool.tch.linkshealthmonitor.task;
+
+import lombok.extern.slf4j.Slf4j;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+import static cool.tch.linkshealthmonitor.constant.Constant.CHECK_THREAD_NAME_PREFIX;
+import static cool.tch.linkshealthmonitor.constant.Constant.LINKS_HEALTH_MONITOR;
+import static cool.tch.linkshealthmonitor.constant.Constant.LINKS_HEALTH_MONITOR_DESC;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/18 10:12
+ * @Desc 友链并发监测引擎（每个友链一个虚拟线程，由信号量控制全局并发上限）
+ */
+@Slf4j
+public class ConcurrentCheckEngine {
+
+    // 全局并发上限
+    private final int concurrency;
+
+    public ConcurrentCheckEngine(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * 并发监测所有对象，返回结果的顺序与传入的顺序一致
+     * @param items 监测对象
+     * @param checker 单个对象的监测逻辑
+     * @return 监测结果（单个对象监测失败时对应位置为null）
+     */
+    public <T, R> List<R> checkAll(List<T> items, Function<T, R> checker) {
+        Semaphore permits = new Semaphore(concurrency);
+        List<R> results = new ArrayList<>(items.size());
+
+        try (ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name(CHECK_THREAD_NAME_PREFIX, 0).factory())) {
+
+            // 按顺序提交，虚拟线程拿到许可后才开始网络请求
+            List<Future<R>> futures = new ArrayList<>(items.size());
+            for (T item : items) {
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return checker.apply(item);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+
+            // 按提交顺序收集结果，保证记录顺序不变
+            for (Future<R> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    log.error("{}【{}】单个友链监测失败: {}", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR, e.getCause().getMessage(), e.getCause());
+                    results.add(null);
+                } catch (InterruptedException e) {
+                    // 任务被取消（配置变更等），停止所有未完成的监测
+                    executor.shutdownNow();
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("友链监测被中断", e);
+                }
+            }
+        }
+
+        return results;
+    }
+}
@@ -0,0 +1,102 @@
+package cool.tch.linkshealthmonitor.task;
+
+import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorDailySummary;
+import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorResult;
+import org.apache.commons.lang3.StringUtils;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static cool.tch.linkshealthmonitor.constant.Constant.CUSTOM_MODEL_METADATA_NAME_PREFIX;
+import static cool.tch.linkshealthmonitor.constant.Constant.DEFAULT_ZONE_ID;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/19 10:40
+ * @Desc 把监测结果汇总到每日汇总中（每个友链累加监测次数和正常次数，计算可用率）
+ */
+public class DailyRollup {
+
+    // 每日汇总元数据名称前缀
+    private static final String DAILY_SUMMARY_NAME_PREFIX = CUSTOM_MODEL_METADATA_NAME_PREFIX + "daily-";
+
+    private DailyRollup() {
+    }
+
+    /**
+     * 监测结果所属的日期（北京时间）
+     * @param createdAt 监测结果的创建时间
+     * @return 日期
+     */
+    public static LocalDate dateOf(Instant createdAt) {
+        return createdAt.atZone(ZoneId.of(DEFAULT_ZONE_ID)).toLocalDate();
+    }
+
+    /**
+     * 每日汇总的元数据名称（每天一个，名称固定）
+     * @param date 日期
+     * @return 元数据名称
+     */
+    public static String summaryNameOf(LocalDate date) {
+        return DAILY_SUMMARY_NAME_PREFIX + date;
+    }
+
+    /**
+     * 把监测结果汇总到每日汇总中
+     * @param summarySpec 每日汇总
+     * @param resultSpec 监测结果
+     * @param createdAt 监测结果的创建时间
+     * @return 是否汇总（已经汇总过的监测结果不再重复汇总）
+     */
+    public static boolean fold(LinksHealthMonitorDailySummary.SummarySpec summarySpec, LinksHealthMonitorResult.ResultSpec resultSpec,
+        Instant createdAt) {
+        if (summarySpec.getLastResultAt() != null && !createdAt.isAfter(summarySpec.getLastResultAt())) {
+            return false;
+        }
+
+        Map<String, LinksHealthMonitorDailySummary.LinkUptime> uptimes = new LinkedHashMap<>();
+        if (summarySpec.getLinkUptimeList() != null) {
+            summarySpec.getLinkUptimeList().forEach(uptime -> uptimes.put(uptime.getLinkName(), uptime));
+        }
+
+        List<LinksHealthMonitorResult.LinkHealthMonitorRecord> records = resultSpec == null ? null : resultSpec.getLinkHealthMonitorRecordList();
+        if (records != null) {
+            for (LinksHealthMonitorResult.LinkHealthMonitorRecord record : records) {
+                if (record == null || StringUtils.isBlank(record.getLinkName())) {
+                    continue;
+                }
+                LinksHealthMonitorDailySummary.LinkUptime uptime = uptimes.computeIfAbsent(record.getLinkName(), linkName -> {
+                    LinksHealthMonitorDailySummary.LinkUptime newUptime = new LinksHealthMonitorDailySummary.LinkUptime();
+                    newUptime.setLinkName(linkName);
+                    return newUptime;
+                });
+                uptime.setLinkUrl(record.getLinkUrl());
+                uptime.setLinkDisplayName(record.getLinkDisplayName());
+                uptime.setChecks(uptime.getChecks() + 1);
+                if (IncrementalCheckPlan.isHealthy(record)) {
+                    uptime.setHealthyChecks(uptime.getHealthyChecks() + 1);
+                }
+                if (record.isWebsiteAccessible()) {
+                    uptime.setWebsiteAccessibleChecks(uptime.getWebsiteAccessibleChecks() + 1);
+                }
+                if (record.isLogoAccessible()) {
+                    uptime.setLogoAccessibleChecks(uptime.getLogoAccessibleChecks() + 1);
+                }
+                if (record.isContainsOurLink()) {
+                    uptime.setContainsOurLinkChecks(uptime.getContainsOurLinkChecks() + 1);
+                }
+                // 保留两位小数
+                uptime.setUptime(Math.round(uptime.getHealthyChecks() * 10000.0 / uptime.getChecks()) / 100.0);
+            }
+        }
+
+        summarySpec.setLinkUptimeList(new ArrayList<>(uptimes.values()));
+        summarySpec.setResultCount(summarySpec.getResultCount() + 1);
+        summarySpec.setLastResultAt(createdAt);
+        return true;
+    }
+}
@@ -0,0 +1,232 @@
+package cool.tch.linkshealthmonitor.task;
+
+import org.apache.commons.lang3.StringUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/18 11:05
+ * @Desc 外部请求限流（同时打开的连接数上限 + 同一主机的并发上限 + 全局每秒请求数的令牌桶）
+ * 插件内所有监测共用一个（由SharedHttpClient持有），完整监测、分散监测和变更监测同时进行时也不会超过上限
+ * 拿不到许可的请求按到达顺序排队，许可归还时直接交给排在最前面、主机未达上限的请求，不轮询
+ */
+public class HostRateLimiter {
+
+    // 同一主机的并发上限
+    private final int perHostConcurrency;
+
+    // 令牌的生成间隔（纳秒），0表示不限制每秒请求数
+    private final long intervalNanos;
+
+    // 令牌桶容量对应的时长（纳秒），允许短时间内的突发请求
+    private final long burstNanos;
+
+    // 每个主机正在进行的请求数（没有请求的主机不保留，以下三项由waiters加锁保护）
+    private final Map<String, Integer> hostInUse = new HashMap<>();
+
+    // 剩余的连接许可（共用HTTP客户端连接池的上限）
+    private int connectionsAvailable;
+
+    // 等待许可的请求（按到达顺序）
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+
+    // 时钟（纳秒）
+    private final LongSupplier nanoClock;
+
+    // 下一个令牌可用的时间（纳秒）
+    private long nextFreeNanos;
+
+    /**
+     * @param perHostConcurrency 同一主机的并发上限
+     * @param requestsPerSecond 全局每秒请求数（小于1时不限制）
+     * @param maxConnections 同时打开的连接数上限
+     */
+    public HostRateLimiter(int perHostConcurrency, int requestsPerSecond, int maxConnections) {
+        this(perHostConcurrency, requestsPerSecond, maxConnections, System::nanoTime);
+    }
+
+    /**
+     * @param perHostConcurrency 同一主机的并发上限
+     * @param requestsPerSecond 全局每秒请求数（小于1时不限制）
+     * @param maxConnections 同时打开的连接数上限
+     * @param nanoClock 令牌桶使用的时钟（纳秒）
+     */
+    public HostRateLimiter(int perHostConcurrency, int requestsPerSecond, int maxConnections, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.nextFreeNanos = nanoClock.getAsLong();
+        this.perHostConcurrency = Math.max(1, perHostConcurrency);
+        this.connectionsAvailable = Math.max(1, maxConnections);
+        if (requestsPerSecond < 1) {
+            this.intervalNanos = 0;
+            this.burstNanos = 0;
+        } else {
+            this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / requestsPerSecond;
+            // 令牌桶容量等于每秒请求数
+            this.burstNanos = intervalNanos * (requestsPerSecond - 1);
+        }
+    }
+
+    /**
+     * 获取请求许可（非阻塞）
+     * 先预约令牌，等到令牌可用时再排队获取主机许可和连接许可，等待期间被取消时不会占用许可
+     * @param url 请求的url
+     * @return 请求许可，请求结束后需要关闭
+     */
+    public Mono<Permit> acquireAsync(String url) {
+        String host = hostOf(url);
+        return Mono.defer(() -> {
+                long waitNanos = reserve();
+                return waitNanos > 0 ? Mono.delay(Duration.ofNanos(waitNanos)).then() : Mono.<Void>empty();
+            })
+            .then(Mono.create(sink -> {
+                Waiter waiter = new Waiter(host, sink);
+                // 先注册取消，拿到许可后、交给请求前被取消时也能归还
+                sink.onCancel(() -> cancel(waiter));
+                synchronized (waiters) {
+                    if (waiter.settled.get()) {
+                        return;
+                    }
+                    if (!tryTake(host)) {
+                        waiters.addLast(waiter);
+                        return;
+                    }
+                    waiter.settled.set(true);
+                }
+                sink.success(permitOf(host));
+            }));
+    }
+
+    /**
+     * 同时占用主机许可和连接许可（调用方持有锁，任意一个不可用时都不占用）
+     */
+    private boolean tryTake(String host) {
+        int inUse = hostInUse.getOrDefault(host, 0);
+        if (connectionsAvailable == 0 || inUse >= perHostConcurrency) {
+            return false;
+        }
+        connectionsAvailable--;
+        hostInUse.put(host, inUse + 1);
+        return true;
+    }
+
+    /**
+     * 归还主机许可和连接许可，交给排在最前面、主机未达上限的等待中的请求
+     */
+    private void release(String host) {
+        List<Waiter> granted = new ArrayList<>();
+        synchronized (waiters) {
+            connectionsAvailable++;
+            hostInUse.computeIfPresent(host, (key, inUse) -> inUse > 1 ? inUse - 1 : null);
+
+            Iterator<Waiter> iterator = waiters.iterator();
+            while (connectionsAvailable > 0 && iterator.hasNext()) {
+                Waiter waiter = iterator.next();
+                if (!tryTake(waiter.host)) {
+                    continue;
+                }
+                iterator.remove();
+                waiter.settled.set(true);
+                granted.add(waiter);
+            }
+        }
+        granted.forEach(waiter -> waiter.sink.success(permitOf(waiter.host)));
+    }
+
+    /**
+     * 等待中的请求被取消（已经拿到许可但还没交给请求时归还许可）
+     */
+    private void cancel(Waiter waiter) {
+        synchronized (waiters) {
+            if (!waiter.settled.get()) {
+                waiter.settled.set(true);
+                waiters.remove(waiter);
+                return;
+            }
+        }
+        release(waiter.host);
+    }
+
+    /**
+     * 归还主机许可和连接许可的请求许可（重复关闭时只归还一次）
+     */
+    private Permit permitOf(String host) {
+        AtomicBoolean closed = new AtomicBoolean();
+        return () -> {
+            if (closed.compareAndSet(false, true)) {
+                release(host);
+            }
+        };
+    }
+
+    /**
+     * 预约一个令牌
+     * @return 距离令牌可用还需等待的时间（纳秒）
+     */
+    private synchronized long reserve() {
+        if (intervalNanos == 0) {
+            return 0;
+        }
+
+        long now = nanoClock.getAsLong();
+        // 空闲期间累积的令牌最多为桶的容量
+        if (nextFreeNanos < now - burstNanos) {
+            nextFreeNanos = now - burstNanos;
+        }
+        long waitNanos = nextFreeNanos - now;
+        nextFreeNanos += intervalNanos;
+        return Math.max(0, waitNanos);
+    }
+
+    /**
+     * 获取url的主机名（解析失败时使用url本身作为限流的key）
+     * @param url url
+     * @return 主机名
+     */
+    static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            if (StringUtils.isNotBlank(host)) {
+                return host.toLowerCase(Locale.ROOT);
+            }
+        } catch (Exception e) {
+            // url格式有误
+        }
+        return String.valueOf(url);
+    }
+
+    /**
+     * 等待许可的请求
+     * @param host 主机名
+     * @param sink 拿到许可后交给请求
+     * @param settled 是否已经拿到许可或者被取消（由waiters加锁保护）
+     */
+    private record Waiter(String host, MonoSink<Permit> sink, AtomicBoolean settled) {
+
+        private Waiter(String host, MonoSink<Permit> sink) {
+            this(host, sink, new AtomicBoolean());
+        }
+    }
+
+    /**
+     * 请求许可（关闭时归还主机许可和连接许可）
+     */
+    @FunctionalInterface
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
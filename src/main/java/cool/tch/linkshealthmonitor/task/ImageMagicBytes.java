@@ -0,0 +1,107 @@
+package cool.tch.linkshealthmonitor.task;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/18 16:45
+ * @Desc 根据文件头（魔数）判断是否为图片，用于识别"状态码200但实际是HTML错误页"的logo
+ */
+public class ImageMagicBytes {
+
+    // 判断图片类型需要读取的文件头字节数（SVG需要跳过XML声明、注释等，多读一些）
+    public static final int PROBE_BYTES = 1024;
+
+    private ImageMagicBytes() {
+    }
+
+    /**
+     * 文件头是否为图片
+     * @param head 文件头
+     * @param length 文件头的有效长度
+     * @return 是否为图片
+     */
+    public static boolean isImage(byte[] head, int length) {
+        if (head == null || length <= 0) {
+            return false;
+        }
+
+        return startsWith(head, length, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)   // PNG
+            || startsWith(head, length, 0, 0xFF, 0xD8, 0xFF)                               // JPEG
+            || startsWith(head, length, 0, 'G', 'I', 'F', '8')                             // GIF
+            || (startsWith(head, length, 0, 'R', 'I', 'F', 'F')
+                && startsWith(head, length, 8, 'W', 'E', 'B', 'P'))                        // WEBP
+            || startsWith(head, length, 0, 'B', 'M')                                       // BMP
+            || startsWith(head, length, 0, 0x00, 0x00, 0x01, 0x00)                         // ICO
+            || startsWith(head, length, 0, 0x00, 0x00, 0x02, 0x00)                         // CUR
+            || startsWith(head, length, 0, 'I', 'I', 0x2A, 0x00)                           // TIFF（小端）
+            || startsWith(head, length, 0, 'M', 'M', 0x00, 0x2A)                           // TIFF（大端）
+            || isIsoMediaImage(head, length)                                               // AVIF、HEIC
+            || isSvg(head, length);
+    }
+
+    /**
+     * Content-Type是否为图片
+     * @param contentType Content-Type
+     * @return 是否为图片
+     */
+    public static boolean isImageContentType(String contentType) {
+        return contentType != null && contentType.trim().toLowerCase(Locale.ROOT).startsWith("image/");
+    }
+
+    /**
+     * AVIF、HEIC（ISO媒体文件，第4个字节开始为ftyp和品牌）
+     */
+    private static boolean isIsoMediaImage(byte[] head, int length) {
+        if (!startsWith(head, length, 4, 'f', 't', 'y', 'p') || length < 12) {
+            return false;
+        }
+
+        String brand = new String(head, 8, 4, StandardCharsets.US_ASCII);
+        return switch (brand) {
+            case "avif", "avis", "heic", "heix", "hevc", "heim", "heis", "mif1", "msf1" -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * SVG（文本格式，跳过BOM和空白后以"<"开头，且文件头中出现"<svg"）
+     */
+    private static boolean isSvg(byte[] head, int length) {
+        int start = 0;
+        // UTF-8 BOM
+        if (startsWith(head, length, 0, 0xEF, 0xBB, 0xBF)) {
+            start = 3;
+        }
+        while (start < length && Character.isWhitespace(head[start])) {
+            start++;
+        }
+        if (start >= length || head[start] != '<') {
+            return false;
+        }
+
+        String text = new String(head, start, length - start, StandardCharsets.UTF_8).toLowerCase(Locale.ROOT);
+        // HTML错误页不是图片
+        if (text.startsWith("<!doctype html") || text.startsWith("<html")) {
+            return false;
+        }
+        return text.contains("<svg");
+    }
+
+    /**
+     * 文件头从指定位置开始是否为指定的字节
+     */
+    private static boolean startsWith(byte[] head, int length, int offset, int... expected) {
+        if (length < offset + expected.length) {
+            return false;
+        }
+
+        for (int i = 0; i < expected.length; i++) {
+            if ((head[offset + i] & 0xFF) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,279 @@
+package cool.tch.linkshealthmonitor.task;
+
+import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorResult;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.BeanUtils;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/18 22:10
+ * @Desc 增量监测（从上一次的监测结果中加载监测记录，友链未修改、上次监测正常且记录未过期时沿用上次的记录，不再发出请求）
+ * 新增、修改过、上次监测异常或者记录已过期的友链照常监测
+ * 自适应监测频率：连续正常的次数越多，记录的有效期越长（每次翻倍，不超过上限）；设置了请求预算时，超出预算的友链推迟到下次监测
+ */
+public class IncrementalCheckPlan {
+
+    // 友链的name -> 上一次的监测记录
+    private final Map<String, LinksHealthMonitorResult.LinkHealthMonitorRecord> previousRecords = new HashMap<>();
+
+    // 监测记录的有效期
+    private final Duration staleAfter;
+
+    // 监测记录有效期的上限（与staleAfter相同时不启用自适应监测频率）
+    private final Duration maxStaleAfter;
+
+    // 本次监测的开始时间
+    private final Instant now;
+
+    // 友链页面的条件请求缓存（沿用记录的友链页面本次不会请求，需要保留它的缓存）
+    private final PageValidatorCache validatorCache;
+
+    // 请求预算内本次监测的友链name（为null时不限制）
+    private volatile Set<String> selected;
+
+    // 沿用上次记录的友链数
+    private final AtomicInteger carriedCount = new AtomicInteger();
+
+    /**
+     * @param ourUrl 本站外部地址（标准化）
+     * @param previous 上一次的监测结果（可以为null）
+     * @param staleAfter 监测记录的有效期
+     * @param now 本次监测的开始时间
+     * @param validatorCache 友链页面的条件请求缓存
+     */
+    public IncrementalCheckPlan(String ourUrl, LinksHealthMonitorResult.ResultSpec previous, Duration staleAfter, Instant now,
+        PageValidatorCache validatorCache) {
+        this(ourUrl, previous, staleAfter, staleAfter, now, validatorCache);
+    }
+
+    /**
+     * @param ourUrl 本站外部地址（标准化）
+     * @param previous 上一次的监测结果（可以为null）
+     * @param staleAfter 监测记录的有效期（连续正常一次时）
+     * @param maxStaleAfter 监测记录有效期的上限
+     * @param now 本次监测的开始时间
+     * @param validatorCache 友链页面的条件请求缓存
+     */
+    public IncrementalCheckPlan(String ourUrl, LinksHealthMonitorResult.ResultSpec previous, Duration staleAfter,
+        Duration maxStaleAfter, Instant now, PageValidatorCache validatorCache) {
+        this.staleAfter = staleAfter;
+        this.maxStaleAfter = maxStaleAfter.compareTo(staleAfter) < 0 ? staleAfter : maxStaleAfter;
+        this.now = now;
+        this.validatorCache = validatorCache;
+
+        // 本站地址变更后，上次的本站友链监测结果失效
+        if (previous == null || !StringUtils.equals(ourUrl, previous.getOurUrl())) {
+            return;
+        }
+
+        List<LinksHealthMonitorResult.LinkHealthMonitorRecord> records = previous.getLinkHealthMonitorRecordList();
+        if (records == null) {
+            return;
+        }
+        for (LinksHealthMonitorResult.LinkHealthMonitorRecord record : records) {
+            if (record != null && StringUtils.isNotBlank(record.getLinkName())) {
+                previousRecords.put(record.getLinkName(), record);
+            }
+        }
+    }
+
+    /**
+     * 判断友链是否需要重新监测
+     * @param checkRecord 本次的监测记录（仅包含友链基本信息）
+     * @param friendLinkUrl 友链页面地址（Link表单增加的元数据）
+     * @return 需要重新监测的原因
+     */
+    public Reason classify(LinksHealthMonitorResult.LinkHealthMonitorRecord checkRecord, String friendLinkUrl) {
+        LinksHealthMonitorResult.LinkHealthMonitorRecord previous = previousRecords.get(checkRecord.getLinkName());
+        // 新增的友链
+        if (previous == null) {
+            return Reason.NEW;
+        }
+
+        // 友链修改过（版本变化，或者版本不可用时比较表单数据）
+        if (checkRecord.getLinkVersion() == null || !checkRecord.getLinkVersion().equals(previous.getLinkVersion())
+            || !StringUtils.equals(checkRecord.getLinkUrl(), previous.getLinkUrl())
+            || !StringUtils.equals(checkRecord.getLinkLogo(), previous.getLinkLogo())
+            || !StringUtils.equals(checkRecord.getLinkDisplayName(), previous.getLinkDisplayName())
+            || !Objects.equals(StringUtils.defaultIfBlank(friendLinkUrl, null), StringUtils.defaultIfBlank(previous.getFriendLinkRoute(), null))) {
+            return Reason.CHANGED;
+        }
+
+        // 上次监测异常
+        if (!isHealthy(previous)) {
+            return Reason.FAILING;
+        }
+
+        // 记录已过期
+        Instant lastCheckedAt = previous.getLastCheckedAt();
+        if (lastCheckedAt == null || !lastCheckedAt.plus(staleAfterOf(previous)).isAfter(now)) {
+            return Reason.STALE;
+        }
+
+        return Reason.FRESH;
+    }
+
+    /**
+     * 在请求预算内选择本次需要监测的友链，其余友链沿用上次的记录（推迟到下次监测）
+     * 新增和修改过的友链没有可以沿用的记录，总是监测；其余按上次监测异常、过期越久越优先
+     * @param candidates 需要监测的友链
+     * @param maxLinks 本次最多监测的友链数
+     * @return 推迟到下次监测的友链数
+     */
+    public int applyBudget(List<Candidate> candidates, int maxLinks) {
+        Set<String> chosen = new HashSet<>();
+        List<Candidate> due = new ArrayList<>();
+        for (Candidate candidate : candidates) {
+            Reason reason = classify(candidate.checkRecord(), candidate.friendLinkUrl());
+            if (reason == Reason.NEW || reason == Reason.CHANGED) {
+                chosen.add(candidate.checkRecord().getLinkName());
+            } else if (reason != Reason.FRESH) {
+                due.add(candidate);
+            }
+        }
+
+        due.sort(Comparator
+            .comparing((Candidate candidate) -> classify(candidate.checkRecord(), candidate.friendLinkUrl()))
+            .thenComparing(Comparator.comparingDouble(this::overdueRatio).reversed()));
+
+        int deferred = 0;
+        for (Candidate candidate : due) {
+            if (chosen.size() < maxLinks) {
+                chosen.add(candidate.checkRecord().getLinkName());
+            } else {
+                deferred++;
+            }
+        }
+        selected = chosen;
+        return deferred;
+    }
+
+    /**
+     * 沿用上次的监测记录
+     * @param checkRecord 本次的监测记录（仅包含友链基本信息）
+     * @param friendLinkUrl 友链页面地址（Link表单增加的元数据）
+     * @return 沿用的监测记录（需要重新监测时为null）
+     */
+    public LinksHealthMonitorResult.LinkHealthMonitorRecord carryForward(LinksHealthMonitorResult.LinkHealthMonitorRecord checkRecord,
+        String friendLinkUrl) {
+        Reason reason = classify(checkRecord, friendLinkUrl);
+        if (reason == Reason.NEW || reason == Reason.CHANGED) {
+            return null;
+        }
+        // 需要重新监测，并且在请求预算内
+        if (reason != Reason.FRESH && (selected == null || selected.contains(checkRecord.getLinkName()))) {
+            return null;
+        }
+
+        LinksHealthMonitorResult.LinkHealthMonitorRecord previous = previousRecords.get(checkRecord.getLinkName());
+        LinksHealthMonitorResult.LinkHealthMonitorRecord carried = new LinksHealthMonitorResult.LinkHealthMonitorRecord();
+        BeanUtils.copyProperties(previous, carried);
+        // 分组不影响监测结果，使用最新的
+        carried.setLinkGroup(checkRecord.getLinkGroup());
+        carried.setLinkGroupDisplayName(checkRecord.getLinkGroupDisplayName());
+        carried.setLinkFingerprint(checkRecord.getLinkFingerprint());
+        // 保留友链页面的条件请求缓存
+        if (validatorCache != null && StringUtils.isNotBlank(friendLinkUrl)) {
+            validatorCache.retain(LinksHealthMonitorUtils.normalizeUrl(friendLinkUrl));
+        }
+        carriedCount.incrementAndGet();
+        return carried;
+    }
+
+    /**
+     * 沿用上次记录的友链数
+     * @return 沿用上次记录的友链数
+     */
+    public int getCarriedCount() {
+        return carriedCount.get();
+    }
+
+    /**
+     * 监测记录的有效期（连续正常的次数越多越长，每次翻倍，不超过上限）
+     * @param previous 上一次的监测记录
+     * @return 监测记录的有效期
+     */
+    private Duration staleAfterOf(LinksHealthMonitorResult.LinkHealthMonitorRecord previous) {
+        Duration result = staleAfter;
+        for (int i = 1; i < previous.getHealthyStreak() && result.compareTo(maxStaleAfter) < 0; i++) {
+            result = result.multipliedBy(2);
+        }
+        return result.compareTo(maxStaleAfter) > 0 ? maxStaleAfter : result;
+    }
+
+    /**
+     * 过期的程度（距上次监测的时间 / 有效期）
+     */
+    private double overdueRatio(Candidate candidate) {
+        LinksHealthMonitorResult.LinkHealthMonitorRecord previous = previousRecords.get(candidate.checkRecord().getLinkName());
+        if (previous == null || previous.getLastCheckedAt() == null) {
+            return Double.MAX_VALUE;
+        }
+        return (double) Duration.between(previous.getLastCheckedAt(), now).toMillis() / Math.max(staleAfterOf(previous).toMillis(), 1);
+    }
+
+    /**
+     * 本次监测后连续正常的次数（友链修改过时重新计数）
+     * @param previous 上一次的监测记录（可以为null）
+     * @param checkRecord 本次的监测记录
+     * @return 连续正常的次数
+     */
+    public static int nextHealthyStreak(LinksHealthMonitorResult.LinkHealthMonitorRecord previous,
+        LinksHealthMonitorResult.LinkHealthMonitorRecord checkRecord) {
+        if (!isHealthy(checkRecord)) {
+            return 0;
+        }
+        if (previous == null || !Objects.equals(previous.getLinkVersion(), checkRecord.getLinkVersion()) || !isHealthy(previous)) {
+            return 1;
+        }
+        return previous.getHealthyStreak() + 1;
+    }
+
+    /**
+     * 监测记录是否正常（网站、logo可以访问，网站标题与网站名称一致，配置了友链页面时包含本站友链）
+     * displayNameChanged为true表示网站标题包含网站名称（与控制台的"网站名称是否一致"相同）
+     * @param record 监测记录
+     * @return 是否正常
+     */
+    public static boolean isHealthy(LinksHealthMonitorResult.LinkHealthMonitorRecord record) {
+        return record.isWebsiteAccessible()
+            && record.isLogoAccessible()
+            && record.isDisplayNameChanged()
+            && (StringUtils.isBlank(record.getFriendLinkRoute()) || record.isContainsOurLink());
+    }
+
+    /**
+     * 需要重新监测的原因（按优先级排列）
+     */
+    public enum Reason {
+        // 新增的友链
+        NEW,
+        // 修改过的友链
+        CHANGED,
+        // 上次监测异常
+        FAILING,
+        // 记录已过期
+        STALE,
+        // 记录有效，无需监测
+        FRESH
+    }
+
+    /**
+     * 需要监测的友链
+     * @param checkRecord 本次的监测记录（仅包含友链基本信息）
+     * @param friendLinkUrl 友链页面地址
+     */
+    public record Candidate(LinksHealthMonitorResult.LinkHealthMonitorRecord checkRecord, String friendLinkUrl) {
+    }
+}
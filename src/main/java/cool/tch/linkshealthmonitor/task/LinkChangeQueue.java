@@ -0,0 +1,90 @@
+package cool.tch.linkshealthmonitor.task;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+
+import static cool.tch.linkshealthmonitor.constant.Constant.LINKS_HEALTH_MONITOR;
+import static cool.tch.linkshealthmonitor.constant.Constant.LINKS_HEALTH_MONITOR_DESC;
+import static cool.tch.linkshealthmonitor.constant.Constant.LINK_CHANGE_DEBOUNCE_SECONDS;
+import static cool.tch.linkshealthmonitor.constant.Constant.LINK_CHANGE_MAX_DELAY_SECONDS;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/18 23:00
+ * @Desc 友链变更的监测队列（去抖：最后一次变更后等待一段时间再监测，期间的连续变更合并为一次监测）
+ * 连续变更时最多推迟LINK_CHANGE_MAX_DELAY_SECONDS秒；监测在合并线程中执行，调度线程只负责计时
+ * 合并到最新的监测结果后才执行入队时的回调（例如记录已监测的友链数据），没有合并时变更不算已处理
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LinkChangeQueue {
+
+    private final LinksHealthMonitorTask linksHealthMonitorTask;
+
+    private final TaskScheduler taskScheduler;
+
+    // 等待监测的友链name -> 合并后的回调（同一友链多次变更时使用最后一次的回调）
+    private final Map<String, Runnable> pending = new LinkedHashMap<>();
+
+    // 等待执行的监测
+    private ScheduledFuture<?> scheduled;
+
+    // 第一个等待监测的友链入队的时间
+    private Instant firstEnqueuedAt;
+
+    /**
+     * 友链变更后入队
+     * @param linkName 友链的name
+     * @param onMerged 监测结果合并到最新的监测结果后的回调
+     */
+    public synchronized void enqueue(String linkName, Runnable onMerged) {
+        pending.put(linkName, onMerged);
+        Instant now = Instant.now();
+        if (firstEnqueuedAt == null) {
+            firstEnqueuedAt = now;
+        }
+
+        // 推迟执行（最多推迟到第一个友链入队后LINK_CHANGE_MAX_DELAY_SECONDS秒）
+        Instant runAt = now.plusSeconds(LINK_CHANGE_DEBOUNCE_SECONDS);
+        Instant latest = firstEnqueuedAt.plusSeconds(LINK_CHANGE_MAX_DELAY_SECONDS);
+        if (runAt.isAfter(latest)) {
+            runAt = latest;
+        }
+        if (scheduled != null) {
+            scheduled.cancel(false);
+        }
+        scheduled = taskScheduler.schedule(this::flush, runAt);
+    }
+
+    /**
+     * 监测所有等待监测的友链
+     */
+    private void flush() {
+        Map<String, Runnable> changes;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            changes = new LinkedHashMap<>(pending);
+            pending.clear();
+            scheduled = null;
+            firstEnqueuedAt = null;
+        }
+
+        linksHealthMonitorTask.checkLinks(changes.keySet())
+            .subscribe(merged -> {
+                if (merged) {
+                    changes.values().forEach(Runnable::run);
+                }
+            }, error -> {
+                log.error("{}【{}】变更的友链监测失败: {}", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR, error.getMessage(), error);
+            });
+    }
+}
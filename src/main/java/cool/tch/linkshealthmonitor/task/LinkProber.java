@@ -0,0 +1,283 @@
+package cool.tch.linkshealthmonitor.task;
+
+import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorResult;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Set;
+import java.util.function.Function;
+
+import static cool.tch.linkshealthmonitor.constant.Constant.HTTP_REQUEST_BROWSER_ACCEPT;
+import static cool.tch.linkshealthmonitor.constant.Constant.HTTP_REQUEST_BROWSER_USER_AGENT;
+import static cool.tch.linkshealthmonitor.constant.Constant.HTTP_REQUEST_IMAGE_ACCEPT;
+import static cool.tch.linkshealthmonitor.constant.Constant.HTTP_TIMEOUT_MS;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/18 13:40
+ * @Desc 友链网络监测（所有请求都通过插件共用的HTTP客户端发出，复用连接，共用限流；每次监测创建一个）
+ * 方法都是非阻塞的，阻塞监测模式在虚拟线程中等待结果
+ */
+public class LinkProber {
+
+    // 重定向的状态码
+    private static final Set<Integer> REDIRECT_STATUS_CODES = Set.of(301, 302, 303, 307, 308);
+
+    // 最多跟随的重定向次数
+    private static final int MAX_REDIRECTS = 5;
+
+    // 插件共用的HTTP客户端（不自动跟随重定向，由sendFollowingRedirects手动跟随）
+    private final HttpClient httpClient;
+
+    // 外部请求限流
+    private final HostRateLimiter limiter;
+
+    // 监测流程的指标
+    private final MonitorMetrics metrics;
+
+    // 单次请求的超时（等待响应头和读取内容合计，超时后取消请求）
+    private final Duration timeout;
+
+    public LinkProber(HttpClient httpClient, HostRateLimiter limiter, MonitorMetrics metrics) {
+        this(httpClient, limiter, metrics, Duration.ofMillis(HTTP_TIMEOUT_MS));
+    }
+
+    public LinkProber(HttpClient httpClient, HostRateLimiter limiter, MonitorMetrics metrics, Duration timeout) {
+        this.httpClient = httpClient;
+        this.limiter = limiter;
+        this.metrics = metrics;
+        this.timeout = timeout;
+    }
+
+    /**
+     * 监测logo是否可以访问
+     * 先发HEAD请求，HEAD不被支持或者无法确认是图片时，再发只请求前1KB的Range请求，根据文件头判断是否为图片
+     * @param logo logo的url
+     * @return logo是否可以访问
+     */
+    public Mono<Boolean> isLogoAccessible(String logo) {
+        return isLogoAccessible(logo, new ProbeTimer());
+    }
+
+    /**
+     * 监测logo是否可以访问，并记录请求各阶段的耗时（HEAD和Range请求合计）
+     * @param logo logo的url
+     * @param timer 记录请求各阶段的耗时
+     * @return logo是否可以访问
+     */
+    public Mono<Boolean> isLogoAccessible(String logo, ProbeTimer timer) {
+        return sendFollowingRedirects(logo, url -> imageRequest(url, true, timeout),
+                url -> HttpResponse.BodyHandlers.discarding(), timer)
+            .flatMap(head -> {
+                int headStatus = head.statusCode();
+                String contentType = head.headers().firstValue("Content-Type").orElse(null);
+                long contentLength = head.headers().firstValueAsLong("Content-Length").orElse(-1);
+
+                // 明确是图片
+                if (headStatus == HttpURLConnection.HTTP_OK && ImageMagicBytes.isImageContentType(contentType) && contentLength != 0) {
+                    return Mono.just(true);
+                }
+                // 明确不存在
+                if (headStatus == HttpURLConnection.HTTP_NOT_FOUND || headStatus == HttpURLConnection.HTTP_GONE) {
+                    return Mono.just(false);
+                }
+
+                // Range请求（服务器不支持Range时会返回200和完整内容，此时也只读取前1KB）
+                return sendFollowingRedirects(logo, url -> imageRequest(url, false, timeout),
+                        url -> responseInfo -> new PrefixBodySubscriber(ImageMagicBytes.PROBE_BYTES), timer)
+                    .map(get -> (get.statusCode() == HttpURLConnection.HTTP_OK || get.statusCode() == HttpURLConnection.HTTP_PARTIAL)
+                        && ImageMagicBytes.isImage(get.body(), get.body().length));
+            })
+            .doOnError(timer::failed)
+            .onErrorReturn(false)
+            .doFinally(signal -> {
+                timer.completed();
+                metrics.probed(MonitorMetrics.ProbeType.LOGO, timer.toTiming());
+            });
+    }
+
+    /**
+     * 获取网站页面（一次GET请求，得到状态码、最终地址、页面标题，需要时同时扫描本站友链）
+     * 边接收边扫描，得到结果（读到</title>、找到本站友链）即取消下载
+     * @param pageUrl 网站url
+     * @param ourUrl 本站外部访问地址（标准化，为null时只提取标题）
+     * @param validatorCache 条件请求缓存（为null时不发送条件请求）
+     * @return 页面的请求结果（访问失败时为失败的结果）
+     */
+    public Mono<SiteResponse> fetchSite(String pageUrl, String ourUrl, PageValidatorCache validatorCache) {
+        Function<String, HttpRequest.Builder> request = url -> {
+            HttpRequest.Builder builder = browserRequest(url, timeout);
+            // 条件请求（缓存以最初请求的页面地址为key）
+            if (validatorCache != null) {
+                validatorCache.applyConditionalHeaders(pageUrl, builder::header);
+            }
+            return builder;
+        };
+        // 非2xx时不读取页面内容；扫描本站友链时需要在接收内容前知道最终地址，用于解析相对地址
+        Function<String, HttpResponse.BodyHandler<PageScanner>> handler = url -> responseInfo -> responseInfo.statusCode() / 100 == 2
+            ? new ScanningBodySubscriber<>(new PageScanner(
+                LinksHealthMonitorUtils.charsetOf(responseInfo.headers().firstValue("Content-Type").orElse(null)), url, ourUrl))
+            : HttpResponse.BodySubscribers.replacing(null);
+
+        ProbeTimer timer = new ProbeTimer();
+        return sendFollowingRedirects(pageUrl, request, handler, timer)
+            .map(response -> {
+                timer.completed();
+                int statusCode = response.statusCode();
+                String finalUrl = response.uri().toString();
+
+                // 页面未修改，复用上次的扫描结果
+                if (statusCode == HttpURLConnection.HTTP_NOT_MODIFIED && validatorCache != null) {
+                    SiteResponse cached = validatorCache.notModified(pageUrl);
+                    if (cached != null) {
+                        return cached;
+                    }
+                }
+
+                PageScanner pageScanner = response.body();
+                SiteResponse siteResponse = pageScanner == null
+                    ? new SiteResponse(statusCode, finalUrl, null, null)
+                    : new SiteResponse(statusCode, finalUrl, pageScanner.getTitle(), pageScanner.getContainsOurLink());
+                if (validatorCache != null) {
+                    validatorCache.update(pageUrl, response.headers().firstValue("ETag").orElse(null),
+                        response.headers().firstValue("Last-Modified").orElse(null), siteResponse);
+                }
+                return siteResponse;
+            })
+            .doOnError(timer::failed)
+            .onErrorReturn(SiteResponse.failed())
+            .map(siteResponse -> {
+                LinksHealthMonitorResult.ProbeTiming timing = timer.toTiming();
+                metrics.probed(ourUrl == null ? MonitorMetrics.ProbeType.SITE : MonitorMetrics.ProbeType.BACKLINK, timing);
+                return siteResponse.withTiming(timing);
+            });
+    }
+
+    /**
+     * 解析主机名并记录DNS解析耗时（解析结果由JVM缓存，随后HttpClient建立连接时直接使用）
+     * 在拿到限流许可后、发出请求前调用，避免等待许可的时间过长导致缓存过期，HttpClient的解析被计入首字节耗时
+     * 解析失败时不做处理，由请求返回失败
+     * @param url 请求的地址
+     * @param timer 记录请求各阶段的耗时
+     * @return 解析结束
+     */
+    private static Mono<Void> resolveHost(String url, ProbeTimer timer) {
+        return Mono.fromRunnable(() -> {
+                String host = URI.create(url).getHost();
+                if (host == null) {
+                    return;
+                }
+                long start = System.nanoTime();
+                try {
+                    InetAddress.getAllByName(host);
+                    timer.dnsResolved(System.nanoTime() - start);
+                } catch (UnknownHostException e) {
+                    // 解析失败，由请求返回失败
+                    timer.failed(e);
+                }
+            })
+            .subscribeOn(Schedulers.boundedElastic())
+            .onErrorResume(error -> Mono.empty())
+            .then();
+    }
+
+    /**
+     * 发送请求并手动跟随重定向（与HttpClient.Redirect.NORMAL一致：不从https重定向到http）
+     * @param url 请求的地址
+     * @param request 根据地址创建请求
+     * @param handler 根据地址创建响应的处理
+     * @return 最终的响应
+     */
+    private <T> Mono<HttpResponse<T>> sendFollowingRedirects(String url, Function<String, HttpRequest.Builder> request,
+        Function<String, HttpResponse.BodyHandler<T>> handler, ProbeTimer timer) {
+        return sendFollowingRedirects(url, request, handler, timer, 0);
+    }
+
+    private <T> Mono<HttpResponse<T>> sendFollowingRedirects(String url, Function<String, HttpRequest.Builder> request,
+        Function<String, HttpResponse.BodyHandler<T>> handler, ProbeTimer timer, int redirects) {
+        return send(url, Mono.fromCallable(() -> request.apply(url).build()), handler.apply(url), timer).flatMap(response -> {
+            String location = response.headers().firstValue("Location").orElse(null);
+            if (REDIRECT_STATUS_CODES.contains(response.statusCode()) && location != null && redirects < MAX_REDIRECTS) {
+                URI current = response.uri();
+                URI target = current.resolve(location.trim());
+                boolean downgrade = "https".equalsIgnoreCase(current.getScheme()) && "http".equalsIgnoreCase(target.getScheme());
+                if (!downgrade) {
+                    return sendFollowingRedirects(target.toString(), request, handler, timer, redirects + 1);
+                }
+            }
+            return Mono.just(response);
+        });
+    }
+
+    /**
+     * 拿到请求许可后发送请求，请求结束（或被取消）时归还许可
+     * 第一次发出请求前解析主机名（重定向和logo的Range请求不再解析）
+     * HttpRequest.timeout只限制等待响应头的时间，读取内容也要在超时内结束，超时后取消请求（中止下载并归还许可）
+     */
+    private <T> Mono<HttpResponse<T>> send(String url, Mono<HttpRequest> request, HttpResponse.BodyHandler<T> handler,
+        ProbeTimer timer) {
+        return Mono.usingWhen(
+            Mono.defer(() -> {
+                long start = System.nanoTime();
+                metrics.requestQueued();
+                return limiter.acquireAsync(url)
+                    .doOnNext(permit -> timer.queued(System.nanoTime() - start))
+                    .doFinally(signal -> metrics.requestDequeued());
+            }),
+            permit -> (timer.isSent() ? Mono.<Void>empty() : resolveHost(url, timer))
+                .then(request)
+                .flatMap(req -> Mono.fromFuture(() -> {
+                    timer.sent();
+                    return httpClient.sendAsync(req, timer.wrap(handler));
+                }))
+                .timeout(timeout),
+            permit -> Mono.fromRunnable(permit::close)
+        );
+    }
+
+    /**
+     * 模拟浏览器的请求
+     */
+    private static HttpRequest.Builder browserRequest(String url, Duration timeout) {
+        return HttpRequest.newBuilder(URI.create(url))
+            .timeout(timeout)
+            .header("User-Agent", HTTP_REQUEST_BROWSER_USER_AGENT)
+            .header("Accept", HTTP_REQUEST_BROWSER_ACCEPT)
+            .header("Accept-Language", "zh-CN,zh;q=0.9")
+            .header("Cache-Control", "no-cache")
+            .header("Upgrade-Insecure-Requests", "1")
+            .header("Sec-Fetch-Dest", "document")
+            .header("Sec-Fetch-Mode", "navigate")
+            .header("Sec-Fetch-Site", "same-origin")
+            .header("Sec-Fetch-User", "?1")
+            .header("referer", "https://tch.cool")
+            .GET();
+    }
+
+    /**
+     * 请求图片（HEAD或只请求前1KB的Range请求）
+     */
+    private static HttpRequest.Builder imageRequest(String url, boolean head, Duration timeout) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+            .timeout(timeout)
+            .header("User-Agent", HTTP_REQUEST_BROWSER_USER_AGENT)
+            .header("Accept", HTTP_REQUEST_IMAGE_ACCEPT)
+            // 需要原始字节判断文件头，不接受压缩
+            .header("Accept-Encoding", "identity")
+            .header("Sec-Fetch-Dest", "image")
+            .header("referer", "https://tch.cool");
+        if (head) {
+            return builder.HEAD();
+        }
+        return builder
+            .header("Range", "bytes=0-" + (ImageMagicBytes.PROBE_BYTES - 1))
+            .GET();
+    }
+}
@@ -5,25 +5,67 @@ import cool.tch.linkshealthmonitor.extension.Link;
 import cool.tch.linkshealthmonitor.extension.LinkMetadataAnnotations;
 import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorResult;
 import cool.tch.linkshealthmonitor.service.CustomResourceService;
+import cool.tch.linkshealthmonitor.service.LatestResultCache;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.BeanUtils;
 import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.support.CronExpression;
 import org.springframework.stereotype.Component;
 import org.springframework.util.CollectionUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 import run.halo.app.extension.Metadata;
 import run.halo.app.extension.MetadataOperator;
 import run.halo.app.extension.ReactiveExtensionClient;
 import run.halo.app.plugin.ReactiveSettingFetcher;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
+import static cool.tch.linkshealthmonitor.constant.Constant.DEFAULT_ADAPTIVE_MAX_STALE_MINUTES;
+import static cool.tch.linkshealthmonitor.constant.Constant.DEFAULT_CHECK_CONCURRENCY;
 import static cool.tch.linkshealthmonitor.constant.Constant.DEFAULT_CRON;
 import static cool.tch.linkshealthmonitor.constant.Constant.DEFAULT_CRON_DESC;
+import static cool.tch.linkshealthmonitor.constant.Constant.DEFAULT_INCREMENTAL_STALE_MINUTES;
+import static cool.tch.linkshealthmonitor.constant.Constant.DEFAULT_KEYFRAME_INTERVAL;
+import static cool.tch.linkshealthmonitor.constant.Constant.DEFAULT_MAX_CONNECTIONS;
+import static cool.tch.linkshealthmonitor.constant.Constant.DEFAULT_PER_HOST_CONCURRENCY;
+import static cool.tch.linkshealthmonitor.constant.Constant.DEFAULT_REQUESTS_PER_SECOND;
+import static cool.tch.linkshealthmonitor.constant.Constant.DEFAULT_RESULT_RETENTION_COUNT;
+import static cool.tch.linkshealthmonitor.constant.Constant.DEFAULT_SUMMARY_RETENTION_DAYS;
+import static cool.tch.linkshealthmonitor.constant.Constant.DEFAULT_ZONE_ID;
+import static cool.tch.linkshealthmonitor.constant.Constant.ESTIMATED_REQUESTS_PER_LINK;
 import static cool.tch.linkshealthmonitor.constant.Constant.LINKS_HEALTH_MONITOR;
 import static cool.tch.linkshealthmonitor.constant.Constant.LINKS_HEALTH_MONITOR_DESC;
+import static cool.tch.linkshealthmonitor.constant.Constant.MAX_CHECK_CONCURRENCY;
+import static cool.tch.linkshealthmonitor.constant.Constant.MERGE_THREAD_NAME;
+import static cool.tch.linkshealthmonitor.constant.Constant.SLOWEST_HOSTS_COUNT;
+import static cool.tch.linkshealthmonitor.constant.Constant.SPREAD_SLOT_SECONDS;
+import static cool.tch.linkshealthmonitor.constant.Constant.SPREAD_WINDOW_PERCENT;
 import static cool.tch.linkshealthmonitor.extension.LinkMetadataAnnotations.fromMap;
 import static cool.tch.linkshealthmonitor.task.MonitorableScheduledFuture.TaskStatus.UNCREATED;
 
@@ -48,8 +90,32 @@ public class LinksHealthMonitorTask {
 
     private final TaskScheduler taskScheduler;
 
+    // 插件共用的HTTP客户端
+    private final SharedHttpClient sharedHttpClient;
+
+    // 监测结果的保留策略
+    private final ResultRetention resultRetention;
+
+    // 最新友链监测记录的缓存
+    private final LatestResultCache latestResultCache;
+
+    // 监测进度的广播
+    private final RunProgress runProgress;
+
+    // 监测流程的指标
+    private final MonitorMetrics monitorMetrics;
+
     private MonitorableScheduledFuture scheduledFuture;
 
+    // 合并监测记录的线程（变更监测和分散监测的批次依次执行，同一时间只合并一次，避免更新冲突；阻塞的监测不占用调度线程）
+    private final Scheduler mergeScheduler = Schedulers.newBoundedElastic(1, Integer.MAX_VALUE, MERGE_THREAD_NAME);
+
+    // 进行中的分散监测周期（没有时为null）
+    private final AtomicReference<SpreadCycle> spreadCycle = new AtomicReference<>();
+
+    // 每种监测类型最近一次监测各阶段的耗时（部分监测不覆盖完整监测的记录）
+    private final Map<RunProgress.RunType, RunPhases> lastRunPhases = new ConcurrentHashMap<>();
+
     /**
      * 获取插件配置
      */
@@ -68,6 +134,7 @@ public class LinksHealthMonitorTask {
      */
     public void executeTask(LinksHealthMonitorConfig config) {
         // 如果有任务，先停止
+        // （进行中的分散监测周期随任务一起取消）
         if (scheduledFuture != null) {
             scheduledFuture.stop();
         }
@@ -89,22 +156,182 @@ public class LinksHealthMonitorTask {
      */
     public MonitorableScheduledFuture.TaskInfo getTaskExecuteInfo() {
         // 任务未创建
-        if (scheduledFuture == null) {
-            MonitorableScheduledFuture.TaskInfo taskInfo = new MonitorableScheduledFuture.TaskInfo(UNCREATED.getValue());
-            return taskInfo;
+        MonitorableScheduledFuture.TaskInfo taskInfo = scheduledFuture == null
+            ? new MonitorableScheduledFuture.TaskInfo(UNCREATED.getValue())
+            : scheduledFuture.getTaskInfo();
+
+        // 最近一次完整监测和部分监测各阶段的耗时
+        taskInfo.setLastRun(snapshotLastRun(RunProgress.RunType.FULL));
+        taskInfo.setLastPartialRun(snapshotLastRun(RunProgress.RunType.PARTIAL));
+        // 进行中的分散监测的进度
+        SpreadCycle cycle = spreadCycle.get();
+        taskInfo.setSpread(cycle == null ? null : new SpreadPlan.Progress(cycle.linkCount(), cycle.slots().size(),
+            cycle.checkedSlots().get(), cycle.window().toSeconds()));
+        return taskInfo;
+    }
+
+    /**
+     * 停止任务并关闭合并监测记录的线程（插件停止时调用）
+     */
+    public void close() {
+        if (scheduledFuture != null) {
+            scheduledFuture.stop();
         }
+        mergeScheduler.dispose();
+    }
 
-        return scheduledFuture.getTaskInfo();
+    /**
+     * 获取某种监测类型最近一次监测各阶段的耗时
+     * @param runType 监测类型
+     * @return 各阶段的耗时（还没有这种监测时为null）
+     */
+    private RunPhases.Breakdown snapshotLastRun(RunProgress.RunType runType) {
+        RunPhases phases = lastRunPhases.get(runType);
+        return phases == null ? null : phases.snapshot(SLOWEST_HOSTS_COUNT);
     }
 
     /**
      * 执行任务逻辑
      * @param config 插件配置
      */
-    private void executeTaskLogic(LinksHealthMonitorConfig config) {
+    private Mono<Void> executeTaskLogic(LinksHealthMonitorConfig config) {
 
-        // 自定义模型的对象
-        LinksHealthMonitorResult monitorResult = new LinksHealthMonitorResult();
+        // 分散监测（安排批次时要查询最新的监测结果和所有的友链，在合并线程中执行，不占用调度线程）
+        if (config.isSpreadCheckEnable()) {
+            return Mono.fromCallable(() -> Optional.ofNullable(planSpreadCheck(config)))
+                .subscribeOn(mergeScheduler)
+                // 还没有可以合并的监测结果时，先执行一次完整监测
+                .flatMap(cycle -> cycle.isPresent()
+                    ? spreadCheck(config, cycle.get())
+                    : Mono.defer(() -> runFullCheck(config)).subscribeOn(Schedulers.boundedElastic()));
+        }
+        return runFullCheck(config);
+    }
+
+    /**
+     * 完整监测，记录各阶段的耗时
+     * @param config 插件配置
+     * @return 监测完成
+     */
+    private Mono<Void> runFullCheck(LinksHealthMonitorConfig config) {
+        long startNanos = System.nanoTime();
+        RunPhases phases = startRun(RunProgress.RunType.FULL);
+        // 响应式监测订阅后立即返回，整个流程结束后再记录耗时
+        Mono<Void> check = config.isReactiveCheckEnable()
+            ? reactiveFullCheck(config, phases)
+            : Mono.fromRunnable(() -> fullCheck(config, phases));
+        return check
+            .doFinally(signal -> phases.finish())
+            .doOnSuccess(ignored -> monitorMetrics.runFinished(RunProgress.RunType.FULL,
+                Duration.ofNanos(System.nanoTime() - startNanos)));
+    }
+
+    /**
+     * 完整监测，创建新的监测结果（虚拟线程并发监测）
+     * @param config 插件配置
+     * @param phases 本次监测各阶段的耗时
+     */
+    private void fullCheck(LinksHealthMonitorConfig config, RunPhases phases) {
+        LinksHealthMonitorResult.ResultSpec resultSpec = newResultSpec(config);
+        // 本站外部地址
+        String externalUrl = service.getExternalUrl();
+
+        // 标准化
+        String normalizeUrl = LinksHealthMonitorUtils.normalizeUrl(externalUrl);
+        // 保存的监测结果（增量存储时只有变化的记录）
+        LinksHealthMonitorResult.ResultSpec storedSpec = resultSpec;
+        // 本站外部地址不为空时，友链监测记录
+        if(StringUtils.isNotBlank(normalizeUrl)) {
+            // 上一次的监测结果
+            LinksHealthMonitorResult previousResult = service.getLatestResult().block();
+            LinksHealthMonitorResult.ResultSpec previousSpec = previousResult == null ? null : previousResult.getResultSpec();
+            // 友链页面的条件请求缓存（从上一次的监测结果中加载）
+            PageValidatorCache validatorCache = new PageValidatorCache(normalizeUrl,
+                previousSpec == null ? null : previousSpec.getPageValidatorList());
+            // 增量监测（未启用时为null，全部重新监测）
+            IncrementalCheckPlan incrementalPlan = config.isIncrementalCheckEnable()
+                ? newIncrementalPlan(config, normalizeUrl, previousSpec, validatorCache, service::getAllLinks)
+                : null;
+            // 所有分组的displayName（每次监测只查询一次）
+            phases.begin(RunPhases.Phase.GROUP_LOOKUP);
+            Map<String, String> groupDisplayNames = service.getGroupDisplayNames();
+            // 本次监测的上下文
+            CheckRun run = newCheckRun(externalUrl, config, validatorCache, incrementalPlan,
+                previousSpec == null ? null : previousSpec.getLinkHealthMonitorRecordList(), groupDisplayNames, phases);
+            // 友链监测
+            List<LinkCheckOutcome> outcomes = concurrentLinkHealthCheck(getPractialConcurrency(config), run);
+
+            applyOutcomes(resultSpec, normalizeUrl, outcomes, validatorCache, incrementalPlan);
+            storedSpec = toStoredSpec(config, resultSpec, previousResult).block();
+        }
+
+        persist(config, storedSpec, resultSpec, phases).block();
+    }
+
+    /**
+     * 完整监测，创建新的监测结果（响应式监测）
+     * 查询上一次的监测结果、分组和友链，网络监测，保存监测结果全程非阻塞，由定时任务订阅，不占用调度线程
+     * @param config 插件配置
+     * @param phases 本次监测各阶段的耗时
+     * @return 监测完成
+     */
+    private Mono<Void> reactiveFullCheck(LinksHealthMonitorConfig config, RunPhases phases) {
+        LinksHealthMonitorResult.ResultSpec resultSpec = newResultSpec(config);
+        // 本站外部地址
+        String externalUrl = service.getExternalUrl();
+
+        // 标准化
+        String normalizeUrl = LinksHealthMonitorUtils.normalizeUrl(externalUrl);
+        // 本站外部地址为空时，不监测友链
+        if (StringUtils.isBlank(normalizeUrl)) {
+            return persist(config, resultSpec, resultSpec, phases);
+        }
+
+        // 监测并发数
+        int concurrency = getPractialConcurrency(config);
+
+        // 上一次的监测结果、所有分组的displayName、所有的友链同时查询
+        phases.begin(RunPhases.Phase.LIST_LINKS);
+        Mono<Optional<LinksHealthMonitorResult>> previous = service.getLatestResult()
+            .map(Optional::of)
+            .defaultIfEmpty(Optional.empty());
+        Mono<List<Link>> allLinks = service.listAllLinks()
+            .onErrorResume(error -> {
+                log.error("{}【{}】获取所有的友链数据失败: {}", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR, error.getMessage(), error);
+                return Flux.empty();
+            })
+            .collectList();
+
+        return Mono.zip(previous, service.listGroupDisplayNames(), allLinks)
+            .flatMap(lookups -> {
+                LinksHealthMonitorResult previousResult = lookups.getT1().orElse(null);
+                LinksHealthMonitorResult.ResultSpec previousSpec = previousResult == null ? null : previousResult.getResultSpec();
+                // 友链页面的条件请求缓存（从上一次的监测结果中加载）
+                PageValidatorCache validatorCache = new PageValidatorCache(normalizeUrl,
+                    previousSpec == null ? null : previousSpec.getPageValidatorList());
+                // 增量监测（未启用时为null，全部重新监测）
+                IncrementalCheckPlan incrementalPlan = config.isIncrementalCheckEnable()
+                    ? newIncrementalPlan(config, normalizeUrl, previousSpec, validatorCache, lookups::getT3)
+                    : null;
+                // 本次监测的上下文
+                CheckRun run = newCheckRun(externalUrl, config, validatorCache, incrementalPlan,
+                    previousSpec == null ? null : previousSpec.getLinkHealthMonitorRecordList(), lookups.getT2(), phases);
+
+                return reactiveLinkHealthCheck(concurrency, lookups.getT3(), run)
+                    .flatMap(outcomes -> {
+                        applyOutcomes(resultSpec, normalizeUrl, outcomes, validatorCache, incrementalPlan);
+                        return toStoredSpec(config, resultSpec, previousResult);
+                    });
+            })
+            .flatMap(storedSpec -> persist(config, storedSpec, resultSpec, phases));
+    }
+
+    /**
+     * 创建完整监测的监测结果（仅包含任务信息）
+     * @param config 插件配置
+     * @return 监测结果
+     */
+    private LinksHealthMonitorResult.ResultSpec newResultSpec(LinksHealthMonitorConfig config) {
         LinksHealthMonitorResult.ResultSpec resultSpec = new LinksHealthMonitorResult.ResultSpec();
         // 是否启用自定义Cron
         resultSpec.setCustomizedCronEnable(config.isCustomizedCronEnable());
@@ -115,121 +342,955 @@ public class LinksHealthMonitorTask {
         // 执行任务的Cron表达式
         String cronExpression = getPractialCron(config);
         resultSpec.setCronExpression(DEFAULT_CRON.equals(cronExpression) ? cronExpression + DEFAULT_CRON_DESC : cronExpression);
-        // 本站外部地址
-        String externalUrl = service.getExternalUrl();
+        return resultSpec;
+    }
 
-        // 标准化
-        String normalizeUrl = LinksHealthMonitorUtils.normalizeUrl(externalUrl);
-        // 本站外部地址不为空时，友链监测记录
-        if(StringUtils.isNotBlank(normalizeUrl)) {
-            // 友链监测记录
-            List<LinksHealthMonitorResult.LinkHealthMonitorRecord> recordList = new ArrayList<>();
-            // 无需友链监测记录
-            List<LinksHealthMonitorResult.NoMonitorRecord> nomonitorRecordList = new ArrayList<>();
-            // 友链监测
-            linkHealthCheck(externalUrl, recordList, nomonitorRecordList);
+    /**
+     * 把友链监测结果写入监测结果
+     * @param resultSpec 监测结果
+     * @param normalizeUrl 本站外部地址（标准化）
+     * @param outcomes 友链监测结果，顺序与友链顺序一致
+     * @param validatorCache 友链页面的条件请求缓存
+     * @param incrementalPlan 增量监测（为null时全部重新监测）
+     */
+    private void applyOutcomes(LinksHealthMonitorResult.ResultSpec resultSpec, String normalizeUrl, List<LinkCheckOutcome> outcomes,
+        PageValidatorCache validatorCache, IncrementalCheckPlan incrementalPlan) {
+        if (validatorCache.getNotModifiedCount() > 0) {
+            log.info("{}【{}】友链页面未修改（304）数：【{}】", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR, validatorCache.getNotModifiedCount());
+        }
+        if (incrementalPlan != null) {
+            log.info("{}【{}】增量监测，沿用上次记录的友链数：【{}】", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR, incrementalPlan.getCarriedCount());
+        }
 
-            resultSpec.setLinkHealthMonitorRecordList(recordList);
-            resultSpec.setNoMonitorRecordList(nomonitorRecordList);
+        // 友链监测记录
+        List<LinksHealthMonitorResult.LinkHealthMonitorRecord> recordList = new ArrayList<>();
+        // 无需友链监测记录
+        List<LinksHealthMonitorResult.NoMonitorRecord> nomonitorRecordList = new ArrayList<>();
+        for (LinkCheckOutcome outcome : outcomes) {
+            // 无效的友链数据或监测失败
+            if (outcome == null) continue;
+
+            if (outcome.getRecord() != null) {
+                recordList.add(outcome.getRecord());
+            } else if (outcome.getNoMonitorRecord() != null) {
+                nomonitorRecordList.add(outcome.getNoMonitorRecord());
+            }
         }
 
+        resultSpec.setOurUrl(normalizeUrl);
+        resultSpec.setLinkHealthMonitorRecordList(recordList);
+        resultSpec.setNoMonitorRecordList(nomonitorRecordList);
+        resultSpec.setPageValidatorList(validatorCache.toList());
+    }
+
+    /**
+     * 转换为保存的完整监测结果（增量存储时相对上一次监测结果的关键帧，超过间隔时重新保存关键帧）
+     * @param config 插件配置
+     * @param full 完整的监测结果
+     * @param previousResult 上一次的监测结果（可以为null）
+     * @return 保存的监测结果
+     */
+    private Mono<LinksHealthMonitorResult.ResultSpec> toStoredSpec(LinksHealthMonitorConfig config,
+        LinksHealthMonitorResult.ResultSpec full, LinksHealthMonitorResult previousResult) {
+        LinksHealthMonitorResult.ResultSpec previousSpec = previousResult == null ? null : previousResult.getResultSpec();
+        if (previousSpec == null) {
+            return Mono.just(full);
+        }
+
+        String keyframeName = previousSpec.getKeyframeName() == null
+            ? previousResult.getMetadata().getName()
+            : previousSpec.getKeyframeName();
+        int deltaIndex = previousSpec.getKeyframeName() == null ? 1 : previousSpec.getDeltaIndex() + 1;
+        return toStoredSpec(config, full, keyframeName, deltaIndex);
+    }
+
+    /**
+     * 保存完整监测的监测结果，更新缓存，清理历史监测结果
+     * @param config 插件配置
+     * @param storedSpec 保存的监测结果（增量存储时只有变化的记录）
+     * @param fullSpec 完整的监测结果
+     * @param phases 本次监测各阶段的耗时
+     * @return 保存完成（保存失败时也正常结束）
+     */
+    private Mono<Void> persist(LinksHealthMonitorConfig config, LinksHealthMonitorResult.ResultSpec storedSpec,
+        LinksHealthMonitorResult.ResultSpec fullSpec, RunPhases phases) {
+        // 自定义模型的对象
+        LinksHealthMonitorResult monitorResult = new LinksHealthMonitorResult();
         // 元数据
         Metadata metadata = new Metadata();
         metadata.setName(LinksHealthMonitorUtils.generateMetadataname());
         monitorResult.setMetadata(metadata);
+        monitorResult.setResultSpec(storedSpec);
 
         // 创建自定义模型的对象
-        monitorResult.setResultSpec(resultSpec);
-
-        client.create(monitorResult)
+        return Mono.defer(() -> {
+                phases.begin(RunPhases.Phase.PERSIST);
+                return client.create(monitorResult);
+            })
             .doOnError(error -> {
                 log.error("{}【{}】创建自定义模型的对象失败: {}", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR, error.getMessage(), error);
             })
-            .subscribe();
+            .onErrorResume(error -> Mono.empty())
+            // 更新缓存，清理历史监测结果（新的监测结果创建成功后）
+            .flatMap(created -> {
+                latestResultCache.put(created, fullSpec);
+                phases.begin(RunPhases.Phase.RETENTION);
+                // 清理时分批查询、汇总和删除，在boundedElastic线程中执行，不占用响应式的线程
+                return Mono.<Void>fromRunnable(() -> resultRetention.compact(getPractialResultRetentionCount(config),
+                        getPractialSummaryRetentionDays(config)))
+                    .subscribeOn(Schedulers.boundedElastic());
+            });
+    }
+
+    /**
+     * 开始一次监测，记录各阶段的耗时
+     * @param runType 监测类型
+     * @return 本次监测各阶段的耗时
+     */
+    private RunPhases startRun(RunProgress.RunType runType) {
+        RunPhases phases = new RunPhases(runType);
+        phases.begin(RunPhases.Phase.PREPARE);
+        lastRunPhases.put(runType, phases);
+        return phases;
+    }
+
+    /**
+     * 安排分散监测：每个友链按name的哈希在本次到下次执行之间得到偏移，分批监测并合并到最新的监测结果中
+     * 外部请求和监测结果的写入不再集中在同一时间
+     * @param config 插件配置
+     * @return 本次的分散监测周期（还没有可以合并的监测结果时为null，先执行一次完整监测；查询友链失败时没有批次）
+     */
+    private SpreadCycle planSpreadCheck(LinksHealthMonitorConfig config) {
+        LinksHealthMonitorResult latest = getMergeableResult();
+        if (latest == null) {
+            return null;
+        }
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.of(DEFAULT_ZONE_ID));
+
+        // 查询所有的友链（查询失败时本次不监测，避免把所有友链当作已删除）
+        List<Link> allLinks = service.listAllLinks()
+            .collectList()
+            .timeout(Duration.ofSeconds(10))
+            .onErrorResume(error -> {
+                log.error("{}【{}】获取所有的友链数据失败: {}", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR, error.getMessage(), error);
+                return Mono.empty();
+            })
+            .block();
+        if (allLinks == null) {
+            return new SpreadCycle(now.toInstant(), Duration.ZERO, Duration.ZERO, new TreeMap<>(), 0, new AtomicInteger());
+        }
+        Set<String> linkNames = new LinkedHashSet<>();
+        allLinks.forEach(link -> linkNames.add(link.getMetadata().getName()));
+
+        // 已删除的友链（随第一批监测从监测结果中移除）
+        Set<String> removedNames = new LinkedHashSet<>();
+        LinksHealthMonitorResult.ResultSpec resultSpec = latest.getResultSpec();
+        if (resultSpec.getLinkHealthMonitorRecordList() != null) {
+            resultSpec.getLinkHealthMonitorRecordList().forEach(record -> removedNames.add(record.getLinkName()));
+        }
+        if (resultSpec.getNoMonitorRecordList() != null) {
+            resultSpec.getNoMonitorRecordList().forEach(record -> removedNames.add(record.getLinkName()));
+        }
+        removedNames.removeAll(linkNames);
+
+        // 本次到下次执行之间的监测周期（留出余量，下次执行前全部监测完）
+        Duration period = untilNextExecution(config, now);
+        Duration window = period.multipliedBy(SPREAD_WINDOW_PERCENT).dividedBy(100);
+
+        SortedMap<Duration, List<String>> slots = SpreadPlan.plan(linkNames, window, Duration.ofSeconds(SPREAD_SLOT_SECONDS));
+        if (!removedNames.isEmpty()) {
+            slots.computeIfAbsent(Duration.ZERO, key -> new ArrayList<>()).addAll(removedNames);
+        }
+
+        log.info("{}【{}】分散监测，友链总数：【{}】，批次数：【{}】，监测周期：【{}】秒", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR,
+            linkNames.size(), slots.size(), window.toSeconds());
+        return new SpreadCycle(now.toInstant(), period, window, slots, linkNames.size(), new AtomicInteger());
+    }
+
+    /**
+     * 分散监测：到了每个批次的时间后在合并线程中监测并合并，全部批次结束后保存一个新的监测结果
+     * 整个周期作为本次任务执行（任务状态为运行中，任务停止时取消还没有执行的批次）
+     * @param config 插件配置
+     * @param cycle 本次的分散监测周期
+     * @return 全部批次监测完成
+     */
+    private Mono<Void> spreadCheck(LinksHealthMonitorConfig config, SpreadCycle cycle) {
+        if (cycle.slots().isEmpty()) {
+            return Mono.empty();
+        }
+
+        return Mono.fromRunnable(() -> spreadCycle.set(cycle))
+            .thenMany(Flux.fromIterable(cycle.slots().entrySet()))
+            .concatMap(slot -> {
+                Duration delay = Duration.between(Instant.now(), cycle.start().plus(slot.getKey()));
+                return Mono.delay(delay.isNegative() ? Duration.ZERO : delay)
+                    .then(Mono.fromRunnable(() -> checkSpreadSlot(config, cycle, slot.getValue())).subscribeOn(mergeScheduler));
+            })
+            // 就地合并只更新最新的监测结果，周期结束后再保存一个新的（历史记录的保留和每日汇总以保存的监测结果为准）
+            .then(Mono.fromRunnable(() -> persistSpreadCycle(config)).subscribeOn(mergeScheduler))
+            .then()
+            .doFinally(signal -> spreadCycle.compareAndSet(cycle, null));
+    }
+
+    /**
+     * 监测分散监测的一个批次
+     * 启用增量监测时按本批次友链数占比分到请求预算，还没有过期的友链沿用上次的记录
+     * @param config 插件配置
+     * @param cycle 本次的分散监测周期
+     * @param linkNames 本批次的友链name
+     */
+    private void checkSpreadSlot(LinksHealthMonitorConfig config, SpreadCycle cycle, List<String> linkNames) {
+        try {
+            Duration budgetPeriod = config.isIncrementalCheckEnable()
+                ? cycle.period().multipliedBy(linkNames.size()).dividedBy(Math.max(cycle.linkCount(), 1))
+                : null;
+            checkLinksAndMerge(config, linkNames, budgetPeriod);
+        } catch (Exception e) {
+            log.error("{}【{}】分散监测失败: {}", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR, e.getMessage(), e);
+        } finally {
+            cycle.checkedSlots().incrementAndGet();
+        }
+    }
+
+    /**
+     * 分散监测周期结束后，把最新的监测结果保存为新的监测结果，并清理历史监测结果
+     * @param config 插件配置
+     */
+    private void persistSpreadCycle(LinksHealthMonitorConfig config) {
+        LinksHealthMonitorResult latest = getMergeableResult();
+        if (latest == null) {
+            return;
+        }
+
+        // 任务信息使用当前的配置
+        LinksHealthMonitorResult.ResultSpec resultSpec = latest.getResultSpec();
+        LinksHealthMonitorResult.ResultSpec taskSpec = newResultSpec(config);
+        resultSpec.setCustomizedCronEnable(taskSpec.getCustomizedCronEnable());
+        resultSpec.setCustomizedCronAvailable(taskSpec.getCustomizedCronAvailable());
+        resultSpec.setCronExpression(taskSpec.getCronExpression());
+
+        LinksHealthMonitorResult.ResultSpec storedSpec = toStoredSpec(config, resultSpec, latest).block();
+        persist(config, storedSpec, resultSpec, new RunPhases(RunProgress.RunType.PARTIAL)).block();
+    }
+
+    /**
+     * 创建增量监测
+     * 启用自适应监测频率时，连续正常的友链监测间隔逐渐变长；设置了请求预算时，只监测预算内的友链
+     * @param config 插件配置
+     * @param normalizeUrl 本站外部地址（标准化）
+     * @param previousSpec 上一次的监测结果（可以为null）
+     * @param validatorCache 友链页面的条件请求缓存
+     * @param allLinks 所有的友链（设置了请求预算时才查询）
+     * @return 增量监测
+     */
+    private IncrementalCheckPlan newIncrementalPlan(LinksHealthMonitorConfig config, String normalizeUrl,
+        LinksHealthMonitorResult.ResultSpec previousSpec, PageValidatorCache validatorCache, Supplier<List<Link>> allLinks) {
+        return newIncrementalPlan(config, normalizeUrl, previousSpec, validatorCache, allLinks,
+            untilNextExecution(config, ZonedDateTime.now(ZoneId.of(DEFAULT_ZONE_ID))));
+    }
+
+    /**
+     * 创建增量监测
+     * @param config 插件配置
+     * @param normalizeUrl 本站外部地址（标准化）
+     * @param previousSpec 上一次的监测结果（可以为null）
+     * @param validatorCache 友链页面的条件请求缓存
+     * @param allLinks 本次要监测的友链（设置了请求预算时才查询）
+     * @param budgetPeriod 请求预算按这段时间折算
+     * @return 增量监测
+     */
+    private IncrementalCheckPlan newIncrementalPlan(LinksHealthMonitorConfig config, String normalizeUrl,
+        LinksHealthMonitorResult.ResultSpec previousSpec, PageValidatorCache validatorCache, Supplier<List<Link>> allLinks,
+        Duration budgetPeriod) {
+        Duration staleAfter = Duration.ofMinutes(getPractialIncrementalStaleMinutes(config));
+        Duration maxStaleAfter = config.isAdaptiveCheckEnable()
+            ? Duration.ofMinutes(getPractialAdaptiveMaxStaleMinutes(config))
+            : staleAfter;
+        ZonedDateTime now = ZonedDateTime.now(ZoneId.of(DEFAULT_ZONE_ID));
+        IncrementalCheckPlan incrementalPlan = new IncrementalCheckPlan(normalizeUrl, previousSpec, staleAfter, maxStaleAfter,
+            now.toInstant(), validatorCache);
+
+        // 请求预算（按本次到下次执行的间隔或者分散监测本批次分到的时间折算）
+        int hourlyRequestBudget = getPractialHourlyRequestBudget(config);
+        if (hourlyRequestBudget > 0) {
+            long minutes = Math.max(budgetPeriod.toMinutes(), 1);
+            int maxLinks = (int) Math.max(hourlyRequestBudget * minutes / 60 / ESTIMATED_REQUESTS_PER_LINK, 1);
+
+            List<IncrementalCheckPlan.Candidate> candidates = new ArrayList<>();
+            for (Link link : allLinks.get()) {
+                LinksHealthMonitorResult.LinkHealthMonitorRecord checkRecord = newCheckRecord(link);
+                LinkMetadataAnnotations annotations = fromMap(link.getMetadata().getAnnotations());
+                if (checkRecord != null && annotations.isEnableFriendLinkHealthMonitor()) {
+                    candidates.add(new IncrementalCheckPlan.Candidate(checkRecord, annotations.getFriendLinkUrl()));
+                }
+            }
+            int deferred = incrementalPlan.applyBudget(candidates, maxLinks);
+            if (deferred > 0) {
+                log.info("{}【{}】超出请求预算，推迟到下次监测的友链数：【{}】", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR, deferred);
+            }
+        }
+        return incrementalPlan;
+    }
+
+    /**
+     * 距下次执行的时间
+     * @param config 插件配置
+     * @param now 当前时间
+     * @return 距下次执行的时间
+     */
+    private Duration untilNextExecution(LinksHealthMonitorConfig config, ZonedDateTime now) {
+        ZonedDateTime next = CronExpression.parse(getPractialCron(config)).next(now);
+        return next == null ? Duration.ZERO : Duration.between(now, next);
+    }
+
+    /**
+     * 监测变更的友链，并把结果合并到最新的监测结果中（友链新增、修改或删除后调用，不执行完整监测）
+     * 变更的友链不使用增量监测，全部重新监测；在合并线程中执行，不占用调用方的线程
+     * @param linkNames 友链的name
+     * @return 是否已合并到最新的监测结果中（未启用变更监测或者没有可以合并的监测结果时为false）
+     */
+    public Mono<Boolean> checkLinks(Collection<String> linkNames) {
+        return Mono.fromCallable(() -> {
+                LinksHealthMonitorConfig config = reactiveSettingFetcher
+                    .fetch(LinksHealthMonitorConfig.GROUP, LinksHealthMonitorConfig.class)
+                    .defaultIfEmpty(new LinksHealthMonitorConfig())
+                    .block();
+                if (Boolean.FALSE.equals(config.getLinkChangeCheckEnable())) {
+                    return false;
+                }
+
+                log.info("{}【{}】友链有变更，监测变更的友链：【{}】", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR, String.join(", ", linkNames));
+                return checkLinksAndMerge(config, linkNames, null);
+            })
+            .subscribeOn(mergeScheduler);
+    }
+
+    /**
+     * 监测指定的友链，并把结果合并到最新的监测结果中
+     * 还没有监测结果或者本站地址变更时不做处理，等待下一次完整监测；只在合并线程中调用（同一时间只合并一次）
+     * @param config 插件配置
+     * @param linkNames 友链的name（已删除的友链从监测结果中移除）
+     * @param budgetPeriod 增量监测的请求预算按这段时间折算（为null时不使用增量监测，全部重新监测）
+     * @return 是否已合并到最新的监测结果中
+     */
+    private boolean checkLinksAndMerge(LinksHealthMonitorConfig config, Collection<String> linkNames, Duration budgetPeriod) {
+        // 最新的监测结果
+        LinksHealthMonitorResult latest = getMergeableResult();
+        if (latest == null) {
+            return false;
+        }
+
+        long startNanos = System.nanoTime();
+        RunPhases phases = startRun(RunProgress.RunType.PARTIAL);
+        boolean merged;
+        try {
+            merged = mergeCheck(config, linkNames, latest, phases, budgetPeriod);
+        } finally {
+            phases.finish();
+        }
+        monitorMetrics.runFinished(RunProgress.RunType.PARTIAL, Duration.ofNanos(System.nanoTime() - startNanos));
+        return merged;
     }
 
     /**
-     * 友链监测
+     * 监测指定的友链并合并到最新的监测结果中（在合并线程中调用）
+     * @param config 插件配置
+     * @param linkNames 友链的name
+     * @param latest 最新的监测结果
+     * @param phases 本次监测各阶段的耗时
+     * @param budgetPeriod 增量监测的请求预算按这段时间折算（为null时不使用增量监测，全部重新监测）
+     * @return 是否已合并并保存（查询友链或保存失败时为false）
+     */
+    private boolean mergeCheck(LinksHealthMonitorConfig config, Collection<String> linkNames, LinksHealthMonitorResult latest,
+        RunPhases phases, Duration budgetPeriod) {
+        LinksHealthMonitorResult.ResultSpec resultSpec = latest.getResultSpec();
+        // 本站外部地址
+        String externalUrl = service.getExternalUrl();
+        String normalizeUrl = LinksHealthMonitorUtils.normalizeUrl(externalUrl);
+
+        // 查询友链（已删除的友链不返回，合并时从监测结果中移除）
+        phases.begin(RunPhases.Phase.LIST_LINKS);
+        List<Link> links = service.getLinksByNames(linkNames);
+        if (links == null) {
+            return false;
+        }
+
+        // 友链页面的条件请求缓存
+        List<LinksHealthMonitorResult.PageValidator> previousValidators = resultSpec.getPageValidatorList();
+        PageValidatorCache validatorCache = new PageValidatorCache(normalizeUrl, previousValidators);
+        // 增量监测（只在本批次的友链中选择要监测的友链）
+        IncrementalCheckPlan incrementalPlan = budgetPeriod == null
+            ? null
+            : newIncrementalPlan(config, normalizeUrl, resultSpec, validatorCache, () -> links, budgetPeriod);
+        phases.begin(RunPhases.Phase.GROUP_LOOKUP);
+        Map<String, String> groupDisplayNames = service.getGroupDisplayNames();
+        CheckRun run = newCheckRun(externalUrl, config, validatorCache, incrementalPlan, resultSpec.getLinkHealthMonitorRecordList(),
+            groupDisplayNames, phases);
+        phases.begin(RunPhases.Phase.PROBE);
+        RunProgress.Tracker tracker = runProgress.start(RunProgress.RunType.PARTIAL, links.size());
+        List<LinkCheckOutcome> outcomes;
+        try {
+            outcomes = new ConcurrentCheckEngine(getPractialConcurrency(config))
+                .checkAll(links, link -> checkLinkWithProgress(link, run, tracker));
+        } finally {
+            tracker.finish();
+        }
+        if (incrementalPlan != null) {
+            log.info("{}【{}】增量监测，沿用上次记录的友链数：【{}】", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR, incrementalPlan.getCarriedCount());
+        }
+
+        // 合并到最新的监测结果中
+        Map<String, LinksHealthMonitorResult.LinkHealthMonitorRecord> records = new LinkedHashMap<>();
+        Map<String, LinksHealthMonitorResult.NoMonitorRecord> noMonitorRecords = new LinkedHashMap<>();
+        for (LinkCheckOutcome outcome : outcomes) {
+            if (outcome == null) continue;
+
+            if (outcome.getRecord() != null) {
+                records.put(outcome.getRecord().getLinkName(), outcome.getRecord());
+            } else if (outcome.getNoMonitorRecord() != null) {
+                noMonitorRecords.put(outcome.getNoMonitorRecord().getLinkName(), outcome.getNoMonitorRecord());
+            }
+        }
+        resultSpec.setLinkHealthMonitorRecordList(LinksHealthMonitorUtils.mergeByLinkName(resultSpec.getLinkHealthMonitorRecordList(),
+            LinksHealthMonitorResult.LinkHealthMonitorRecord::getLinkName, linkNames, records));
+        resultSpec.setNoMonitorRecordList(LinksHealthMonitorUtils.mergeByLinkName(resultSpec.getNoMonitorRecordList(),
+            LinksHealthMonitorResult.NoMonitorRecord::getLinkName, linkNames, noMonitorRecords));
+        // 其他友链页面的条件请求缓存保持不变
+        if (previousValidators != null) {
+            previousValidators.forEach(validator -> validatorCache.retain(validator.getUrl()));
+        }
+        resultSpec.setPageValidatorList(validatorCache.toList());
+        latest.setResultSpec(toStoredSpec(config, resultSpec, resultSpec.getKeyframeName(), resultSpec.getDeltaIndex()).block());
+
+        phases.begin(RunPhases.Phase.PERSIST);
+        LinksHealthMonitorResult updated = client.update(latest)
+            .onErrorResume(error -> {
+                log.error("{}【{}】更新自定义模型的对象失败: {}", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR, error.getMessage(), error);
+                return Mono.empty();
+            })
+            .block();
+        if (updated == null) {
+            return false;
+        }
+        latestResultCache.put(updated, resultSpec);
+        return true;
+    }
+
+    /**
+     * 转换为保存的监测结果（启用增量存储时只保存相对关键帧变化的记录）
+     * 未启用增量存储或增量监测、超过关键帧间隔、关键帧不可用或者变化较多时保存完整的监测结果，作为新的关键帧
+     * 未启用增量监测时每个友链都会重新监测，监测时间和耗时都会变化，增量和完整的监测结果一样大
+     * @param config 插件配置
+     * @param full 完整的监测结果
+     * @param keyframeName 关键帧的name（为null时保存完整的监测结果）
+     * @param deltaIndex 关键帧之后的第几个监测结果
+     * @return 保存的监测结果
+     */
+    private Mono<LinksHealthMonitorResult.ResultSpec> toStoredSpec(LinksHealthMonitorConfig config, LinksHealthMonitorResult.ResultSpec full,
+        String keyframeName, int deltaIndex) {
+        full.setKeyframeName(null);
+        full.setDeltaIndex(0);
+        full.setRemovedLinkNames(null);
+        full.setRemovedNoMonitorLinkNames(null);
+        full.setRemovedPageValidatorUrls(null);
+        if (!config.isDeltaStorageEnable() || !config.isIncrementalCheckEnable() || keyframeName == null
+            || deltaIndex >= getPractialKeyframeInterval(config)) {
+            return Mono.just(full);
+        }
+
+        return service.getResult(keyframeName)
+            .map(keyframe -> {
+                LinksHealthMonitorResult.ResultSpec keyframeSpec = keyframe.getResultSpec();
+                if (keyframeSpec == null || keyframeSpec.getKeyframeName() != null
+                    || !StringUtils.equals(keyframeSpec.getOurUrl(), full.getOurUrl())) {
+                    return full;
+                }
+
+                LinksHealthMonitorResult.ResultSpec delta = ResultDelta.encode(keyframeSpec, full);
+                // 变化超过一半时增量不再划算
+                if (ResultDelta.sizeOf(delta) * 2 > ResultDelta.recordCountOf(full)) {
+                    return full;
+                }
+                delta.setKeyframeName(keyframeName);
+                delta.setDeltaIndex(deltaIndex);
+                return delta;
+            })
+            .defaultIfEmpty(full);
+    }
+
+    /**
+     * 获取可以合并监测记录的最新监测结果
+     * @return 最新的监测结果（还没有监测结果、增量的关键帧不存在或者本站地址变更时为null）
+     */
+    private LinksHealthMonitorResult getMergeableResult() {
+        LinksHealthMonitorResult latest = service.getLatestResult().block();
+        LinksHealthMonitorResult.ResultSpec resultSpec = latest == null ? null : latest.getResultSpec();
+        String normalizeUrl = LinksHealthMonitorUtils.normalizeUrl(service.getExternalUrl());
+        if (resultSpec == null || StringUtils.isBlank(normalizeUrl) || !normalizeUrl.equals(resultSpec.getOurUrl())) {
+            return null;
+        }
+        return latest;
+    }
+
+    /**
+     * 创建单次监测的上下文
      *
      * @param externalUrl 本站外部地址
-     * @param recordList 友链监测记录
-     * @param nomonitorRecordList 无需友链监测记录
+     * @param config 插件配置
+     * @param validatorCache 友链页面的条件请求缓存
+     * @param incrementalPlan 增量监测（为null时全部重新监测）
+     * @param previousRecords 上一次的友链监测记录（可以为null）
+     * @param groupDisplayNames 所有分组的displayName（每次监测只查询一次）
+     * @param phases 本次监测各阶段的耗时
+     * @return 单次监测的上下文
      */
-    private void linkHealthCheck(String externalUrl, List<LinksHealthMonitorResult.LinkHealthMonitorRecord> recordList,
-        List<LinksHealthMonitorResult.NoMonitorRecord> nomonitorRecordList) {
+    private CheckRun newCheckRun(String externalUrl, LinksHealthMonitorConfig config, PageValidatorCache validatorCache,
+        IncrementalCheckPlan incrementalPlan, List<LinksHealthMonitorResult.LinkHealthMonitorRecord> previousRecords,
+        Map<String, String> groupDisplayNames, RunPhases phases) {
+
+        // 本站外部地址（标准化）
+        String ourUrl = LinksHealthMonitorUtils.normalizeUrl(externalUrl);
+
+        // 外部请求限流（插件内所有监测共用）
+        HostRateLimiter limiter = sharedHttpClient.limiter(getPractialPerHostConcurrency(config), getPractialRequestsPerSecond(config),
+            getPractialMaxConnections(config));
+
+        // 本次监测的网络监测（通过插件共用的HTTP客户端发出请求）
+        LinkProber prober = new LinkProber(sharedHttpClient.get(isHttp2Enable(config)), limiter, monitorMetrics);
 
+        // 本次监测的页面获取上下文（同一地址只请求一次，友链页面发送条件请求）
+        SiteFetchContext siteFetchContext = new SiteFetchContext((url, scanBacklink) -> (scanBacklink
+            ? prober.fetchSite(url, ourUrl, validatorCache)
+            : prober.fetchSite(url, null, null)).toFuture());
+
+        // 友链的name -> 上一次的监测记录（计算连续正常的次数）
+        Map<String, LinksHealthMonitorResult.LinkHealthMonitorRecord> previousRecordMap = new HashMap<>();
+        if (previousRecords != null) {
+            previousRecords.stream()
+                .filter(record -> record != null && record.getLinkName() != null)
+                .forEach(record -> previousRecordMap.put(record.getLinkName(), record));
+        }
+
+        return new CheckRun(ourUrl, prober, siteFetchContext, groupDisplayNames, incrementalPlan, previousRecordMap, phases);
+    }
+
+    /**
+     * 友链监测（虚拟线程并发监测）
+     *
+     * @param concurrency 监测并发数
+     * @param run 本次监测的上下文
+     * @return 监测结果
+     */
+    private List<LinkCheckOutcome> concurrentLinkHealthCheck(int concurrency, CheckRun run) {
         // 查询所有的友链
+        run.phases().begin(RunPhases.Phase.LIST_LINKS);
         List<Link> allLinks = service.getAllLinks();
+        run.phases().begin(RunPhases.Phase.PROBE);
 
-        log.info("{}【{}】友链监测中，友链总数：【{}】", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR, allLinks.size());
+        log.info("{}【{}】友链监测中，友链总数：【{}】，并发数：【{}】", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR, allLinks.size(), concurrency);
 
-        for (Link link : allLinks) {
+        // 并发监测，结果顺序与友链顺序一致
+        RunProgress.Tracker tracker = runProgress.start(RunProgress.RunType.FULL, allLinks.size());
+        try {
+            return new ConcurrentCheckEngine(concurrency)
+                .checkAll(allLinks, link -> checkLinkWithProgress(link, run, tracker));
+        } finally {
+            tracker.finish();
+        }
+    }
 
-            // Link的元数据
-            MetadataOperator metadata = link.getMetadata();
-            // 获取友链的url
-            String metaName = metadata.getName();
-            // 友链自定义对象的LinkSpec（Link的表单数据）
-            Link.LinkSpec spec = link.getSpec();
-            if (StringUtils.isBlank(metaName) || spec == null) {
-                continue;
-            }
+    /**
+     * 友链监测（响应式监测）
+     *
+     * @param concurrency 监测并发数
+     * @param allLinks 所有的友链
+     * @param run 本次监测的上下文
+     * @return 监测结果，顺序与友链顺序一致
+     */
+    private Mono<List<LinkCheckOutcome>> reactiveLinkHealthCheck(int concurrency, List<Link> allLinks, CheckRun run) {
+        run.phases().begin(RunPhases.Phase.PROBE);
+        log.info("{}【{}】友链监测中（响应式），友链总数：【{}】，并发数：【{}】", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR,
+            allLinks.size(), concurrency);
 
-            // 给Link表单增加的元数据
-            LinkMetadataAnnotations annotations = fromMap(metadata.getAnnotations());
-
-            // 监测记录
-            LinksHealthMonitorResult.LinkHealthMonitorRecord checkRecord = new LinksHealthMonitorResult.LinkHealthMonitorRecord();
-
-            // 记录友链基本信息
-            checkRecord.setLinkName(metaName);
-            // 标准化后的友链url
-            String url = LinksHealthMonitorUtils.normalizeUrl(spec.getUrl());
-            // 虽然新建链接时url就是必须的，也做判空处理（防御性编程，因为模型数据在Data Studio里可以修改）
-            if (StringUtils.isBlank(url)) continue;
-
-            checkRecord.setLinkUrl(url);
-            String displayName = spec.getDisplayName();
-            checkRecord.setLinkDisplayName(displayName);
-            String logo = spec.getLogo();
-            checkRecord.setLinkLogo(logo);
-            // 分组
-            String groupName = spec.getGroupName();
-            checkRecord.setLinkGroup(groupName);
-            checkRecord.setLinkGroupDisplayName(service.getGroupDisplayNameByName(groupName));
-
-            // 是否启用友链健康监测
-            if (!annotations.isEnableFriendLinkHealthMonitor()) {
-                // 无需监测友链数据
-                LinksHealthMonitorResult.NoMonitorRecord noMonitorRecord = new LinksHealthMonitorResult.NoMonitorRecord();
-                BeanUtils.copyProperties(checkRecord, noMonitorRecord);
-                nomonitorRecordList.add(noMonitorRecord);
-                // 跳出循环
-                continue;
-            }
+        RunProgress.Tracker tracker = runProgress.start(RunProgress.RunType.FULL, allLinks.size());
+        return Flux.fromIterable(allLinks)
+            // flatMapSequential：并发监测，但按友链顺序输出结果
+            .flatMapSequential(link -> {
+                AtomicBoolean failed = new AtomicBoolean();
+                return checkLinkReactive(link, run)
+                    .onErrorResume(error -> {
+                        log.error("{}【{}】单个友链监测失败: {}", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR, error.getMessage(), error);
+                        failed.set(true);
+                        return Mono.empty();
+                    })
+                    .doOnSuccess(outcome -> reportProgress(tracker, link, outcome, failed.get()))
+                    .doFirst(monitorMetrics::checkStarted)
+                    .doFinally(signal -> monitorMetrics.checkFinished());
+            }, concurrency)
+            // 在监测结束的信号传给下游之前推送（doFinally在整个流程结束后才执行）
+            .doOnTerminate(tracker::finish)
+            .doOnCancel(tracker::finish)
+            .collectList();
+    }
+
+    /**
+     * 监测单个友链，完成后推送监测进度
+     *
+     * @param link 友链
+     * @param run 本次监测的上下文
+     * @param tracker 本次监测的进度
+     * @return 监测结果（友链数据无效时为null）
+     */
+    private LinkCheckOutcome checkLinkWithProgress(Link link, CheckRun run, RunProgress.Tracker tracker) {
+        LinkCheckOutcome outcome = null;
+        boolean failed = true;
+        monitorMetrics.checkStarted();
+        try {
+            // 在虚拟线程中等待响应式监测的结果（两种监测方式共用同一份单个友链的监测逻辑）
+            outcome = checkLinkReactive(link, run).block();
+            failed = false;
+            return outcome;
+        } finally {
+            monitorMetrics.checkFinished();
+            reportProgress(tracker, link, outcome, failed);
+        }
+    }
+
+    /**
+     * 推送单个友链的监测进度
+     *
+     * @param tracker 本次监测的进度
+     * @param link 友链
+     * @param outcome 监测结果（可以为null）
+     * @param failed 是否监测失败
+     */
+    private void reportProgress(RunProgress.Tracker tracker, Link link, LinkCheckOutcome outcome, boolean failed) {
+        LinksHealthMonitorResult.LinkHealthMonitorRecord record = outcome == null ? null : outcome.getRecord();
+        String displayName = record != null ? record.getLinkDisplayName()
+            : outcome != null && outcome.getNoMonitorRecord() != null ? outcome.getNoMonitorRecord().getLinkDisplayName()
+            : null;
+        tracker.linkChecked(link.getMetadata().getName(), displayName,
+            record == null ? null : IncrementalCheckPlan.isHealthy(record), failed);
+    }
+
+    /**
+     * 监测单个友链（响应式，虚拟线程并发监测时在虚拟线程中等待结果）
+     *
+     * @param link 友链
+     * @param run 本次监测的上下文
+     * @return 监测结果（友链数据无效时为空）
+     */
+    private Mono<LinkCheckOutcome> checkLinkReactive(Link link, CheckRun run) {
+        // 本站外部地址（标准化）
+        String ourUrl = run.ourUrl();
+        // 网络监测
+        LinkProber prober = run.prober();
+        // 页面获取上下文
+        SiteFetchContext siteFetchContext = run.siteFetchContext();
+
+        // 监测记录
+        LinksHealthMonitorResult.LinkHealthMonitorRecord checkRecord = newCheckRecord(link);
+        if (checkRecord == null) {
+            return Mono.empty();
+        }
+
+        // 给Link表单增加的元数据
+        LinkMetadataAnnotations annotations = fromMap(link.getMetadata().getAnnotations());
+
+        // 分组名称（查表）
+        checkRecord.setLinkGroupDisplayName(run.groupDisplayNames().get(checkRecord.getLinkGroup()));
+
+        // 是否启用友链健康监测
+        if (!annotations.isEnableFriendLinkHealthMonitor()) {
+            // 无需监测友链数据
+            return Mono.just(noMonitorOutcome(checkRecord));
+        }
+
+        // 增量监测：友链未修改、上次监测正常且记录未过期时沿用上次的记录
+        LinkCheckOutcome carried = carriedOutcome(run.incrementalPlan(), checkRecord, annotations.getFriendLinkUrl());
+        if (carried != null) {
+            return Mono.just(carried);
+        }
+
+        long startNanos = System.nanoTime();
+        String url = checkRecord.getLinkUrl();
+        String logo = checkRecord.getLinkLogo();
+        String friendLinkUrl = annotations.getFriendLinkUrl();
+        String friendLinkPageUrl = LinksHealthMonitorUtils.normalizeUrl(friendLinkUrl);
+        // 友链页面就是网站首页时，读取网站页面时同时扫描本站友链，供友链页面的监测复用；否则只读取到标题
+        boolean siteScanBacklink = StringUtils.isNotBlank(ourUrl) && url.equals(friendLinkPageUrl);
 
-            // 功能监测
-            // 网站是否可以打开
-            boolean websiteAccessible = LinksHealthMonitorUtils.isUrlAccessible(url);
+        // 功能监测
+        // 网站是否可以打开（网站页面只请求一次，后续监测复用；共享的请求不随单个友链取消）
+        return Mono.fromFuture(siteFetchContext.fetch(url, siteScanBacklink), true).flatMap(site -> {
+            boolean websiteAccessible = site.isAccessible();
             checkRecord.setWebsiteAccessible(websiteAccessible);
+            checkRecord.setSiteTiming(site.getTiming());
+            // 友链网站不可访问时，后续逻辑不再执行
+            if (!websiteAccessible) {
+                return Mono.just(checkedOutcome(run, checkRecord, startNanos));
+            }
 
-            if (websiteAccessible) {
-                // 网站logo是否可以访问
-                if (StringUtils.isNotBlank(logo)) {
-                    checkRecord.setLogoAccessible(LinksHealthMonitorUtils.isUrlAccessible(logo));
-                } else {
-                    checkRecord.setLogoAccessible(false);
-                }
-                // 网站名称是否有变更
-                LinksHealthMonitorUtils.isDisplayNameChanged(url, displayName, checkRecord);
-                // 网站是否包含本站友链
-                LinksHealthMonitorUtils.isContainsOurLink(LinksHealthMonitorUtils.normalizeUrl(externalUrl), annotations.getFriendLinkUrl(), checkRecord);
-            } else {
-                // 友链网站不可访问时，后续逻辑不再执行
+            // 网站名称是否有变更
+            LinksHealthMonitorUtils.isDisplayNameChanged(site, checkRecord.getLinkDisplayName(), checkRecord);
+            // 网站logo是否可以访问
+            ProbeTimer logoTimer = new ProbeTimer();
+            Mono<Boolean> logoAccessible = StringUtils.isNotBlank(logo)
+                ? prober.isLogoAccessible(logo, logoTimer).doOnNext(accessible -> checkRecord.setLogoTiming(logoTimer.toTiming()))
+                : Mono.just(false);
+            // 网站是否包含本站友链（友链页面就是网站首页时复用网站页面）
+            Mono<Void> containsOurLink = Mono.empty();
+            if (StringUtils.isNoneBlank(ourUrl, friendLinkPageUrl)) {
+                containsOurLink = Mono.fromFuture(siteFetchContext.fetch(friendLinkPageUrl, true), true)
+                    .doOnNext(friendLinkPage -> {
+                        LinksHealthMonitorUtils.isContainsOurLink(ourUrl, friendLinkUrl, friendLinkPage, checkRecord);
+                        checkRecord.setFriendLinkPageTiming(friendLinkPage.getTiming());
+                    })
+                    .then();
             }
 
-            recordList.add(checkRecord);
+            // 两项监测同时进行
+            return Mono.when(
+                    logoAccessible.doOnNext(checkRecord::setLogoAccessible),
+                    containsOurLink
+                )
+                .then(Mono.fromSupplier(() -> checkedOutcome(run, checkRecord, startNanos)));
+        });
+    }
+
+    /**
+     * 根据友链创建监测记录（仅包含友链基本信息）
+     *
+     * @param link 友链
+     * @return 监测记录（友链数据无效时为null）
+     */
+    private LinksHealthMonitorResult.LinkHealthMonitorRecord newCheckRecord(Link link) {
+
+        // Link的元数据
+        MetadataOperator metadata = link.getMetadata();
+        // 获取友链的url
+        String metaName = metadata.getName();
+        // 友链自定义对象的LinkSpec（Link的表单数据）
+        Link.LinkSpec spec = link.getSpec();
+        if (StringUtils.isBlank(metaName) || spec == null) {
+            return null;
+        }
+
+        // 监测记录
+        LinksHealthMonitorResult.LinkHealthMonitorRecord checkRecord = new LinksHealthMonitorResult.LinkHealthMonitorRecord();
+
+        // 记录友链基本信息
+        checkRecord.setLinkName(metaName);
+        // 标准化后的友链url
+        String url = LinksHealthMonitorUtils.normalizeUrl(spec.getUrl());
+        // 虽然新建链接时url就是必须的，也做判空处理（防御性编程，因为模型数据在Data Studio里可以修改）
+        if (StringUtils.isBlank(url)) return null;
+
+        checkRecord.setLinkUrl(url);
+        checkRecord.setLinkDisplayName(spec.getDisplayName());
+        checkRecord.setLinkLogo(spec.getLogo());
+        // 分组
+        checkRecord.setLinkGroup(spec.getGroupName());
+        // 增量监测
+        checkRecord.setLinkVersion(metadata.getVersion());
+        // 友链变更
+        checkRecord.setLinkFingerprint(LinksHealthMonitorUtils.fingerprintOf(link));
+        checkRecord.setLastCheckedAt(Instant.now());
+        return checkRecord;
+    }
+
+    /**
+     * 监测完成的监测结果（记录连续正常的次数和监测耗时）
+     *
+     * @param run 本次监测的上下文
+     * @param checkRecord 监测记录
+     * @param startNanos 开始网络监测的时间
+     * @return 监测结果
+     */
+    private static LinkCheckOutcome checkedOutcome(CheckRun run, LinksHealthMonitorResult.LinkHealthMonitorRecord checkRecord,
+        long startNanos) {
+        run.phases().linkChecked(checkRecord.getLinkUrl(), System.nanoTime() - startNanos);
+        checkRecord.setHealthyStreak(IncrementalCheckPlan.nextHealthyStreak(run.previousRecords().get(checkRecord.getLinkName()), checkRecord));
+        return new LinkCheckOutcome(checkRecord, null);
+    }
+
+    /**
+     * 增量监测时沿用上次的监测记录
+     *
+     * @param incrementalPlan 增量监测（为null时全部重新监测）
+     * @param checkRecord 监测记录（仅包含友链基本信息）
+     * @param friendLinkUrl 友链页面地址
+     * @return 监测结果（需要重新监测时为null）
+     */
+    private static LinkCheckOutcome carriedOutcome(IncrementalCheckPlan incrementalPlan,
+        LinksHealthMonitorResult.LinkHealthMonitorRecord checkRecord, String friendLinkUrl) {
+        if (incrementalPlan == null) {
+            return null;
+        }
+
+        LinksHealthMonitorResult.LinkHealthMonitorRecord carried = incrementalPlan.carryForward(checkRecord, friendLinkUrl);
+        return carried == null ? null : new LinkCheckOutcome(carried, null);
+    }
+
+    /**
+     * 无需监测友链的监测结果
+     *
+     * @param checkRecord 监测记录（仅包含友链基本信息）
+     * @return 监测结果
+     */
+    private static LinkCheckOutcome noMonitorOutcome(LinksHealthMonitorResult.LinkHealthMonitorRecord checkRecord) {
+        LinksHealthMonitorResult.NoMonitorRecord noMonitorRecord = new LinksHealthMonitorResult.NoMonitorRecord();
+        BeanUtils.copyProperties(checkRecord, noMonitorRecord);
+        return new LinkCheckOutcome(null, noMonitorRecord);
+    }
+
+    /**
+     * 获取实际的监测并发数
+     * @param config 插件配置
+     * @return 监测并发数
+     */
+    private int getPractialConcurrency(LinksHealthMonitorConfig config) {
+        Integer concurrency = config.getCheckConcurrency();
+        if (concurrency == null || concurrency < 1) {
+            return DEFAULT_CHECK_CONCURRENCY;
+        }
+
+        return Math.min(concurrency, MAX_CHECK_CONCURRENCY);
+    }
+
+    /**
+     * 获取实际的同一主机并发上限
+     * @param config 插件配置
+     * @return 同一主机并发上限
+     */
+    private int getPractialPerHostConcurrency(LinksHealthMonitorConfig config) {
+        Integer perHostConcurrency = config.getPerHostConcurrency();
+        if (perHostConcurrency == null || perHostConcurrency < 1) {
+            return DEFAULT_PER_HOST_CONCURRENCY;
+        }
+
+        return perHostConcurrency;
+    }
+
+    /**
+     * 获取实际的全局每秒请求数（0表示不限制）
+     * @param config 插件配置
+     * @return 全局每秒请求数
+     */
+    private int getPractialRequestsPerSecond(LinksHealthMonitorConfig config) {
+        Integer requestsPerSecond = config.getRequestsPerSecond();
+        if (requestsPerSecond == null || requestsPerSecond < 0) {
+            return DEFAULT_REQUESTS_PER_SECOND;
+        }
+
+        return requestsPerSecond;
+    }
+
+    /**
+     * 获取实际的同时打开的连接数上限
+     * @param config 插件配置
+     * @return 同时打开的连接数上限
+     */
+    private int getPractialMaxConnections(LinksHealthMonitorConfig config) {
+        Integer maxConnections = config.getMaxConnections();
+        if (maxConnections == null || maxConnections < 1) {
+            return DEFAULT_MAX_CONNECTIONS;
+        }
+
+        return maxConnections;
+    }
+
+    /**
+     * 获取实际的增量监测记录有效期（分钟）
+     * @param config 插件配置
+     * @return 监测记录有效期（分钟）
+     */
+    private int getPractialIncrementalStaleMinutes(LinksHealthMonitorConfig config) {
+        Integer staleMinutes = config.getIncrementalStaleMinutes();
+        if (staleMinutes == null || staleMinutes < 1) {
+            return DEFAULT_INCREMENTAL_STALE_MINUTES;
+        }
+
+        return staleMinutes;
+    }
+
+    /**
+     * 获取实际的自适应监测频率时监测记录有效期的上限（分钟）
+     * @param config 插件配置
+     * @return 监测记录有效期的上限（分钟）
+     */
+    private int getPractialAdaptiveMaxStaleMinutes(LinksHealthMonitorConfig config) {
+        Integer maxStaleMinutes = config.getAdaptiveMaxStaleMinutes();
+        if (maxStaleMinutes == null || maxStaleMinutes < 1) {
+            return DEFAULT_ADAPTIVE_MAX_STALE_MINUTES;
+        }
+
+        return maxStaleMinutes;
+    }
+
+    /**
+     * 获取实际的每小时请求预算（0表示不限制）
+     * @param config 插件配置
+     * @return 每小时请求预算
+     */
+    private int getPractialHourlyRequestBudget(LinksHealthMonitorConfig config) {
+        Integer hourlyRequestBudget = config.getHourlyRequestBudget();
+        if (hourlyRequestBudget == null || hourlyRequestBudget < 0) {
+            return 0;
+        }
+
+        return hourlyRequestBudget;
+    }
+
+    /**
+     * 获取实际的关键帧间隔
+     * @param config 插件配置
+     * @return 实际的关键帧间隔
+     */
+    private int getPractialKeyframeInterval(LinksHealthMonitorConfig config) {
+        Integer keyframeInterval = config.getKeyframeInterval();
+        if (keyframeInterval == null || keyframeInterval < 1) {
+            return DEFAULT_KEYFRAME_INTERVAL;
+        }
+
+        return keyframeInterval;
+    }
+
+    /**
+     * 获取实际的保留的监测结果数
+     * @param config 插件配置
+     * @return 实际的保留的监测结果数
+     */
+    private int getPractialResultRetentionCount(LinksHealthMonitorConfig config) {
+        Integer resultRetentionCount = config.getResultRetentionCount();
+        if (resultRetentionCount == null || resultRetentionCount < 1) {
+            return DEFAULT_RESULT_RETENTION_COUNT;
+        }
+
+        return resultRetentionCount;
+    }
+
+    /**
+     * 获取实际的每日汇总的保留天数（0表示不删除）
+     * @param config 插件配置
+     * @return 实际的每日汇总的保留天数
+     */
+    private int getPractialSummaryRetentionDays(LinksHealthMonitorConfig config) {
+        Integer summaryRetentionDays = config.getSummaryRetentionDays();
+        if (summaryRetentionDays == null || summaryRetentionDays < 0) {
+            return DEFAULT_SUMMARY_RETENTION_DAYS;
         }
+
+        return summaryRetentionDays;
+    }
+
+    /**
+     * 是否启用HTTP/2（未配置时默认启用）
+     * @param config 插件配置
+     * @return 是否启用HTTP/2
+     */
+    private boolean isHttp2Enable(LinksHealthMonitorConfig config) {
+        return !Boolean.FALSE.equals(config.getHttp2Enable());
     }
 
     /**
@@ -246,4 +1307,44 @@ public class LinksHealthMonitorTask {
 
         return DEFAULT_CRON;
     }
+
+    /**
+     * 单次监测的上下文（每次监测创建一个）
+     * @param ourUrl 本站外部地址（标准化）
+     * @param prober 网络监测
+     * @param siteFetchContext 页面获取上下文
+     * @param groupDisplayNames 分组的groupName -> 分组的displayName
+     * @param incrementalPlan 增量监测（为null时全部重新监测）
+     * @param previousRecords 友链的name -> 上一次的监测记录
+     * @param phases 本次监测各阶段的耗时
+     */
+    private record CheckRun(String ourUrl, LinkProber prober, SiteFetchContext siteFetchContext,
+        Map<String, String> groupDisplayNames, IncrementalCheckPlan incrementalPlan,
+        Map<String, LinksHealthMonitorResult.LinkHealthMonitorRecord> previousRecords, RunPhases phases) {
+    }
+
+    /**
+     * 分散监测的一个周期（每次执行任务创建一个）
+     * @param start 周期的开始时间
+     * @param period 本次到下次执行的间隔
+     * @param window 监测周期（间隔留出余量）
+     * @param slots 批次的开始偏移 -> 该批次的友链name
+     * @param linkCount 友链总数
+     * @param checkedSlots 已监测的批次数
+     */
+    private record SpreadCycle(Instant start, Duration period, Duration window, SortedMap<Duration, List<String>> slots,
+        int linkCount, AtomicInteger checkedSlots) {
+    }
+
+    /**
+     * 单个友链的监测结果（二者只有一个不为null）
+     */
+    @Getter
+    @AllArgsConstructor
+    private static class LinkCheckOutcome {
+        // 友链监测记录
+        private final LinksHealthMonitorResult.LinkHealthMonitorRecord record;
+        // 无需友链监测记录
+        private final LinksHealthMonitorResult.NoMonitorRecord noMonitorRecord;
+    }
 }
@@ -1,23 +1,27 @@
 package cool.tch.linkshealthmonitor.task;
 
+import cool.tch.linkshealthmonitor.extension.Link;
+import cool.tch.linkshealthmonitor.extension.LinkMetadataAnnotations;
 import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorResult;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
 import org.springframework.scheduling.support.CronExpression;
-import java.net.HttpURLConnection;
-import java.net.URI;
+import java.net.IDN;
+import java.nio.charset.Charset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.regex.Pattern;
 
 import static cool.tch.linkshealthmonitor.constant.Constant.CUSTOM_MODEL_METADATA_NAME_PREFIX;
-import static cool.tch.linkshealthmonitor.constant.Constant.HTTP_REQUEST_METHOD_GET;
-import static cool.tch.linkshealthmonitor.constant.Constant.HTTP_REQUEST_USER_AGENT;
-import static cool.tch.linkshealthmonitor.constant.Constant.HTTP_TIMEOUT_MS;
 import static cool.tch.linkshealthmonitor.constant.Constant.LOCAL_DATE_TIME_OUTPUT_FORMATTER;
 import static cool.tch.linkshealthmonitor.constant.Constant.PATH_SEPARATOR;
 
@@ -29,6 +33,9 @@ import static cool.tch.linkshealthmonitor.constant.Constant.PATH_SEPARATOR;
 @Slf4j
 public class LinksHealthMonitorUtils {
 
+    // 连续多个"/"
+    private static final Pattern SLASHES = Pattern.compile("/+");
+
     /**
      * 检查cron表达式
      * @param cronExpression
@@ -72,7 +79,7 @@ public class LinksHealthMonitorUtils {
         route = route.replace("\\", PATH_SEPARATOR);
 
         // 连续多个"/"替换成一个
-        route = route.replaceAll("/+", PATH_SEPARATOR);
+        route = SLASHES.matcher(route).replaceAll(PATH_SEPARATOR);
 
         return route;
     }
@@ -115,61 +122,56 @@ public class LinksHealthMonitorUtils {
     }
 
     /**
-     * 监测url是否可以访问
-     * @param url url
-     * @return url是否可以访问
+     * 从Content-Type中获取字符集
+     * @param contentType Content-Type
+     * @return 字符集（没有时为null，根据页面的meta检测）
      */
-    public static boolean isUrlAccessible(String url) {
-
-        try{
-            HttpURLConnection connection = (HttpURLConnection) URI.create(url).toURL().openConnection();
-            // 基础设置
-            connection.setRequestMethod(HTTP_REQUEST_METHOD_GET);
-            connection.setConnectTimeout(HTTP_TIMEOUT_MS);
-            connection.setReadTimeout(HTTP_TIMEOUT_MS);
-            // 自动跟随重定向
-            connection.setInstanceFollowRedirects(true);
-            // 完整的浏览器请求头（模拟Chrome最新版）
-            connection.setRequestProperty("User-Agent", "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/142.0.0.0 Safari/537.36");
-            connection.setRequestProperty("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,image/avif,image/webp,image/apng,*/*;q=0.8,application/signed-exchange;v=b3;q=0.7");
-            connection.setRequestProperty("Accept-Language", "zh-CN,zh;q=0.9");
-            connection.setRequestProperty("Accept-Encoding", "gzip, deflate, br, zstd");
-            connection.setRequestProperty("Cache-Control", "no-cache");
-            connection.setRequestProperty("Connection", "keep-alive");
-            connection.setRequestProperty("Upgrade-Insecure-Requests", "1");
-            connection.setRequestProperty("Sec-Fetch-Dest", "document");
-            connection.setRequestProperty("Sec-Fetch-Mode", "navigate");
-            connection.setRequestProperty("Sec-Fetch-Site", "same-origin");
-            connection.setRequestProperty("Sec-Fetch-User", "?1");
-            connection.setRequestProperty("referer", "https://tch.cool");
-            return connection.getResponseCode() == HttpURLConnection.HTTP_OK;
-        } catch (Exception e) {
-            return false;
+    public static String charsetOf(String contentType) {
+        if (StringUtils.isBlank(contentType)) {
+            return null;
+        }
+
+        for (String param : contentType.split(";")) {
+            String trimmed = param.trim();
+            if (trimmed.regionMatches(true, 0, "charset=", 0, 8)) {
+                String charset = trimmed.substring(8).replace("\"", "").trim();
+                try {
+                    return Charset.isSupported(charset) ? charset : null;
+                } catch (IllegalArgumentException e) {
+                    // 字符集名称不合法
+                    return null;
+                }
+            }
         }
+        return null;
     }
 
     /**
      * 监测网站名称是否有变更
      *
-     * @param url 网站url
+     * @param site 网站页面的请求结果
      * @param displayName 网站名称
      * @param checkRecord 监测记录
      */
-    public static void isDisplayNameChanged(String url, String displayName, LinksHealthMonitorResult.LinkHealthMonitorRecord checkRecord) {
-
-        try{
-            Document document = Jsoup
-                .connect(url)
-                .timeout(HTTP_TIMEOUT_MS)
-                .userAgent(HTTP_REQUEST_USER_AGENT)
-                .get();
-            String title = document.title();
-            checkRecord.setDisplayNameChanged(title.contains(displayName));
-            checkRecord.setLatestDisplayName(title);
-        } catch(Exception e) {
+    public static void isDisplayNameChanged(SiteResponse site, String displayName, LinksHealthMonitorResult.LinkHealthMonitorRecord checkRecord) {
+        if (site.getTitle() == null) {
             checkRecord.setDisplayNameChanged(false);
+            return;
         }
 
+        applyLatestTitle(site.getTitle(), displayName, checkRecord);
+    }
+
+    /**
+     * 根据网站的最新标题记录网站名称是否有变更
+     *
+     * @param title 网站的最新标题
+     * @param displayName 网站名称
+     * @param checkRecord 监测记录
+     */
+    public static void applyLatestTitle(String title, String displayName, LinksHealthMonitorResult.LinkHealthMonitorRecord checkRecord) {
+        checkRecord.setDisplayNameChanged(displayName != null && title.contains(displayName));
+        checkRecord.setLatestDisplayName(title);
     }
 
     /**
@@ -177,9 +179,11 @@ public class LinksHealthMonitorUtils {
      *
      * @param ourUrl 本站外部访问地址
      * @param friendLinkUrl 友链页面地址
+     * @param friendLinkPage 友链页面的请求结果
      * @param checkRecord 监测记录
      */
-    public static void isContainsOurLink(String ourUrl, String friendLinkUrl, LinksHealthMonitorResult.LinkHealthMonitorRecord checkRecord) {
+    public static void isContainsOurLink(String ourUrl, String friendLinkUrl, SiteResponse friendLinkPage,
+        LinksHealthMonitorResult.LinkHealthMonitorRecord checkRecord) {
         // 获取本站外部地址或者友链页面地址失败
         if (StringUtils.isBlank(ourUrl) || StringUtils.isBlank(friendLinkUrl)) {
             return;
@@ -188,42 +192,72 @@ public class LinksHealthMonitorUtils {
         // 友链页面路由
         checkRecord.setFriendLinkRoute(friendLinkUrl);
 
+        // 访问友链页面失败
+        if (friendLinkPage.getContainsOurLink() == null) {
+            return;
+        }
+
         // 是否包含本站友链
-        try{
-            Document document = Jsoup
-                .connect(friendLinkUrl)
-                .timeout(HTTP_TIMEOUT_MS)
-                .userAgent(HTTP_REQUEST_USER_AGENT)
-                .get();
-
-            // <a>标签
-            Elements hrefLinks = document.select("a[href]");
-            for (Element link : hrefLinks) {
-                if (link.attr("abs:href").equals(ourUrl)) {
-                    checkRecord.setContainsOurLink(true);
-                    break;
-                }
-            }
+        checkRecord.setContainsOurLink(friendLinkPage.getContainsOurLink());
+    }
 
-            // <input>标签
-            if (!checkRecord.isContainsOurLink()) {
-                Elements selectLinks = document.select("input[type=submit]");
-                for (Element link : selectLinks) {
-                    if (link.val().equals(ourUrl)) {
-                        checkRecord.setContainsOurLink(true);
-                        break;
-                    }
+    /**
+     * 合并监测记录（按友链name替换，保持原有顺序；新的记录追加在最后，没有新记录的友链被移除）
+     * @param previous 原有的记录（可以为null）
+     * @param nameOf 获取记录的友链name
+     * @param linkNames 本次监测的友链name
+     * @param updated 友链name -> 本次的记录
+     * @return 合并后的记录
+     */
+    public static <T> List<T> mergeByLinkName(List<T> previous, Function<T, String> nameOf, Collection<String> linkNames,
+        Map<String, T> updated) {
+        List<T> merged = new ArrayList<>();
+        Set<String> added = new HashSet<>();
+        if (previous != null) {
+            for (T item : previous) {
+                String name = nameOf.apply(item);
+                // 不是本次监测的友链，保持不变
+                if (!linkNames.contains(name)) {
+                    merged.add(item);
+                    continue;
+                }
+                T replacement = updated.get(name);
+                if (replacement != null && added.add(name)) {
+                    merged.add(replacement);
                 }
             }
-        } catch (Exception e) {
-            // 访问友链页面失败
         }
+
+        updated.forEach((name, item) -> {
+            if (added.add(name)) {
+                merged.add(item);
+            }
+        });
+        return merged;
     }
 
     /**
-     * 标准化url
-     * @param url
-     * @return
+     * 影响监测的友链数据（地址、logo、网站名称、分组、是否监测和友链页面），随监测记录保存，友链变更时比较
+     * @param link 友链
+     * @return 影响监测的友链数据
+     */
+    public static String fingerprintOf(Link link) {
+        Link.LinkSpec spec = link.getSpec();
+        LinkMetadataAnnotations annotations = LinkMetadataAnnotations.fromMap(link.getMetadata().getAnnotations());
+        boolean enabled = annotations.isEnableFriendLinkHealthMonitor();
+        return StringUtils.defaultString(normalizeUrl(spec.getUrl())) + "\n" + StringUtils.defaultString(spec.getLogo()) + "\n"
+            + StringUtils.defaultString(spec.getDisplayName()) + "\n" + StringUtils.defaultString(spec.getGroupName()) + "\n"
+            + enabled + "\n" + (enabled ? StringUtils.defaultString(annotations.getFriendLinkUrl()) : "");
+    }
+
+    /**
+     * 标准化url（一次遍历，已经是标准格式时返回原字符串）
+     * 1. 反斜杠视为"/"，路径中连续多个"/"合并为一个，协议后统一为"//"
+     * 2. 协议、主机名转小写，国际化域名转为ASCII（punycode），去掉默认端口（http的80、https的443）
+     * 3. 没有查询参数和锚点时删除末尾的"/"，根路径"/"转成""
+     * 查询参数和锚点原样保留（不删除其中末尾的"/"，标准化后的url再次标准化时不变）
+     * @param url url
+     * @return 标准化后的url（为空时原样返回）
      */
     public static String normalizeUrl(String url) {
 
@@ -232,28 +266,244 @@ public class LinksHealthMonitorUtils {
             return url;
         }
 
-        // 把所有的"\"转换成"/"，后续所有逻辑都基于"/"处理
-        url = url.replace("\\", PATH_SEPARATOR);
+        // 已经是标准格式（大多数情况）
+        if (isNormalized(url)) {
+            return url;
+        }
 
-        // 连续多个"/"替换成一个
-        url = url.replaceAll("/+", PATH_SEPARATOR);
+        int length = url.length();
+        StringBuilder normalized = new StringBuilder(length);
+        int index = 0;
+
+        // 协议（后面紧跟"/"时才认为是协议，例如"localhost:8080/links"不是）
+        int schemeEnd = schemeEndOf(url);
+        if (schemeEnd > 0) {
+            for (int i = 0; i < schemeEnd; i++) {
+                normalized.append(toLowerCase(url.charAt(i)));
+            }
+            normalized.append("://");
+            index = schemeEnd + 1;
+            while (index < length && isSlash(url.charAt(index))) {
+                index++;
+            }
+            index = appendAuthority(url, index, defaultPortOf(url, schemeEnd), normalized);
+        }
+
+        // 路径（合并连续的"/"），遇到查询参数或锚点后原样保留
+        boolean lastSlash = false;
+        for (; index < length; index++) {
+            char c = url.charAt(index);
+            if (c == '?' || c == '#') {
+                normalized.append(url, index, length);
+                return normalized.toString();
+            }
+            if (isSlash(c)) {
+                if (!lastSlash) {
+                    normalized.append('/');
+                }
+                lastSlash = true;
+            } else {
+                normalized.append(c);
+                lastSlash = false;
+            }
+        }
+
+        // 没有查询参数和锚点时删除末尾"/"（如果是根路径"/"时转成""，后续会有空的判断）
+        int normalizedLength = normalized.length();
+        if (normalizedLength > 0 && normalized.charAt(normalizedLength - 1) == '/') {
+            normalized.setLength(normalizedLength == 1 ? 0 : normalizedLength - 1);
+        }
+
+        return normalized.toString();
+    }
+
+    /**
+     * 是否已经是标准格式（只检查不复制，规则与标准化相同）
+     * @param url url（不为空）
+     * @return 是否已经是标准格式
+     */
+    private static boolean isNormalized(String url) {
+        int length = url.length();
+        int index = 0;
+        int schemeEnd = schemeEndOf(url);
+        if (schemeEnd > 0) {
+            for (int i = 0; i < schemeEnd; i++) {
+                if (isAsciiUpperCase(url.charAt(i))) {
+                    return false;
+                }
+            }
+            // 协议后是"//"
+            index = schemeEnd + 3;
+            if (index >= length || url.charAt(index - 2) != '/' || url.charAt(index - 1) != '/' || isSlash(url.charAt(index))) {
+                return false;
+            }
+
+            int end = authorityEndOf(url, index);
+            int hostStart = Math.max(url.lastIndexOf('@', end - 1) + 1, index);
+            int portStart = portStartOf(url, hostStart, end);
+            for (int i = hostStart; i < portStart; i++) {
+                char c = url.charAt(i);
+                if (c >= 0x80 || isAsciiUpperCase(c)) {
+                    return false;
+                }
+            }
+            if (portStart < end) {
+                String defaultPort = defaultPortOf(url, schemeEnd);
+                if (portStart + 1 == end
+                    || (defaultPort != null && end - portStart == defaultPort.length() && url.startsWith(defaultPort, portStart))) {
+                    return false;
+                }
+            }
+            index = end;
+        }
+
+        // 路径中没有"\"和连续的"/"，没有查询参数和锚点时末尾不是"/"
+        boolean lastSlash = false;
+        for (; index < length; index++) {
+            char c = url.charAt(index);
+            if (c == '?' || c == '#') {
+                return true;
+            }
+            if (c == '\\' || (c == '/' && lastSlash)) {
+                return false;
+            }
+            lastSlash = c == '/';
+        }
+        return !lastSlash;
+    }
+
+    /**
+     * 协议的结束位置（":"的下标）
+     * @return 没有协议时为-1
+     */
+    private static int schemeEndOf(String url) {
+        int length = url.length();
+        if (!isAsciiLetter(url.charAt(0))) {
+            return -1;
+        }
+        for (int i = 1; i < length; i++) {
+            char c = url.charAt(i);
+            if (c == ':') {
+                return i + 1 < length && isSlash(url.charAt(i + 1)) ? i : -1;
+            }
+            if (!isAsciiLetter(c) && !(c >= '0' && c <= '9') && c != '+' && c != '-' && c != '.') {
+                return -1;
+            }
+        }
+        return -1;
+    }
 
-        // https:/ -> https://
-        url = url.replace("https:/", "https://");
+    /**
+     * 追加标准化的主机名和端口（用户信息原样保留）
+     * @param url url
+     * @param start 主机部分的开始位置
+     * @param defaultPort 协议的默认端口（含":"，没有时为null）
+     * @param normalized 追加的目标
+     * @return 主机部分的结束位置
+     */
+    private static int appendAuthority(String url, int start, String defaultPort, StringBuilder normalized) {
+        int end = authorityEndOf(url, start);
+
+        // 用户信息
+        int hostStart = url.lastIndexOf('@', end - 1) + 1;
+        if (hostStart > start) {
+            normalized.append(url, start, hostStart);
+        } else {
+            hostStart = start;
+        }
 
-        // http:/ -> http://
-        url = url.replace("http:/", "http://");
+        int portStart = portStartOf(url, hostStart, end);
 
-        // 删除末尾"/"
-        if (url.length() > 1 && url.endsWith(PATH_SEPARATOR)) {
-            url = url.substring(0, url.length() - 1);
+        boolean ascii = true;
+        for (int i = hostStart; i < portStart; i++) {
+            if (url.charAt(i) >= 0x80) {
+                ascii = false;
+                break;
+            }
+        }
+        if (ascii) {
+            for (int i = hostStart; i < portStart; i++) {
+                normalized.append(toLowerCase(url.charAt(i)));
+            }
+        } else {
+            normalized.append(toAsciiHost(url.substring(hostStart, portStart)));
         }
 
-        // 如果是根路径"/"时转成""，后续会有空的判断
-        if (PATH_SEPARATOR.equals(url)) {
-            url = "";
+        // 去掉默认端口和空端口
+        if (portStart < end) {
+            boolean omitted = portStart + 1 == end
+                || (defaultPort != null && end - portStart == defaultPort.length() && url.startsWith(defaultPort, portStart));
+            if (!omitted) {
+                normalized.append(url, portStart, end);
+            }
         }
+        return end;
+    }
+
+    /**
+     * 主机部分的结束位置（路径、查询参数或锚点开始的位置）
+     */
+    private static int authorityEndOf(String url, int start) {
+        int length = url.length();
+        int end = start;
+        while (end < length && !isSlash(url.charAt(end)) && url.charAt(end) != '?' && url.charAt(end) != '#') {
+            end++;
+        }
+        return end;
+    }
+
+    /**
+     * 端口的开始位置（":"的下标，IPv6地址中的":"不是端口）
+     * @return 没有端口时为主机部分的结束位置
+     */
+    private static int portStartOf(String url, int hostStart, int end) {
+        int portStart = url.lastIndexOf(':', end - 1);
+        if (portStart < hostStart || url.lastIndexOf(']', end - 1) > portStart) {
+            return end;
+        }
+        return portStart;
+    }
+
+    /**
+     * 协议的默认端口
+     * @param url url
+     * @param schemeEnd 协议的结束位置
+     * @return 默认端口（含":"，不是http、https时为null）
+     */
+    private static String defaultPortOf(String url, int schemeEnd) {
+        if (schemeEnd == 4 && url.regionMatches(true, 0, "http", 0, 4)) {
+            return ":80";
+        }
+        if (schemeEnd == 5 && url.regionMatches(true, 0, "https", 0, 5)) {
+            return ":443";
+        }
+        return null;
+    }
+
+    /**
+     * 国际化域名转为ASCII（转换失败时原样返回，交给后续请求处理）
+     */
+    private static String toAsciiHost(String host) {
+        try {
+            return IDN.toASCII(host, IDN.ALLOW_UNASSIGNED).toLowerCase(Locale.ROOT);
+        } catch (IllegalArgumentException e) {
+            return host;
+        }
+    }
+
+    private static boolean isSlash(char c) {
+        return c == '/' || c == '\\';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isAsciiUpperCase(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
 
-        return url;
+    private static char toLowerCase(char c) {
+        return isAsciiUpperCase(c) ? (char) (c + ('a' - 'A')) : c;
     }
 }
@@ -0,0 +1,186 @@
+package cool.tch.linkshealthmonitor.task;
+
+import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/19 16:00
+ * @Desc 监测流程的指标（注册到Halo的MeterRegistry，供Prometheus采集）
+ * 监测时长、每种请求的耗时分布、按原因统计的请求结果、正在监测的友链数、等待限流许可的请求数、下载的字节数
+ * 插件停止时移除注册的指标
+ */
+@Component
+public class MonitorMetrics {
+
+    // 指标名前缀
+    private static final String PREFIX = "links.health.monitor.";
+
+    // 请求成功（状态码不是4xx、5xx）
+    static final String OUTCOME_SUCCESS = "success";
+
+    private final MeterRegistry registry;
+
+    // 注册的指标（插件停止时移除）
+    private final List<Meter> meters = new CopyOnWriteArrayList<>();
+
+    // 正在监测的友链数
+    private final AtomicInteger inFlightChecks = new AtomicInteger();
+
+    // 等待限流许可的请求数
+    private final AtomicInteger queuedRequests = new AtomicInteger();
+
+    /**
+     * @param registryProvider Halo的MeterRegistry（插件上下文中没有时使用全局的MeterRegistry）
+     */
+    @Autowired
+    public MonitorMetrics(ObjectProvider<MeterRegistry> registryProvider) {
+        this(registryProvider.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    public MonitorMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        meters.add(Gauge.builder(PREFIX + "checks.inflight", inFlightChecks, AtomicInteger::get)
+            .description("正在监测的友链数")
+            .strongReference(true)
+            .register(registry));
+        meters.add(Gauge.builder(PREFIX + "requests.queued", queuedRequests, AtomicInteger::get)
+            .description("等待限流许可的请求数")
+            .strongReference(true)
+            .register(registry));
+    }
+
+    /**
+     * 记录一次监测的时长
+     * @param runType 监测类型
+     * @param duration 时长
+     */
+    public void runFinished(RunProgress.RunType runType, Duration duration) {
+        register(Timer.builder(PREFIX + "run")
+            .description("一次监测的时长")
+            .tag("type", tagOf(runType))
+            .register(registry))
+            .record(duration);
+    }
+
+    /**
+     * 开始监测一个友链
+     */
+    public void checkStarted() {
+        inFlightChecks.incrementAndGet();
+    }
+
+    /**
+     * 一个友链监测结束（包括失败）
+     */
+    public void checkFinished() {
+        inFlightChecks.decrementAndGet();
+    }
+
+    /**
+     * 开始等待限流许可
+     */
+    public void requestQueued() {
+        queuedRequests.incrementAndGet();
+    }
+
+    /**
+     * 拿到限流许可（或者等待时被取消）
+     */
+    public void requestDequeued() {
+        queuedRequests.decrementAndGet();
+    }
+
+    /**
+     * 记录一次请求（包括跟随的重定向）的耗时、结果和下载的字节数
+     * @param type 请求类型
+     * @param timing 各阶段的耗时
+     */
+    public void probed(ProbeType type, LinksHealthMonitorResult.ProbeTiming timing) {
+        String typeTag = tagOf(type);
+        register(Timer.builder(PREFIX + "probe")
+            .description("请求的耗时（包括跟随的重定向）")
+            .tag("type", typeTag)
+            .publishPercentileHistogram()
+            .register(registry))
+            .record(Duration.ofMillis(timing.getTotalMillis()));
+        register(Counter.builder(PREFIX + "probe.outcome")
+            .description("请求的结果（成功、4xx、5xx或者失败的原因）")
+            .tag("type", typeTag)
+            .tag("outcome", outcomeOf(timing))
+            .register(registry))
+            .increment();
+        register(Counter.builder(PREFIX + "probe.downloaded")
+            .description("下载的字节数")
+            .baseUnit("bytes")
+            .tag("type", typeTag)
+            .register(registry))
+            .increment(timing.getBytesRead());
+    }
+
+    /**
+     * 移除注册的指标（插件停止时调用）
+     */
+    public void close() {
+        meters.forEach(registry::remove);
+        meters.clear();
+    }
+
+    /**
+     * 请求的结果
+     * @param timing 各阶段的耗时
+     * @return 失败的原因、4xx、5xx或者success
+     */
+    static String outcomeOf(LinksHealthMonitorResult.ProbeTiming timing) {
+        if (timing.getFailure() != null) {
+            return timing.getFailure();
+        }
+        int statusClass = timing.getStatusCode() / 100;
+        if (statusClass == 4 || statusClass == 5) {
+            return statusClass + "xx";
+        }
+        if (timing.getStatusCode() == SiteResponse.FAILED_STATUS_CODE) {
+            return ProbeTimer.FAILURE_ERROR;
+        }
+        return OUTCOME_SUCCESS;
+    }
+
+    /**
+     * 记录注册的指标（同一个指标重复注册时返回已有的，只记录一次）
+     */
+    private <T extends Meter> T register(T meter) {
+        if (!meters.contains(meter)) {
+            meters.add(meter);
+        }
+        return meter;
+    }
+
+    private static String tagOf(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 请求类型（页面标题从网站页面的请求中读取，与网站页面共用）
+     */
+    public enum ProbeType {
+        // 网站页面（状态码、标题）
+        SITE,
+        // 网站logo
+        LOGO,
+        // 扫描本站友链的友链页面（友链页面就是网站首页时与网站页面是同一次请求）
+        BACKLINK
+    }
+}
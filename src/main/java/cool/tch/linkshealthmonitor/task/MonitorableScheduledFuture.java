@@ -2,12 +2,15 @@ package cool.tch.linkshealthmonitor.task;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.ToString;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.TaskScheduler;
 
 import org.springframework.scheduling.support.CronExpression;
 import org.springframework.scheduling.support.CronTrigger;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -15,6 +18,7 @@ import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 import static cool.tch.linkshealthmonitor.constant.Constant.DEFAULT_SHORTEST_TIME;
 import static cool.tch.linkshealthmonitor.constant.Constant.DEFAULT_ZONE_ID;
@@ -36,8 +40,8 @@ import static cool.tch.linkshealthmonitor.task.MonitorableScheduledFuture.TaskSt
 @Slf4j
 public class MonitorableScheduledFuture {
 
-    // 可运行的任务
-    private final Runnable task;
+    // 可运行的任务（订阅后执行，完成时更新任务状态）
+    private final Supplier<Mono<Void>> task;
 
     // 在某个时间调度任务
     private final TaskScheduler taskScheduler;
@@ -48,6 +52,9 @@ public class MonitorableScheduledFuture {
     // cron表达式
     private final String cronExpression;
 
+    // 执行中的任务（响应式的任务订阅后立即返回，不占用调度线程）
+    private final AtomicReference<Disposable> running = new AtomicReference<>();
+
     // 线程安全的任务状态
     private final AtomicReference<TaskStatus> status = new AtomicReference<>();
 
@@ -63,7 +70,7 @@ public class MonitorableScheduledFuture {
     // 下次任务的计划执行时间（本地时间）
     private final AtomicReference<LocalDateTime> nextScheduledExecution = new AtomicReference<>();
 
-    public MonitorableScheduledFuture(Runnable task, TaskScheduler taskScheduler, String cronExpression) {
+    public MonitorableScheduledFuture(Supplier<Mono<Void>> task, TaskScheduler taskScheduler, String cronExpression) {
         this.task = task;
         this.taskScheduler = taskScheduler;
         this.cronExpression = cronExpression;
@@ -86,34 +93,40 @@ public class MonitorableScheduledFuture {
         // 包装原始任务，添加监控逻辑
         Runnable monitorableTask = () -> {
 
+            // 上次的任务还没有结束时跳过本次（响应式的任务不占用调度线程，调度线程不会等待它结束）
+            Disposable previous = running.get();
+            if (previous != null && !previous.isDisposed()) {
+                log.warn("{}【{}】上次友链监测还未结束，跳过本次", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR);
+                return;
+            }
+
             log.info("{}【{}】友链监测开始", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR);
             // 更新任务的计划执行时间
             updateLastScheduledExecution(false);
 
-            try{
-                // 状态为运行中
-                status.set(RUNNING);
-
-                // 更新任务的实际执行时间
-                updateLastActualExecution();
+            // 状态为运行中
+            status.set(RUNNING);
 
-                // 执行任务
-                task.run();
+            // 更新任务的实际执行时间
+            updateLastActualExecution();
 
+            // 执行任务（同步的任务在当前线程执行完再返回，响应式的任务结束时再更新状态）
+            running.set(Mono.defer(task).subscribe(null, error -> {
+                // 状态为失败
+                status.set(FAILED);
+                log.error("{}【{}】中断任务执行，任务失败: {}", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR, error.getMessage(), error);
+                // 更新下次任务的执行时间
+                updateNextScheduledExecution(trigger);
+                log.info("{}【{}】友链监测结束", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR);
+            }, () -> {
                 // 更新任务的实际完成时间
                 updateLastCompletionExecution();
                 // 状态为完成
                 status.set(COMPLETED);
-            } catch (Exception e){
-                // 状态为失败
-                status.set(FAILED);
-                log.error("{}【{}】中断任务执行，任务失败: {}", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR, e.getMessage(), e);
-            } finally {
                 // 更新下次任务的执行时间
                 updateNextScheduledExecution(trigger);
-            }
-
-            log.info("{}【{}】友链监测结束", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR);
+                log.info("{}【{}】友链监测结束", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR);
+            }));
         };
 
         // 执行任务
@@ -127,6 +140,11 @@ public class MonitorableScheduledFuture {
         if (scheduledFuture != null) {
             // 配置变更以后停止新的任务执行，现有的任务也不继续执行
             scheduledFuture.cancel(true);
+            // 取消执行中的响应式任务
+            Disposable current = running.getAndSet(null);
+            if (current != null) {
+                current.dispose();
+            }
             // 任务状态改为已停止
             status.set(STOPPED);
         }
@@ -144,7 +162,10 @@ public class MonitorableScheduledFuture {
             format(lastCompletionExecution),
             getLastCompletionTime(),
             format(nextScheduledExecution),
-            getRemainingTime()
+            getRemainingTime(),
+            null,
+            null,
+            null
         );
     }
 
@@ -373,6 +394,15 @@ public class MonitorableScheduledFuture {
         private String nextScheduledExecution;
         // 距离下次任务执行的剩余时间（天时分秒）（前端展示）
         private String remainingTime;
+        // 最近一次完整监测各阶段的耗时、单个友链监测耗时的分布和最慢的主机（监测进行中时为当前的进度）
+        @Setter
+        private RunPhases.Breakdown lastRun;
+        // 最近一次部分监测（友链修改后、分散监测）各阶段的耗时
+        @Setter
+        private RunPhases.Breakdown lastPartialRun;
+        // 进行中的分散监测的进度（没有时为null）
+        @Setter
+        private SpreadPlan.Progress spread;
 
         public TaskInfo(String taskStatus) {
             this.taskStatus = taskStatus;
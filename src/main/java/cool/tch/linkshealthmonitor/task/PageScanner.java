@@ -0,0 +1,66 @@
+package cool.tch.linkshealthmonitor.task;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static cool.tch.linkshealthmonitor.constant.Constant.TITLE_SCAN_MAX_BYTES;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/18 19:45
+ * @Desc 网站页面的流式扫描：提取标题，需要时同时扫描本站友链（友链页面就是网站首页时只读取一次页面）
+ */
+public class PageScanner implements StreamingScanner {
+
+    // 响应头中的字符集（没有时为null）
+    private final String charset;
+
+    // 标题提取
+    private final TitleExtractor titleExtractor = new TitleExtractor(TITLE_SCAN_MAX_BYTES);
+
+    // 本站友链扫描（不需要时为null）
+    private final BacklinkScanner backlinkScanner;
+
+    /**
+     * @param charset 响应头中的字符集（没有时为null）
+     * @param finalUrl 页面的最终地址（解析相对地址用）
+     * @param ourUrl 本站外部访问地址（标准化，为null时只提取标题）
+     */
+    public PageScanner(String charset, String finalUrl, String ourUrl) {
+        this.charset = charset;
+        this.backlinkScanner = ourUrl == null ? null
+            : new BacklinkScanner(ourUrl, finalUrl, charset == null ? StandardCharsets.UTF_8 : Charset.forName(charset));
+    }
+
+    @Override
+    public boolean feed(byte[] bytes, int offset, int length) {
+        if (!titleExtractor.isDone()) {
+            titleExtractor.feed(bytes, offset, length);
+        }
+        if (backlinkScanner != null && !backlinkScanner.isDone()) {
+            backlinkScanner.feed(bytes, offset, length);
+        }
+        return isDone();
+    }
+
+    @Override
+    public boolean isDone() {
+        return titleExtractor.isDone() && (backlinkScanner == null || backlinkScanner.isDone());
+    }
+
+    /**
+     * 页面标题
+     * @return 页面标题（没有标题时为空字符串）
+     */
+    public String getTitle() {
+        return titleExtractor.getTitle(charset);
+    }
+
+    /**
+     * 页面中是否包含本站友链
+     * @return 是否包含本站友链（没有扫描时为null）
+     */
+    public Boolean getContainsOurLink() {
+        return backlinkScanner == null ? null : backlinkScanner.isFound();
+    }
+}
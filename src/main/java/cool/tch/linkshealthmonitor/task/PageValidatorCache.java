@@ -0,0 +1,145 @@
+package cool.tch.linkshealthmonitor.task;
+
+import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorResult;
+import org.apache.commons.lang3.StringUtils;
+import java.net.HttpURLConnection;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/18 20:40
+ * @Desc 友链页面的条件请求缓存（按页面地址保存ETag/Last-Modified和上次的扫描结果，页面未修改（304）时直接复用）
+ * 从上一次的监测结果中加载，本次监测结束后随监测结果一起保存
+ */
+public class PageValidatorCache {
+
+    // 本站外部地址（标准化）
+    private final String ourUrl;
+
+    // 页面地址 -> 条件请求缓存
+    private final Map<String, LinksHealthMonitorResult.PageValidator> validators = new ConcurrentHashMap<>();
+
+    // 本次监测请求过的页面地址（只保存这些页面的缓存，不再使用的页面随之清除）
+    private final Set<String> requestedUrls = ConcurrentHashMap.newKeySet();
+
+    // 页面未修改（304）的次数
+    private final AtomicInteger notModifiedCount = new AtomicInteger();
+
+    /**
+     * @param ourUrl 本站外部地址（标准化）
+     * @param previous 上一次监测保存的条件请求缓存（可以为null）
+     */
+    public PageValidatorCache(String ourUrl, List<LinksHealthMonitorResult.PageValidator> previous) {
+        this.ourUrl = ourUrl;
+        if (previous == null) {
+            return;
+        }
+
+        for (LinksHealthMonitorResult.PageValidator validator : previous) {
+            // 本站地址变更后，缓存的扫描结果失效
+            if (validator != null && StringUtils.isNotBlank(validator.getUrl()) && StringUtils.equals(ourUrl, validator.getOurUrl())) {
+                validators.put(validator.getUrl(), validator);
+            }
+        }
+    }
+
+    /**
+     * 给请求添加条件请求头
+     * @param url 页面地址（标准化）
+     * @param header 设置请求头的方法
+     */
+    public void applyConditionalHeaders(String url, BiConsumer<String, String> header) {
+        requestedUrls.add(url);
+        LinksHealthMonitorResult.PageValidator validator = validators.get(url);
+        if (validator == null) {
+            return;
+        }
+
+        if (StringUtils.isNotBlank(validator.getEtag())) {
+            header.accept("If-None-Match", validator.getEtag());
+        }
+        if (StringUtils.isNotBlank(validator.getLastModified())) {
+            header.accept("If-Modified-Since", validator.getLastModified());
+        }
+    }
+
+    /**
+     * 页面未修改（304）时，复用上次的扫描结果
+     * @param url 页面地址（标准化）
+     * @return 上次的扫描结果（没有缓存时为null，此时按普通的响应处理）
+     */
+    public SiteResponse notModified(String url) {
+        LinksHealthMonitorResult.PageValidator validator = validators.get(url);
+        if (validator == null) {
+            return null;
+        }
+
+        notModifiedCount.incrementAndGet();
+        return new SiteResponse(HttpURLConnection.HTTP_OK, validator.getFinalUrl(), validator.getTitle(), validator.isContainsOurLink());
+    }
+
+    /**
+     * 根据本次的响应更新缓存（响应没有ETag和Last-Modified或者页面获取失败时移除缓存）
+     * @param url 页面地址（标准化）
+     * @param etag 响应头ETag
+     * @param lastModified 响应头Last-Modified
+     * @param response 本次的扫描结果
+     */
+    public void update(String url, String etag, String lastModified, SiteResponse response) {
+        if (!response.isAccessible() || response.getContainsOurLink() == null
+            || (StringUtils.isBlank(etag) && StringUtils.isBlank(lastModified))) {
+            validators.remove(url);
+            return;
+        }
+
+        LinksHealthMonitorResult.PageValidator validator = new LinksHealthMonitorResult.PageValidator();
+        validator.setUrl(url);
+        validator.setOurUrl(ourUrl);
+        validator.setEtag(etag);
+        validator.setLastModified(lastModified);
+        validator.setFinalUrl(response.getFinalUrl());
+        validator.setTitle(response.getTitle());
+        validator.setContainsOurLink(response.getContainsOurLink());
+        validators.put(url, validator);
+    }
+
+    /**
+     * 保留页面的缓存（本次没有请求该页面，但仍需要它的缓存，如增量监测沿用上次记录的友链页面）
+     * @param url 页面地址（标准化）
+     */
+    public void retain(String url) {
+        if (StringUtils.isNotBlank(url)) {
+            requestedUrls.add(url);
+        }
+    }
+
+    /**
+     * 页面未修改（304）的次数
+     * @return 页面未修改的次数
+     */
+    public int getNotModifiedCount() {
+        return notModifiedCount.get();
+    }
+
+    /**
+     * 需要保存的条件请求缓存（本次监测请求过的页面，按地址排序）
+     * @return 条件请求缓存
+     */
+    public List<LinksHealthMonitorResult.PageValidator> toList() {
+        List<LinksHealthMonitorResult.PageValidator> list = new ArrayList<>();
+        validators.forEach((url, validator) -> {
+            if (requestedUrls.contains(url)) {
+                list.add(validator);
+            }
+        });
+        list.sort(Comparator.comparing(LinksHealthMonitorResult.PageValidator::getUrl));
+        return list;
+    }
+}
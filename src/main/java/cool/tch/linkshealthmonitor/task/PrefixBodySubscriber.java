@@ -0,0 +1,79 @@
+package cool.tch.linkshealthmonitor.task;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/18 17:10
+ * @Desc 只读取响应前N个字节的BodySubscriber（读够后取消订阅，不再下载剩余内容）
+ */
+public class PrefixBodySubscriber implements HttpResponse.BodySubscriber<byte[]> {
+
+    // 已读取的内容
+    private final byte[] buffer;
+
+    // 已读取的字节数
+    private int length;
+
+    // 读取结果
+    private final CompletableFuture<byte[]> body = new CompletableFuture<>();
+
+    private Flow.Subscription subscription;
+
+    public PrefixBodySubscriber(int maxBytes) {
+        this.buffer = new byte[maxBytes];
+    }
+
+    @Override
+    public CompletionStage<byte[]> getBody() {
+        return body;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> items) {
+        // 取消订阅后可能还会收到已在途的数据
+        if (body.isDone()) {
+            return;
+        }
+
+        for (ByteBuffer item : items) {
+            int count = Math.min(item.remaining(), buffer.length - length);
+            item.get(buffer, length, count);
+            length += count;
+        }
+
+        if (length >= buffer.length) {
+            // 读够了，取消剩余内容的下载
+            subscription.cancel();
+            complete();
+        } else {
+            subscription.request(1);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        body.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        complete();
+    }
+
+    private void complete() {
+        body.complete(Arrays.copyOf(buffer, length));
+    }
+}
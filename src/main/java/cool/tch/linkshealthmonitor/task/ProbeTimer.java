@@ -0,0 +1,238 @@
+package cool.tch.linkshealthmonitor.task;
+
+import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorResult;
+import javax.net.ssl.SSLException;
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/19 15:10
+ * @Desc 记录一次请求（包括跟随的重定向）各阶段的耗时
+ * 同一次请求的各阶段依次发生，每次请求创建一个
+ */
+public class ProbeTimer {
+
+    // 未记录
+    private static final long UNSET = -1;
+
+    // 请求失败的原因
+    // 超时
+    public static final String FAILURE_TIMEOUT = "timeout";
+    // DNS解析失败
+    public static final String FAILURE_DNS = "dns";
+    // TLS握手失败（证书无效等）
+    public static final String FAILURE_TLS = "tls";
+    // 无法建立连接
+    public static final String FAILURE_CONNECT = "connect";
+    // 其他异常
+    public static final String FAILURE_ERROR = "error";
+
+    // 开始时间
+    private final long startNanos = System.nanoTime();
+
+    // DNS解析耗时
+    private volatile long dnsNanos = UNSET;
+
+    // 等待限流许可的耗时（每次重定向累加）
+    private final AtomicLong queueNanos = new AtomicLong();
+
+    // 第一次发出请求的时间
+    private volatile long firstSentNanos = UNSET;
+
+    // 收到最终响应头的时间（每次重定向覆盖）
+    private volatile long headersNanos = UNSET;
+
+    // 读取结束的时间
+    private volatile long completedNanos = UNSET;
+
+    // 最终响应的状态码
+    private volatile int statusCode = SiteResponse.FAILED_STATUS_CODE;
+
+    // 读取的字节数
+    private final AtomicLong bytesRead = new AtomicLong();
+
+    // 收到的响应数（减1就是重定向次数）
+    private final AtomicInteger responses = new AtomicInteger();
+
+    // 请求失败的原因（收到响应头之前只记录第一次）
+    private volatile String failure;
+
+    // 请求失败的时间
+    private volatile long failedNanos = UNSET;
+
+    /**
+     * DNS解析结束
+     * @param nanos DNS解析耗时
+     */
+    public void dnsResolved(long nanos) {
+        dnsNanos = nanos;
+    }
+
+    /**
+     * 是否已经发出过请求
+     * @return 是否已经发出过请求
+     */
+    public boolean isSent() {
+        return firstSentNanos != UNSET;
+    }
+
+    /**
+     * 拿到限流许可
+     * @param nanos 等待的耗时
+     */
+    public void queued(long nanos) {
+        queueNanos.addAndGet(nanos);
+    }
+
+    /**
+     * 发出请求
+     */
+    public void sent() {
+        if (firstSentNanos == UNSET) {
+            firstSentNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * 请求失败（DNS解析失败时也调用，此时请求随后也会失败；读取内容时超时也调用）
+     * @param error 异常
+     */
+    public void failed(Throwable error) {
+        if (failure == null || headersNanos != UNSET) {
+            failure = causeOf(error);
+            failedNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * 请求结束（读取结束或者失败）
+     */
+    public void completed() {
+        if (completedNanos == UNSET) {
+            completedNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * 包装响应的处理，记录收到响应头的时间和读取的字节数
+     * @param handler 响应的处理
+     * @return 包装后的响应的处理
+     */
+    public <T> HttpResponse.BodyHandler<T> wrap(HttpResponse.BodyHandler<T> handler) {
+        return responseInfo -> {
+            headersNanos = System.nanoTime();
+            statusCode = responseInfo.statusCode();
+            responses.incrementAndGet();
+            return new CountingBodySubscriber<>(handler.apply(responseInfo));
+        };
+    }
+
+    /**
+     * 各阶段的耗时
+     * @return 各阶段的耗时
+     */
+    public LinksHealthMonitorResult.ProbeTiming toTiming() {
+        long endNanos = completedNanos == UNSET ? System.nanoTime() : completedNanos;
+
+        LinksHealthMonitorResult.ProbeTiming timing = new LinksHealthMonitorResult.ProbeTiming();
+        timing.setDnsMillis(dnsNanos == UNSET ? null : toMillis(dnsNanos));
+        timing.setQueueMillis(toMillis(queueNanos.get()));
+        if (firstSentNanos != UNSET && headersNanos != UNSET) {
+            timing.setTtfbMillis(toMillis(headersNanos - firstSentNanos));
+            timing.setDownloadMillis(toMillis(endNanos - headersNanos));
+        }
+        timing.setTotalMillis(toMillis(endNanos - startNanos));
+        timing.setStatusCode(headersNanos == UNSET ? SiteResponse.FAILED_STATUS_CODE : statusCode);
+        timing.setBytesRead(bytesRead.get());
+        timing.setRedirects(Math.max(responses.get() - 1, 0));
+        // 收到响应头之前的失败，收到了响应时不算（例如DNS解析失败后重试成功）；读取内容时的失败（超时）都算
+        if (headersNanos == UNSET || failedNanos > headersNanos) {
+            timing.setFailure(failure);
+        }
+        return timing;
+    }
+
+    /**
+     * 请求失败的原因
+     * @param error 异常
+     * @return 失败的原因（timeout、dns、tls、connect、error）
+     */
+    static String causeOf(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CompletionException) {
+                continue;
+            }
+            if (cause instanceof HttpTimeoutException || cause instanceof TimeoutException) {
+                return FAILURE_TIMEOUT;
+            }
+            if (cause instanceof UnknownHostException) {
+                return FAILURE_DNS;
+            }
+            if (cause instanceof SSLException) {
+                return FAILURE_TLS;
+            }
+            if (cause instanceof ConnectException) {
+                return FAILURE_CONNECT;
+            }
+        }
+        return FAILURE_ERROR;
+    }
+
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(Math.max(nanos, 0));
+    }
+
+    /**
+     * 统计读取字节数的BodySubscriber
+     */
+    private class CountingBodySubscriber<T> implements HttpResponse.BodySubscriber<T> {
+
+        private final HttpResponse.BodySubscriber<T> delegate;
+
+        private CountingBodySubscriber(HttpResponse.BodySubscriber<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public CompletionStage<T> getBody() {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            delegate.onSubscribe(subscription);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> items) {
+            long count = 0;
+            for (ByteBuffer item : items) {
+                count += item.remaining();
+            }
+            bytesRead.addAndGet(count);
+            delegate.onNext(items);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            delegate.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            delegate.onComplete();
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package cool.tch.linkshealthmonitor.task;
+
+import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorResult;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/19 11:40
+ * @Desc 监测结果的增量存储（关键帧保存完整的监测结果，之后的监测结果只保存相对关键帧变化的记录和删除的记录）
+ * 增量都相对于同一个关键帧，读取时只需要关键帧和最新的一个监测结果
+ */
+public class ResultDelta {
+
+    private ResultDelta() {
+    }
+
+    /**
+     * 生成相对关键帧的增量
+     * @param keyframe 关键帧（完整的监测结果）
+     * @param full 本次完整的监测结果
+     * @return 增量（包含基本信息、变化和删除的记录，重新监测过的记录的监测时间和请求耗时都会变化，也写入增量）
+     */
+    public static LinksHealthMonitorResult.ResultSpec encode(LinksHealthMonitorResult.ResultSpec keyframe,
+        LinksHealthMonitorResult.ResultSpec full) {
+        LinksHealthMonitorResult.ResultSpec delta = copyBasicInfo(full);
+
+        List<String> removedLinkNames = new ArrayList<>();
+        delta.setLinkHealthMonitorRecordList(diff(keyframe.getLinkHealthMonitorRecordList(), full.getLinkHealthMonitorRecordList(),
+            LinksHealthMonitorResult.LinkHealthMonitorRecord::getLinkName, Objects::equals, removedLinkNames));
+        delta.setRemovedLinkNames(removedLinkNames);
+
+        List<String> removedNoMonitorLinkNames = new ArrayList<>();
+        delta.setNoMonitorRecordList(diff(keyframe.getNoMonitorRecordList(), full.getNoMonitorRecordList(),
+            LinksHealthMonitorResult.NoMonitorRecord::getLinkName, Objects::equals, removedNoMonitorLinkNames));
+        delta.setRemovedNoMonitorLinkNames(removedNoMonitorLinkNames);
+
+        List<String> removedPageValidatorUrls = new ArrayList<>();
+        delta.setPageValidatorList(diff(keyframe.getPageValidatorList(), full.getPageValidatorList(),
+            LinksHealthMonitorResult.PageValidator::getUrl, Objects::equals, removedPageValidatorUrls));
+        delta.setRemovedPageValidatorUrls(removedPageValidatorUrls);
+        return delta;
+    }
+
+    /**
+     * 根据关键帧和增量还原完整的监测结果
+     * @param keyframe 关键帧（完整的监测结果）
+     * @param delta 增量
+     * @return 完整的监测结果（保留增量的关键帧name和序号）
+     */
+    public static LinksHealthMonitorResult.ResultSpec decode(LinksHealthMonitorResult.ResultSpec keyframe,
+        LinksHealthMonitorResult.ResultSpec delta) {
+        LinksHealthMonitorResult.ResultSpec full = copyBasicInfo(delta);
+        full.setKeyframeName(delta.getKeyframeName());
+        full.setDeltaIndex(delta.getDeltaIndex());
+        full.setLinkHealthMonitorRecordList(apply(keyframe.getLinkHealthMonitorRecordList(), delta.getLinkHealthMonitorRecordList(),
+            delta.getRemovedLinkNames(), LinksHealthMonitorResult.LinkHealthMonitorRecord::getLinkName));
+        full.setNoMonitorRecordList(apply(keyframe.getNoMonitorRecordList(), delta.getNoMonitorRecordList(),
+            delta.getRemovedNoMonitorLinkNames(), LinksHealthMonitorResult.NoMonitorRecord::getLinkName));
+        full.setPageValidatorList(apply(keyframe.getPageValidatorList(), delta.getPageValidatorList(),
+            delta.getRemovedPageValidatorUrls(), LinksHealthMonitorResult.PageValidator::getUrl));
+        return full;
+    }
+
+    /**
+     * 增量中变化和删除的记录数
+     * @param delta 增量
+     * @return 变化和删除的记录数
+     */
+    public static int sizeOf(LinksHealthMonitorResult.ResultSpec delta) {
+        return sizeOf(delta.getLinkHealthMonitorRecordList()) + sizeOf(delta.getRemovedLinkNames())
+            + sizeOf(delta.getNoMonitorRecordList()) + sizeOf(delta.getRemovedNoMonitorLinkNames())
+            + sizeOf(delta.getPageValidatorList()) + sizeOf(delta.getRemovedPageValidatorUrls());
+    }
+
+    /**
+     * 完整的监测结果中的记录数
+     * @param full 完整的监测结果
+     * @return 记录数
+     */
+    public static int recordCountOf(LinksHealthMonitorResult.ResultSpec full) {
+        return sizeOf(full.getLinkHealthMonitorRecordList()) + sizeOf(full.getNoMonitorRecordList()) + sizeOf(full.getPageValidatorList());
+    }
+
+    /**
+     * 比较记录，返回新增或者变化的记录，删除的记录的key加入removedKeys
+     */
+    private static <T> List<T> diff(List<T> previous, List<T> current, Function<T, String> keyOf, BiPredicate<T, T> same,
+        List<String> removedKeys) {
+        Map<String, T> previousByKey = new LinkedHashMap<>();
+        if (previous != null) {
+            previous.forEach(item -> previousByKey.put(keyOf.apply(item), item));
+        }
+
+        List<T> changed = new ArrayList<>();
+        Set<String> currentKeys = new HashSet<>();
+        if (current != null) {
+            for (T item : current) {
+                String key = keyOf.apply(item);
+                currentKeys.add(key);
+                T previousItem = previousByKey.get(key);
+                if (previousItem == null || !same.test(previousItem, item)) {
+                    changed.add(item);
+                }
+            }
+        }
+
+        previousByKey.keySet().forEach(key -> {
+            if (!currentKeys.contains(key)) {
+                removedKeys.add(key);
+            }
+        });
+        return changed;
+    }
+
+    /**
+     * 在关键帧的记录上删除、替换记录（保持原有顺序），新增的记录追加在最后
+     */
+    private static <T> List<T> apply(List<T> previous, List<T> changed, List<String> removedKeys, Function<T, String> keyOf) {
+        Map<String, T> merged = new LinkedHashMap<>();
+        if (previous != null) {
+            previous.forEach(item -> merged.put(keyOf.apply(item), item));
+        }
+        if (removedKeys != null) {
+            removedKeys.forEach(merged::remove);
+        }
+        if (changed != null) {
+            changed.forEach(item -> merged.put(keyOf.apply(item), item));
+        }
+        return new ArrayList<>(merged.values());
+    }
+
+    /**
+     * 复制监测结果的基本信息（不包含记录）
+     */
+    private static LinksHealthMonitorResult.ResultSpec copyBasicInfo(LinksHealthMonitorResult.ResultSpec source) {
+        LinksHealthMonitorResult.ResultSpec target = new LinksHealthMonitorResult.ResultSpec();
+        target.setCustomizedCronEnable(source.getCustomizedCronEnable());
+        target.setCustomizedCronAvailable(source.getCustomizedCronAvailable());
+        target.setCronExpression(source.getCronExpression());
+        target.setOurUrl(source.getOurUrl());
+        return target;
+    }
+
+    private static int sizeOf(List<?> list) {
+        return list == null ? 0 : list.size();
+    }
+}
@@ -0,0 +1,227 @@
+package cool.tch.linkshealthmonitor.task;
+
+import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorDailySummary;
+import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import run.halo.app.extension.ListOptions;
+import run.halo.app.extension.ListResult;
+import run.halo.app.extension.Metadata;
+import run.halo.app.extension.PageRequestImpl;
+import run.halo.app.extension.ReactiveExtensionClient;
+import run.halo.app.extension.router.selector.FieldSelector;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static cool.tch.linkshealthmonitor.constant.Constant.DEFAULT_ZONE_ID;
+import static cool.tch.linkshealthmonitor.constant.Constant.LINKS_HEALTH_MONITOR;
+import static cool.tch.linkshealthmonitor.constant.Constant.LINKS_HEALTH_MONITOR_DESC;
+import static cool.tch.linkshealthmonitor.constant.Constant.RETENTION_BATCH_SIZE;
+import static cool.tch.linkshealthmonitor.constant.Constant.RETENTION_MAX_BATCHES_PER_RUN;
+import static run.halo.app.extension.index.query.Queries.isNull;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/19 10:50
+ * @Desc 监测结果的保留策略（保留最近的若干个监测结果，更早的按天汇总到每日汇总后分批删除；过期的每日汇总也一并删除）
+ * 每次最多处理若干批，积压较多时分多次监测逐步清理
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ResultRetention {
+
+    // 与自定义模型交互
+    private final ReactiveExtensionClient client;
+
+    /**
+     * 清理历史监测结果
+     * @param retentionCount 保留的监测结果数
+     * @param summaryRetentionDays 每日汇总的保留天数（0表示不删除）
+     */
+    public void compact(int retentionCount, int summaryRetentionDays) {
+        try {
+            int rolledUp = 0;
+            for (int batch = 0; batch < RETENTION_MAX_BATCHES_PER_RUN; batch++) {
+                int count = rollUpOldest(retentionCount);
+                rolledUp += count;
+                if (count < RETENTION_BATCH_SIZE) {
+                    break;
+                }
+            }
+            int expired = summaryRetentionDays > 0 ? deleteExpiredSummaries(summaryRetentionDays) : 0;
+
+            if (rolledUp > 0 || expired > 0) {
+                log.info("{}【{}】清理历史监测结果，汇总并删除的监测结果数：【{}】，删除的每日汇总数：【{}】", LINKS_HEALTH_MONITOR_DESC,
+                    LINKS_HEALTH_MONITOR, rolledUp, expired);
+            }
+        } catch (Exception e) {
+            log.error("{}【{}】清理历史监测结果失败: {}", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 把超出保留数量的最早的一批监测结果汇总到每日汇总，然后删除
+     * @param retentionCount 保留的监测结果数
+     * @return 本批删除的监测结果数
+     */
+    private int rollUpOldest(int retentionCount) {
+        // 筛选对象metadata.deletionTimestamp为空的，即未被删除的数据
+        ListOptions listOptions = new ListOptions();
+        listOptions.setFieldSelector(FieldSelector.of(isNull("metadata.deletionTimestamp")));
+        // 按创建时间升序，第一页就是最早的监测结果
+        Sort sort = Sort.by(Sort.Order.asc("metadata.creationTimestamp"));
+
+        ListResult<LinksHealthMonitorResult> listResult = client.listBy(LinksHealthMonitorResult.class, listOptions,
+                PageRequestImpl.of(1, RETENTION_BATCH_SIZE, sort))
+            .timeout(Duration.ofSeconds(30))
+            .block();
+        if (listResult == null) {
+            return 0;
+        }
+        long excess = listResult.getTotal() - retentionCount;
+        if (excess <= 0) {
+            return 0;
+        }
+        List<LinksHealthMonitorResult> oldest = listResult.getItems().subList(0, (int) Math.min(excess, listResult.getItems().size()));
+
+        // 按天分组（同一天的监测结果按创建时间升序汇总，增量存储的监测结果还原后汇总）
+        Map<String, LinksHealthMonitorResult.ResultSpec> keyframes = new HashMap<>();
+        Map<LocalDate, List<LinksHealthMonitorResult>> byDate = new TreeMap<>();
+        for (LinksHealthMonitorResult result : oldest) {
+            byDate.computeIfAbsent(DailyRollup.dateOf(result.getMetadata().getCreationTimestamp()), key -> new ArrayList<>())
+                .add(resolve(result, keyframes));
+        }
+        byDate.forEach(this::rollUp);
+
+        // 汇总完成后再删除（汇总失败时抛出异常，监测结果保留到下次）
+        List<LinksHealthMonitorResult> deletable = deletableOf(oldest);
+        Flux.fromIterable(deletable)
+            .concatMap(client::delete)
+            .then()
+            .timeout(Duration.ofSeconds(30))
+            .block();
+        return deletable.size();
+    }
+
+    /**
+     * 可以删除的监测结果：之后的增量还在使用的关键帧不删除
+     * 增量总是在它的关键帧之后创建，本批中关键帧之后还有新的关键帧时，中间的增量都在本批中
+     * @param oldest 最早的一批监测结果（按创建时间升序）
+     * @return 可以删除的监测结果
+     */
+    private static List<LinksHealthMonitorResult> deletableOf(List<LinksHealthMonitorResult> oldest) {
+        List<LinksHealthMonitorResult> deletable = new ArrayList<>();
+        for (int i = 0; i < oldest.size(); i++) {
+            LinksHealthMonitorResult result = oldest.get(i);
+            if (!isKeyframe(result) || oldest.subList(i + 1, oldest.size()).stream().anyMatch(ResultRetention::isKeyframe)) {
+                deletable.add(result);
+            }
+        }
+        return deletable;
+    }
+
+    private static boolean isKeyframe(LinksHealthMonitorResult result) {
+        return result.getResultSpec() == null || result.getResultSpec().getKeyframeName() == null;
+    }
+
+    /**
+     * 还原增量存储的监测结果（关键帧不存在时原样返回）
+     * @param result 监测结果
+     * @param keyframes 关键帧的name -> 关键帧（本批内复用）
+     * @return 完整的监测结果（新的对象，不影响删除）
+     */
+    private LinksHealthMonitorResult resolve(LinksHealthMonitorResult result, Map<String, LinksHealthMonitorResult.ResultSpec> keyframes) {
+        if (isKeyframe(result)) {
+            keyframes.put(result.getMetadata().getName(), result.getResultSpec());
+            return result;
+        }
+
+        String keyframeName = result.getResultSpec().getKeyframeName();
+        LinksHealthMonitorResult.ResultSpec keyframeSpec = keyframes.computeIfAbsent(keyframeName,
+            name -> client.fetch(LinksHealthMonitorResult.class, name)
+                .timeout(Duration.ofSeconds(10))
+                .blockOptional()
+                .map(LinksHealthMonitorResult::getResultSpec)
+                .orElse(null));
+        if (keyframeSpec == null) {
+            return result;
+        }
+
+        LinksHealthMonitorResult resolved = new LinksHealthMonitorResult();
+        resolved.setMetadata(result.getMetadata());
+        resolved.setResultSpec(ResultDelta.decode(keyframeSpec, result.getResultSpec()));
+        return resolved;
+    }
+
+    /**
+     * 把同一天的监测结果汇总到该天的每日汇总中（不存在时创建）
+     * @param date 日期
+     * @param results 监测结果（按创建时间升序）
+     */
+    private void rollUp(LocalDate date, List<LinksHealthMonitorResult> results) {
+        String summaryName = DailyRollup.summaryNameOf(date);
+        LinksHealthMonitorDailySummary summary = client.fetch(LinksHealthMonitorDailySummary.class, summaryName)
+            .timeout(Duration.ofSeconds(10))
+            .blockOptional()
+            .orElse(null);
+
+        boolean created = summary == null;
+        if (created) {
+            Metadata metadata = new Metadata();
+            metadata.setName(summaryName);
+            summary = new LinksHealthMonitorDailySummary();
+            summary.setMetadata(metadata);
+            LinksHealthMonitorDailySummary.SummarySpec summarySpec = new LinksHealthMonitorDailySummary.SummarySpec();
+            summarySpec.setDate(date.toString());
+            summary.setSummarySpec(summarySpec);
+        }
+
+        boolean folded = false;
+        for (LinksHealthMonitorResult result : results) {
+            folded |= DailyRollup.fold(summary.getSummarySpec(), result.getResultSpec(), result.getMetadata().getCreationTimestamp());
+        }
+        if (!folded) {
+            return;
+        }
+
+        (created ? client.create(summary) : client.update(summary))
+            .timeout(Duration.ofSeconds(10))
+            .block();
+    }
+
+    /**
+     * 删除过期的每日汇总
+     * @param summaryRetentionDays 每日汇总的保留天数
+     * @return 删除的每日汇总数
+     */
+    private int deleteExpiredSummaries(int summaryRetentionDays) {
+        String cutoff = LocalDate.now(ZoneId.of(DEFAULT_ZONE_ID)).minusDays(summaryRetentionDays).toString();
+        ListOptions listOptions = new ListOptions();
+        listOptions.setFieldSelector(FieldSelector.of(isNull("metadata.deletionTimestamp")));
+
+        Long deleted = client.listAll(LinksHealthMonitorDailySummary.class, listOptions, Sort.by("metadata.creationTimestamp"))
+            // 日期格式为yyyy-MM-dd，可以直接按字符串比较
+            .filter(summary -> summary.getSummarySpec() != null && summary.getSummarySpec().getDate() != null
+                && summary.getSummarySpec().getDate().compareTo(cutoff) < 0)
+            .concatMap(client::delete)
+            .count()
+            .timeout(Duration.ofSeconds(30))
+            .onErrorResume(error -> {
+                log.error("{}【{}】删除过期的每日汇总失败: {}", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR, error.getMessage(), error);
+                return Mono.just(0L);
+            })
+            .block();
+        return deleted == null ? 0 : deleted.intValue();
+    }
+}
@@ -0,0 +1,241 @@
+package cool.tch.linkshealthmonitor.task;
+
+import lombok.Data;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/19 16:40
+ * @Desc 一次监测各阶段的耗时（查询友链、查询分组、网络监测、保存监测结果等），以及单个友链监测耗时的分布和最慢的主机
+ * 各阶段依次进行，监测进行中也可以查看当前所处的阶段
+ */
+public class RunPhases {
+
+    // 监测类型
+    private final RunProgress.RunType runType;
+
+    // 开始时间
+    private final Instant startedAt = Instant.now();
+
+    // 已结束阶段的耗时（纳秒）
+    private final Map<Phase, Long> phaseNanos = new EnumMap<>(Phase.class);
+
+    // 当前阶段（监测结束后为null）
+    private Phase currentPhase;
+
+    // 当前阶段的开始时间
+    private long currentPhaseStartNanos;
+
+    // 是否已结束
+    private boolean finished;
+
+    // 单个友链的监测耗时（监测线程并发写入）
+    private final Queue<LinkLatency> latencies = new ConcurrentLinkedQueue<>();
+
+    public RunPhases(RunProgress.RunType runType) {
+        this.runType = runType;
+    }
+
+    /**
+     * 进入下一个阶段（上一个阶段结束）
+     * @param phase 阶段
+     */
+    public synchronized void begin(Phase phase) {
+        endCurrentPhase();
+        currentPhase = phase;
+        currentPhaseStartNanos = System.nanoTime();
+    }
+
+    /**
+     * 单个友链监测完成
+     * @param url 友链的url
+     * @param nanos 监测耗时
+     */
+    public void linkChecked(String url, long nanos) {
+        latencies.add(new LinkLatency(HostRateLimiter.hostOf(url), nanos));
+    }
+
+    /**
+     * 监测结束
+     */
+    public synchronized void finish() {
+        endCurrentPhase();
+        currentPhase = null;
+        finished = true;
+    }
+
+    /**
+     * 各阶段耗时的快照
+     * @param slowestHostCount 返回最慢的主机数
+     * @return 各阶段的耗时（当前阶段为已进行的时间）
+     */
+    public synchronized Breakdown snapshot(int slowestHostCount) {
+        Breakdown breakdown = new Breakdown();
+        breakdown.setRunType(runType);
+        breakdown.setStartedAt(startedAt);
+        breakdown.setFinished(finished);
+        breakdown.setCurrentPhase(currentPhase == null ? null : currentPhase.getValue());
+
+        Map<String, Long> phaseMillis = new LinkedHashMap<>();
+        for (Phase phase : Phase.values()) {
+            Long nanos = phaseNanos.get(phase);
+            if (phase == currentPhase) {
+                nanos = (nanos == null ? 0 : nanos) + System.nanoTime() - currentPhaseStartNanos;
+            }
+            if (nanos != null) {
+                phaseMillis.put(phase.getValue(), TimeUnit.NANOSECONDS.toMillis(nanos));
+            }
+        }
+        breakdown.setPhaseMillis(phaseMillis);
+
+        List<LinkLatency> checked = new ArrayList<>(latencies);
+        breakdown.setCheckedLinks(checked.size());
+        if (!checked.isEmpty()) {
+            long[] sorted = checked.stream().mapToLong(LinkLatency::nanos).sorted().toArray();
+            breakdown.setProbeP50Millis(percentileMillis(sorted, 50));
+            breakdown.setProbeP95Millis(percentileMillis(sorted, 95));
+            breakdown.setProbeP99Millis(percentileMillis(sorted, 99));
+        }
+        breakdown.setSlowestHosts(slowestHosts(checked, slowestHostCount));
+        return breakdown;
+    }
+
+    /**
+     * 结束当前阶段，累计耗时
+     */
+    private void endCurrentPhase() {
+        if (currentPhase != null) {
+            phaseNanos.merge(currentPhase, System.nanoTime() - currentPhaseStartNanos, Long::sum);
+        }
+    }
+
+    /**
+     * 百分位数（最近秩法）
+     * @param sorted 升序的耗时（纳秒）
+     * @param percentile 百分位
+     * @return 百分位数（毫秒）
+     */
+    static long percentileMillis(long[] sorted, int percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return TimeUnit.NANOSECONDS.toMillis(sorted[Math.max(rank, 1) - 1]);
+    }
+
+    /**
+     * 最慢的主机（同一主机有多个友链时取最慢的一个）
+     */
+    private static List<HostLatency> slowestHosts(List<LinkLatency> checked, int count) {
+        Map<String, HostLatency> byHost = new HashMap<>();
+        for (LinkLatency latency : checked) {
+            long millis = TimeUnit.NANOSECONDS.toMillis(latency.nanos());
+            HostLatency hostLatency = byHost.computeIfAbsent(latency.host(), host -> {
+                HostLatency created = new HostLatency();
+                created.setHost(host);
+                return created;
+            });
+            hostLatency.setLinks(hostLatency.getLinks() + 1);
+            hostLatency.setMaxMillis(Math.max(hostLatency.getMaxMillis(), millis));
+        }
+        return byHost.values().stream()
+            .sorted(Comparator.comparingLong(HostLatency::getMaxMillis).reversed())
+            .limit(Math.max(count, 0))
+            .toList();
+    }
+
+    /**
+     * 单个友链的监测耗时
+     * @param host 主机名
+     * @param nanos 监测耗时
+     */
+    private record LinkLatency(String host, long nanos) {
+    }
+
+    /**
+     * 监测的阶段（按进行的顺序）
+     */
+    public enum Phase {
+        // 加载上一次的监测结果、准备增量监测
+        PREPARE("prepare"),
+        // 查询友链
+        LIST_LINKS("listLinks"),
+        // 查询分组
+        GROUP_LOOKUP("groupLookup"),
+        // 网络监测
+        PROBE("probe"),
+        // 保存监测结果
+        PERSIST("persist"),
+        // 清理历史监测结果
+        RETENTION("retention");
+
+        // 阶段名（前端展示）
+        private final String value;
+
+        Phase(String value) {
+            this.value = value;
+        }
+
+        public String getValue() {
+            return value;
+        }
+    }
+
+    /**
+     * 各阶段耗时的快照
+     */
+    @Data
+    public static class Breakdown {
+
+        // 监测类型
+        private RunProgress.RunType runType;
+
+        // 开始时间
+        private Instant startedAt;
+
+        // 是否已结束
+        private boolean finished;
+
+        // 当前阶段（已结束时为null）
+        private String currentPhase;
+
+        // 阶段 -> 耗时（毫秒，按进行的顺序，未进行的阶段不返回）
+        private Map<String, Long> phaseMillis;
+
+        // 网络监测的友链数（不包括沿用上次记录和无需监测的友链）
+        private int checkedLinks;
+
+        // 单个友链监测耗时的百分位数（毫秒，没有网络监测的友链时为null）
+        private Long probeP50Millis;
+
+        private Long probeP95Millis;
+
+        private Long probeP99Millis;
+
+        // 最慢的主机
+        private List<HostLatency> slowestHosts;
+    }
+
+    /**
+     * 主机的监测耗时
+     */
+    @Data
+    public static class HostLatency {
+
+        // 主机名
+        private String host;
+
+        // 该主机的友链数
+        private int links;
+
+        // 最慢的监测耗时（毫秒）
+        private long maxMillis;
+    }
+}
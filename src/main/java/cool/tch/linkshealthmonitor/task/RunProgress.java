@@ -0,0 +1,203 @@
+package cool.tch.linkshealthmonitor.task;
+
+import lombok.Data;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/19 14:30
+ * @Desc 监测进度的广播（每个友链监测完成时推送已完成数、剩余数、吞吐量和预计剩余时间）
+ * 新的订阅者先收到最近一次的进度
+ */
+@Component
+public class RunProgress {
+
+    // 监测进度（只保留最近一次，供新的订阅者）
+    private final Sinks.Many<ProgressEvent> sink = Sinks.many().replay().latest();
+
+    /**
+     * 订阅监测进度
+     * @return 监测进度
+     */
+    public Flux<ProgressEvent> events() {
+        return sink.asFlux();
+    }
+
+    /**
+     * 开始一次监测
+     * @param runType 监测类型
+     * @param total 友链总数
+     * @return 本次监测的进度
+     */
+    public Tracker start(RunType runType, int total) {
+        Tracker tracker = new Tracker(runType, total);
+        emit(tracker.event(EventType.STARTED));
+        return tracker;
+    }
+
+    /**
+     * 多个监测线程同时完成时依次推送（Sinks不允许并发推送）
+     */
+    private synchronized void emit(ProgressEvent event) {
+        sink.tryEmitNext(event);
+    }
+
+    /**
+     * 一次监测的进度
+     */
+    public class Tracker {
+
+        // 监测的id
+        private final String runId = UUID.randomUUID().toString();
+
+        // 监测类型
+        private final RunType runType;
+
+        // 友链总数
+        private final int total;
+
+        // 开始时间
+        private final Instant startedAt = Instant.now();
+
+        // 已完成数
+        private final AtomicInteger done = new AtomicInteger();
+
+        // 正常的友链数
+        private final AtomicInteger healthy = new AtomicInteger();
+
+        // 异常（包括监测失败）的友链数
+        private final AtomicInteger unhealthy = new AtomicInteger();
+
+        private Tracker(RunType runType, int total) {
+            this.runType = runType;
+            this.total = total;
+        }
+
+        /**
+         * 单个友链监测完成
+         * @param linkName 友链的name
+         * @param linkDisplayName 友链的网站名称
+         * @param linkHealthy 是否正常（无需监测的友链为null）
+         * @param failed 是否监测失败
+         */
+        public void linkChecked(String linkName, String linkDisplayName, Boolean linkHealthy, boolean failed) {
+            if (failed || Boolean.FALSE.equals(linkHealthy)) {
+                unhealthy.incrementAndGet();
+            } else if (Boolean.TRUE.equals(linkHealthy)) {
+                healthy.incrementAndGet();
+            }
+            done.incrementAndGet();
+
+            ProgressEvent event = event(EventType.LINK_CHECKED);
+            event.setLinkName(linkName);
+            event.setLinkDisplayName(linkDisplayName);
+            event.setLinkHealthy(failed ? Boolean.FALSE : linkHealthy);
+            emit(event);
+        }
+
+        /**
+         * 监测结束
+         */
+        public void finish() {
+            emit(event(EventType.FINISHED));
+        }
+
+        private ProgressEvent event(EventType type) {
+            int doneCount = done.get();
+            long elapsedMillis = Duration.between(startedAt, Instant.now()).toMillis();
+
+            ProgressEvent event = new ProgressEvent();
+            event.setRunId(runId);
+            event.setRunType(runType);
+            event.setType(type);
+            event.setTotal(total);
+            event.setDone(doneCount);
+            event.setRemaining(Math.max(total - doneCount, 0));
+            event.setHealthy(healthy.get());
+            event.setUnhealthy(unhealthy.get());
+            event.setElapsedSeconds(elapsedMillis / 1000);
+            if (doneCount > 0 && elapsedMillis > 0) {
+                double throughput = doneCount * 1000.0 / elapsedMillis;
+                // 保留两位小数
+                event.setThroughput(Math.round(throughput * 100) / 100.0);
+                event.setEtaSeconds(Math.round(event.getRemaining() / throughput));
+            }
+            return event;
+        }
+    }
+
+    /**
+     * 监测类型
+     */
+    public enum RunType {
+        // 定时的完整监测
+        FULL,
+        // 只监测部分友链并合并（友链修改后、分散监测）
+        PARTIAL
+    }
+
+    /**
+     * 进度事件类型
+     */
+    public enum EventType {
+        STARTED,
+        LINK_CHECKED,
+        FINISHED
+    }
+
+    /**
+     * 监测进度
+     */
+    @Data
+    public static class ProgressEvent {
+
+        // 监测的id
+        private String runId;
+
+        // 监测类型
+        private RunType runType;
+
+        // 事件类型
+        private EventType type;
+
+        // 友链总数
+        private int total;
+
+        // 已完成数
+        private int done;
+
+        // 剩余数
+        private int remaining;
+
+        // 正常的友链数
+        private int healthy;
+
+        // 异常（包括监测失败）的友链数
+        private int unhealthy;
+
+        // 已用时间（秒）
+        private long elapsedSeconds;
+
+        // 吞吐量（每秒完成的友链数，还没有完成的友链时为null）
+        private Double throughput;
+
+        // 预计剩余时间（秒，还没有完成的友链时为null）
+        private Long etaSeconds;
+
+        // 本次完成的友链（LINK_CHECKED时）
+        // 友链的name
+        private String linkName;
+
+        // 友链的网站名称
+        private String linkDisplayName;
+
+        // 是否正常（无需监测的友链为null）
+        private Boolean linkHealthy;
+    }
+}
@@ -0,0 +1,78 @@
+package cool.tch.linkshealthmonitor.task;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+import static cool.tch.linkshealthmonitor.constant.Constant.STREAM_READ_BUFFER_BYTES;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/18 18:40
+ * @Desc 边接收边扫描的BodySubscriber（扫描器得到结果后取消订阅，不再下载剩余内容）
+ */
+public class ScanningBodySubscriber<T extends StreamingScanner> implements HttpResponse.BodySubscriber<T> {
+
+    // 扫描器
+    private final T scanner;
+
+    // 从ByteBuffer复制内容用的缓冲区（ByteBuffer可能是只读或直接内存，不能直接取数组）
+    private final byte[] chunk = new byte[STREAM_READ_BUFFER_BYTES];
+
+    // 扫描结果
+    private final CompletableFuture<T> body = new CompletableFuture<>();
+
+    private Flow.Subscription subscription;
+
+    public ScanningBodySubscriber(T scanner) {
+        this.scanner = scanner;
+    }
+
+    @Override
+    public CompletionStage<T> getBody() {
+        return body;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(1);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> items) {
+        // 取消订阅后可能还会收到已在途的数据
+        if (body.isDone()) {
+            return;
+        }
+
+        for (ByteBuffer item : items) {
+            while (item.hasRemaining() && !scanner.isDone()) {
+                int count = Math.min(item.remaining(), chunk.length);
+                item.get(chunk, 0, count);
+                scanner.feed(chunk, 0, count);
+            }
+        }
+
+        if (scanner.isDone()) {
+            // 已得到结果，取消剩余内容的下载
+            subscription.cancel();
+            body.complete(scanner);
+        } else {
+            subscription.request(1);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        body.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        body.complete(scanner);
+    }
+}
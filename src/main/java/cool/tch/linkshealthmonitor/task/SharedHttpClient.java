@@ -0,0 +1,128 @@
+package cool.tch.linkshealthmonitor.task;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
+import java.net.http.HttpClient;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+
+import static cool.tch.linkshealthmonitor.constant.Constant.HTTP_TIMEOUT_MS;
+import static cool.tch.linkshealthmonitor.constant.Constant.LINKS_HEALTH_MONITOR;
+import static cool.tch.linkshealthmonitor.constant.Constant.LINKS_HEALTH_MONITOR_DESC;
+import static cool.tch.linkshealthmonitor.constant.Constant.TLS_SESSION_CACHE_SIZE;
+import static cool.tch.linkshealthmonitor.constant.Constant.TLS_SESSION_TIMEOUT_SECONDS;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/18 21:30
+ * @Desc 插件共用的HTTP客户端（连接池复用keep-alive连接、HTTP/2多路复用、TLS会话恢复）和外部请求限流
+ * 所有监测请求都通过它发出，插件停止时关闭
+ */
+@Component
+@Slf4j
+public class SharedHttpClient {
+
+    // HTTP客户端（第一次使用时创建，HTTP/2设置变更时重新创建）
+    private HttpClient httpClient;
+
+    // 当前客户端是否启用HTTP/2
+    private boolean http2Enable;
+
+    // 外部请求限流（第一次使用时创建，限流设置变更时重新创建）
+    private HostRateLimiter limiter;
+
+    // 当前限流的设置
+    private LimiterSettings limiterSettings;
+
+    // 是否已关闭
+    private boolean closed;
+
+    /**
+     * 获取HTTP客户端
+     * @param http2Enable 是否启用HTTP/2
+     * @return HTTP客户端
+     */
+    public synchronized HttpClient get(boolean http2Enable) {
+        if (closed) {
+            throw new IllegalStateException("HTTP客户端已关闭");
+        }
+
+        if (httpClient == null || this.http2Enable != http2Enable) {
+            HttpClient previous = httpClient;
+            httpClient = build(http2Enable);
+            this.http2Enable = http2Enable;
+            // 旧客户端处理完正在进行的请求后关闭
+            if (previous != null) {
+                previous.shutdown();
+            }
+        }
+        return httpClient;
+    }
+
+    /**
+     * 获取外部请求限流（插件内同时进行的监测共用一个，上限对所有监测合计生效）
+     * @param perHostConcurrency 同一主机的并发上限
+     * @param requestsPerSecond 全局每秒请求数（小于1时不限制）
+     * @param maxConnections 同时打开的连接数上限
+     * @return 外部请求限流
+     */
+    public synchronized HostRateLimiter limiter(int perHostConcurrency, int requestsPerSecond, int maxConnections) {
+        LimiterSettings settings = new LimiterSettings(perHostConcurrency, requestsPerSecond, maxConnections);
+        // 旧的限流由正在进行的请求归还许可后不再使用
+        if (limiter == null || !settings.equals(limiterSettings)) {
+            limiter = new HostRateLimiter(perHostConcurrency, requestsPerSecond, maxConnections);
+            limiterSettings = settings;
+        }
+        return limiter;
+    }
+
+    /**
+     * 关闭HTTP客户端（插件停止时调用），正在进行的请求立即中止
+     */
+    public synchronized void close() {
+        closed = true;
+        if (httpClient != null) {
+            httpClient.shutdownNow();
+            httpClient = null;
+        }
+    }
+
+    /**
+     * 创建HTTP客户端
+     */
+    private static HttpClient build(boolean http2Enable) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+            .version(http2Enable ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofMillis(HTTP_TIMEOUT_MS))
+            // 重定向由LinkProber手动跟随（需要在读取内容前知道每一跳的地址）
+            .followRedirects(HttpClient.Redirect.NEVER);
+
+        try {
+            builder.sslContext(sslContext());
+        } catch (GeneralSecurityException e) {
+            // 使用默认的SSLContext
+            log.error("{}【{}】创建SSLContext失败: {}", LINKS_HEALTH_MONITOR_DESC, LINKS_HEALTH_MONITOR, e.getMessage(), e);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 独立的SSLContext（会话缓存只供本插件使用，同一主机的后续连接可以恢复会话）
+     */
+    private static SSLContext sslContext() throws GeneralSecurityException {
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(null, null, null);
+        SSLSessionContext sessionContext = sslContext.getClientSessionContext();
+        sessionContext.setSessionCacheSize(TLS_SESSION_CACHE_SIZE);
+        sessionContext.setSessionTimeout(TLS_SESSION_TIMEOUT_SECONDS);
+        return sslContext;
+    }
+
+    /**
+     * 限流的设置
+     */
+    private record LimiterSettings(int perHostConcurrency, int requestsPerSecond, int maxConnections) {
+    }
+}
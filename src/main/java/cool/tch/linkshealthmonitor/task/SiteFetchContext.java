@@ -0,0 +1,62 @@
+package cool.tch.linkshealthmonitor.task;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/18 15:32
+ * @Desc 单次监测内的页面获取上下文（同一地址只发出一次GET请求，结果供所有监测复用）
+ * 只需要标题的请求和同时扫描本站友链的请求分别复用
+ */
+public class SiteFetchContext {
+
+    // 地址和是否扫描本站友链 -> 页面的请求结果
+    private final Map<Key, CompletableFuture<SiteResponse>> responses = new ConcurrentHashMap<>();
+
+    // 实际获取页面的方法（参数为地址和是否扫描本站友链，异步完成）
+    private final BiFunction<String, Boolean, CompletableFuture<SiteResponse>> fetcher;
+
+    public SiteFetchContext(BiFunction<String, Boolean, CompletableFuture<SiteResponse>> fetcher) {
+        this.fetcher = fetcher;
+    }
+
+    /**
+     * 获取页面（同一地址只请求一次，并发获取时后来者等待第一次请求的结果）
+     * @param url 页面地址（标准化后）
+     * @param scanBacklink 是否扫描本站友链
+     * @return 页面的请求结果（不会异常完成）
+     */
+    public CompletableFuture<SiteResponse> fetch(String url, boolean scanBacklink) {
+        Key key = new Key(url, scanBacklink);
+        CompletableFuture<SiteResponse> existing = responses.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        CompletableFuture<SiteResponse> created = new CompletableFuture<>();
+        existing = responses.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        // 在锁外请求，避免阻塞请求占用ConcurrentHashMap的桶
+        try {
+            fetcher.apply(url, scanBacklink).whenComplete((response, error) ->
+                created.complete(error == null && response != null ? response : SiteResponse.failed()));
+        } catch (Exception e) {
+            created.complete(SiteResponse.failed());
+        }
+        return created;
+    }
+
+    /**
+     * 请求结果的缓存键
+     * @param url 页面地址（标准化后）
+     * @param scanBacklink 是否扫描本站友链
+     */
+    private record Key(String url, boolean scanBacklink) {
+    }
+}
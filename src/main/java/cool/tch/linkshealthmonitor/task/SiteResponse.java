@@ -0,0 +1,63 @@
+package cool.tch.linkshealthmonitor.task;
+
+import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorResult;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.net.HttpURLConnection;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/18 15:20
+ * @Desc 网站页面的一次GET请求结果（同一次监测内供网站可访问、网站名称、友链页面等监测复用）
+ */
+@Getter
+@AllArgsConstructor
+public class SiteResponse {
+
+    // 访问失败（网络异常、超时等）时的状态码
+    public static final int FAILED_STATUS_CODE = -1;
+
+    // 响应的状态码
+    private final int statusCode;
+
+    // 跟随重定向后的最终地址
+    private final String finalUrl;
+
+    // 页面标题（页面获取成功时）
+    private final String title;
+
+    // 页面中是否包含本站友链（页面获取成功且需要扫描时，否则为null）
+    private final Boolean containsOurLink;
+
+    // 请求各阶段的耗时（没有实际发出请求时为null）
+    private final LinksHealthMonitorResult.ProbeTiming timing;
+
+    public SiteResponse(int statusCode, String finalUrl, String title, Boolean containsOurLink) {
+        this(statusCode, finalUrl, title, containsOurLink, null);
+    }
+
+    /**
+     * 访问失败的结果
+     * @return 访问失败的结果
+     */
+    public static SiteResponse failed() {
+        return new SiteResponse(FAILED_STATUS_CODE, null, null, null);
+    }
+
+    /**
+     * 加上请求各阶段的耗时
+     * @param timing 请求各阶段的耗时
+     * @return 新的请求结果
+     */
+    public SiteResponse withTiming(LinksHealthMonitorResult.ProbeTiming timing) {
+        return new SiteResponse(statusCode, finalUrl, title, containsOurLink, timing);
+    }
+
+    /**
+     * 网站是否可以访问
+     * @return 网站是否可以访问
+     */
+    public boolean isAccessible() {
+        return statusCode == HttpURLConnection.HTTP_OK;
+    }
+}
@@ -0,0 +1,80 @@
+package cool.tch.linkshealthmonitor.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/19 09:20
+ * @Desc 分散监测的计划（每个友链根据name的哈希在监测周期内得到偏移，同一时间片内的友链一起监测）
+ * 监测周期在每次执行时按到下次执行的间隔重新计算：间隔固定的Cron（例如每小时）同一个友链的偏移不变，两次监测的间隔是一个周期；
+ * 间隔不固定的Cron（例如只在工作日执行）周期长短不同，偏移也随之变化，两次监测的间隔不一定是一个周期
+ */
+public class SpreadPlan {
+
+    private SpreadPlan() {
+    }
+
+    /**
+     * 友链在监测周期内的偏移
+     * @param linkName 友链的name
+     * @param window 监测周期
+     * @return 偏移（0 ~ window，不包含window）
+     */
+    public static Duration offsetOf(String linkName, Duration window) {
+        long windowMillis = Math.max(window.toMillis(), 1);
+        return Duration.ofMillis(Math.floorMod(mix(linkName.hashCode()), windowMillis));
+    }
+
+    /**
+     * 把友链按偏移分到时间片中
+     * @param linkNames 友链的name
+     * @param window 监测周期
+     * @param slot 时间片的长度
+     * @return 时间片的开始偏移 -> 该时间片内的友链name（按偏移排序）
+     */
+    public static SortedMap<Duration, List<String>> plan(Collection<String> linkNames, Duration window, Duration slot) {
+        long slotMillis = Math.max(slot.toMillis(), 1);
+        SortedMap<Duration, List<String>> slots = new TreeMap<>();
+        for (String linkName : linkNames) {
+            long offsetMillis = offsetOf(linkName, window).toMillis();
+            Duration slotStart = Duration.ofMillis(offsetMillis / slotMillis * slotMillis);
+            slots.computeIfAbsent(slotStart, key -> new ArrayList<>()).add(linkName);
+        }
+        return slots;
+    }
+
+    /**
+     * 分散监测的进度
+     */
+    @AllArgsConstructor
+    @Getter
+    @ToString
+    public static class Progress {
+        // 友链总数
+        private int linkCount;
+        // 批次数
+        private int slotCount;
+        // 已监测的批次数
+        private int checkedSlotCount;
+        // 监测周期（秒）
+        private long windowSeconds;
+    }
+
+    /**
+     * 打散哈希值（name相近的友链也能均匀分布）
+     */
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
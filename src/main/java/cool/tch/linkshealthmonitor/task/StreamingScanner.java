@@ -0,0 +1,24 @@
+package cool.tch.linkshealthmonitor.task;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/18 18:02
+ * @Desc 边读取边扫描的页面内容扫描器（得到结果后即可停止读取，不需要下载和解析整个页面）
+ */
+public interface StreamingScanner {
+
+    /**
+     * 输入一段页面内容
+     * @param bytes 内容
+     * @param offset 起始位置
+     * @param length 长度
+     * @return 是否已经可以停止读取
+     */
+    boolean feed(byte[] bytes, int offset, int length);
+
+    /**
+     * 是否已经可以停止读取
+     * @return 是否已经可以停止读取
+     */
+    boolean isDone();
+}
@@ -0,0 +1,210 @@
+package cool.tch.linkshealthmonitor.task;
+
+import org.apache.commons.lang3.StringUtils;
+import org.jsoup.parser.Parser;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/18 18:10
+ * @Desc 流式的页面标题提取（读到</title>、</head>或<body>即结束，且最多读取指定字节数）
+ * 按字节匹配标签，适用于UTF-8、GBK等兼容ASCII的编码
+ */
+public class TitleExtractor implements StreamingScanner {
+
+    private static final byte[] TITLE_OPEN = bytes("<title");
+    private static final byte[] TITLE_CLOSE = bytes("</title");
+    private static final byte[] HEAD_CLOSE = bytes("</head");
+    private static final byte[] BODY_OPEN = bytes("<body");
+
+    // 标签可能被分在两段内容里，继续扫描时回退的字节数（不小于最长的标签加一个边界字符）
+    private static final int RESCAN_BYTES = 8;
+
+    // 页面<meta>中声明的字符集
+    private static final Pattern META_CHARSET = Pattern.compile("<meta[^>]+charset\\s*=\\s*[\"']?\\s*([\\w.:-]+)", Pattern.CASE_INSENSITIVE);
+
+    // 连续空白
+    private static final Pattern WHITESPACES = Pattern.compile("\\s+");
+
+    // 最多读取的字节数
+    private final int maxBytes;
+
+    // 已读取的内容
+    private byte[] buffer;
+
+    // 已读取的字节数
+    private int length;
+
+    // 已扫描到的位置
+    private int scanned;
+
+    // 标题内容的开始位置（<title>之后）
+    private int titleStart = -1;
+
+    // 标题内容的结束位置（</title>之前）
+    private int titleEnd = -1;
+
+    private boolean done;
+
+    public TitleExtractor(int maxBytes) {
+        this.maxBytes = maxBytes;
+        this.buffer = new byte[Math.min(maxBytes, 4096)];
+    }
+
+    @Override
+    public boolean feed(byte[] bytes, int offset, int count) {
+        if (done) {
+            return true;
+        }
+
+        int accepted = Math.min(count, maxBytes - length);
+        if (length + accepted > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.min(maxBytes, Math.max(buffer.length * 2, length + accepted)));
+        }
+        System.arraycopy(bytes, offset, buffer, length, accepted);
+        length += accepted;
+
+        scan();
+        // 达到读取上限
+        if (length >= maxBytes) {
+            done = true;
+        }
+        return done;
+    }
+
+    @Override
+    public boolean isDone() {
+        return done;
+    }
+
+    /**
+     * 获取页面标题（与Jsoup的document.title()一致：解码实体、合并空白、去除首尾空白）
+     * @param headerCharset 响应头中的字符集（没有时为null）
+     * @return 页面标题（没有标题时为空字符串）
+     */
+    public String getTitle(String headerCharset) {
+        if (titleStart < 0) {
+            return "";
+        }
+
+        // 没有读到</title>时（超过读取上限或页面被截断），取已读取的内容
+        int end = titleEnd < 0 ? length : titleEnd;
+        String raw = new String(buffer, titleStart, Math.max(0, end - titleStart), resolveCharset(headerCharset));
+        String title = Parser.unescapeEntities(raw, false);
+        return WHITESPACES.matcher(title).replaceAll(" ").trim();
+    }
+
+    /**
+     * 已读取的字节数
+     * @return 已读取的字节数
+     */
+    public int getBytesRead() {
+        return length;
+    }
+
+    /**
+     * 从上次扫描的位置继续扫描
+     */
+    private void scan() {
+        int from = Math.max(0, scanned - RESCAN_BYTES);
+
+        if (titleStart < 0) {
+            int open = indexOfTag(TITLE_OPEN, from);
+            if (open < 0) {
+                // <head>结束了也没有标题
+                if (indexOfTag(HEAD_CLOSE, from) >= 0 || indexOfTag(BODY_OPEN, from) >= 0) {
+                    done = true;
+                }
+                scanned = length;
+                return;
+            }
+
+            int gt = indexOf((byte) '>', open + TITLE_OPEN.length);
+            if (gt < 0) {
+                // <title ...>还没读完整
+                scanned = open + RESCAN_BYTES;
+                return;
+            }
+            titleStart = gt + 1;
+            from = titleStart;
+        }
+
+        int close = indexOfTag(TITLE_CLOSE, Math.max(from, titleStart));
+        if (close >= 0) {
+            titleEnd = close;
+            done = true;
+        }
+        scanned = length;
+    }
+
+    /**
+     * 确定字符集：响应头 > 页面<meta> > UTF-8
+     */
+    private Charset resolveCharset(String headerCharset) {
+        String charset = headerCharset;
+        if (StringUtils.isBlank(charset)) {
+            Matcher matcher = META_CHARSET.matcher(new String(buffer, 0, titleStart, StandardCharsets.ISO_8859_1));
+            if (matcher.find()) {
+                charset = matcher.group(1);
+            }
+        }
+
+        try {
+            if (StringUtils.isNotBlank(charset) && Charset.isSupported(charset)) {
+                return Charset.forName(charset);
+            }
+        } catch (IllegalArgumentException e) {
+            // 字符集名称不合法
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * 查找标签（不区分大小写，且标签名后必须是空白、"/"或">"，避免</head>匹配到</header>）
+     * @return 标签的位置（没找到或者标签后的字符还没读到时为-1）
+     */
+    private int indexOfTag(byte[] tag, int from) {
+        int last = length - tag.length - 1;
+        for (int i = from; i <= last; i++) {
+            if (regionMatchesIgnoreCase(i, tag) && isTagBoundary(buffer[i + tag.length])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int indexOf(byte target, int from) {
+        for (int i = from; i < length; i++) {
+            if (buffer[i] == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean regionMatchesIgnoreCase(int offset, byte[] tag) {
+        for (int i = 0; i < tag.length; i++) {
+            byte b = buffer[offset + i];
+            // 转小写（只处理ASCII大写字母）
+            if (b >= 'A' && b <= 'Z') {
+                b += 'a' - 'A';
+            }
+            if (b != tag[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isTagBoundary(byte b) {
+        return b == '>' || b == '/' || b == ' ' || b == '\t' || b == '\n' || b == '\r' || b == '\f';
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
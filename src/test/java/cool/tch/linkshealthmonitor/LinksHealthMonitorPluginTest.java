@@ -1,5 +1,8 @@
 package cool.tch.linkshealthmonitor;
 
+import cool.tch.linkshealthmonitor.task.LinksHealthMonitorTask;
+import cool.tch.linkshealthmonitor.task.MonitorMetrics;
+import cool.tch.linkshealthmonitor.task.SharedHttpClient;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -20,6 +23,15 @@ class LinksHealthMonitorPluginTest {
     @Mock
     SchemeManager schemeManager;
 
+    @Mock
+    SharedHttpClient sharedHttpClient;
+
+    @Mock
+    MonitorMetrics monitorMetrics;
+
+    @Mock
+    LinksHealthMonitorTask linksHealthMonitorTask;
+
     @Test
     void contextLoads() {
         plugin.start();
@@ -0,0 +1,111 @@
+package cool.tch.linkshealthmonitor.tasks;
+
+import cool.tch.linkshealthmonitor.task.BacklinkScanner;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/18 20:10
+ * @Desc BacklinkScanner有关测试
+ */
+public class BacklinkScannerTest {
+
+    private static final String OUR_URL = "https://tch.cool";
+
+    private static final String PAGE_URL = "https://friend.example.com/links/";
+
+    @ParameterizedTest
+    @MethodSource("pages")
+    @DisplayName("参数化测试 - 各种友链页面（每次只输入一个字节）")
+    void testFeed(String desc, String html, boolean expected) {
+        BacklinkScanner scanner = new BacklinkScanner(OUR_URL, PAGE_URL, StandardCharsets.UTF_8);
+        byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < bytes.length && !scanner.isDone(); i++) {
+            scanner.feed(bytes, i, 1);
+        }
+        assertEquals(expected, scanner.isFound(), desc);
+    }
+
+    private static Stream<Arguments> pages() {
+        return Stream.of(
+            arguments("绝对地址", "<ul><li><a class=\"x\" href=\"https://tch.cool\">天成诸君</a></li></ul>", true),
+            arguments("大写标签、单引号", "<A TARGET=_blank HREF='https://tch.cool'>x</A>", true),
+            arguments("不带引号", "<a href=https://tch.cool>x</a>", true),
+            arguments("协议相对地址", "<a href=\"//tch.cool\">x</a>", true),
+            arguments("实体编码", "<a href=\"https&#58;//tch.cool\">x</a>", true),
+            arguments("首尾空白", "<a href=\"  https://tch.cool\n\">x</a>", true),
+            arguments("<base>", "<head><base href=\"https://tch.cool/blog/\"></head><a href=\"..\">x</a>", false),
+            arguments("相对地址", "<a href=\"/\">x</a>", false),
+            arguments("input", "<form><input value=\"https://tch.cool\" type=\"Submit\"></form>", true),
+            arguments("input（不是submit）", "<input type=\"text\" value=\"https://tch.cool\">", false),
+            arguments("带末尾/的地址", "<a href=\"https://tch.cool/\">x</a>", false),
+            arguments("其他网站", "<a href=\"https://tch.cool.example.com\">x</a>", false),
+            arguments("注释中", "<!-- <a href=\"https://tch.cool\">x</a> -->", false),
+            arguments("script中", "<script>document.write('<a href=\"https://tch.cool\">x</a>')</script>", false),
+            arguments("script之后", "<script>var a = '<a>';</script><a href=\"https://tch.cool\">x</a>", true),
+            arguments("属性值中的>", "<a title=\"a>b\" href=\"https://tch.cool\">x</a>", true)
+        );
+    }
+
+    @Test
+    @DisplayName("测试<base>解析相对地址")
+    void testFeed_baseTag() {
+        String html = "<head><base href=\"https://tch.cool/blog/\"></head><a href=\"/\">x</a>";
+        BacklinkScanner scanner = new BacklinkScanner("https://tch.cool/", PAGE_URL, StandardCharsets.UTF_8);
+        byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
+        assertTrue(scanner.feed(bytes, 0, bytes.length));
+    }
+
+    @ParameterizedTest
+    @MethodSource("relativeLinks")
+    @DisplayName("参数化测试 - 相对地址按页面地址解析")
+    void testFeed_relativeLink(String ourUrl, String pageUrl, String href) {
+        byte[] bytes = ("<a href=\"" + href + "\">x</a>").getBytes(StandardCharsets.UTF_8);
+        BacklinkScanner scanner = new BacklinkScanner(ourUrl, pageUrl, StandardCharsets.UTF_8);
+        assertTrue(scanner.feed(bytes, 0, bytes.length), href);
+    }
+
+    private static Stream<Arguments> relativeLinks() {
+        return Stream.of(
+            // 页面地址没有路径
+            arguments("https://tch.cool/links", "https://tch.cool", "links"),
+            arguments("https://tch.cool/a/c", "https://tch.cool/a/b/", "../c"),
+            // 只有查询参数
+            arguments("https://tch.cool/a/b?from=links", "https://tch.cool/a/b?page=1", "?from=links"),
+            // 空地址就是页面地址
+            arguments("https://tch.cool/a/b", "https://tch.cool/a/b", ""),
+            arguments("https://tch.cool/a/b#top", "https://tch.cool/a/b", "#top")
+        );
+    }
+
+    @Test
+    @DisplayName("测试找到本站友链后停止读取")
+    void testFeed_stopAfterFound() {
+        byte[] first = "<a href=\"https://tch.cool\">x</a>".getBytes(StandardCharsets.UTF_8);
+        BacklinkScanner scanner = new BacklinkScanner(OUR_URL, PAGE_URL, StandardCharsets.UTF_8);
+
+        assertTrue(scanner.feed(first, 0, first.length));
+        // 之后的内容不再处理
+        byte[] rest = "<a href=\"https://other.example.com\">".getBytes(StandardCharsets.UTF_8);
+        assertTrue(scanner.feed(rest, 0, rest.length));
+        assertTrue(scanner.isFound());
+    }
+
+    @Test
+    @DisplayName("测试国际化域名的Unicode形式和punycode形式都能匹配")
+    void testFeed_internationalizedDomain() {
+        byte[] bytes = "<a href=\"https://例子.测试\">x</a>".getBytes(StandardCharsets.UTF_8);
+        BacklinkScanner scanner = new BacklinkScanner("https://xn--fsqu00a.xn--0zwm56d", PAGE_URL, StandardCharsets.UTF_8);
+        assertTrue(scanner.feed(bytes, 0, bytes.length));
+    }
+}
@@ -0,0 +1,71 @@
+package cool.tch.linkshealthmonitor.tasks;
+
+import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorResult;
+import cool.tch.linkshealthmonitor.service.CustomResourceService;
+import cool.tch.linkshealthmonitor.task.ResultDelta;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import run.halo.app.extension.Metadata;
+import run.halo.app.extension.ReactiveExtensionClient;
+import run.halo.app.infra.ExternalUrlSupplier;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/20 10:20
+ * @Desc CustomResourceService有关测试
+ */
+public class CustomResourceServiceTest {
+
+    @Test
+    @DisplayName("测试根据关键帧还原增量，关键帧不存在时不把增量当作完整的监测结果")
+    void testResolveResult() {
+        LinksHealthMonitorResult.ResultSpec keyframeSpec = spec(List.of(record("a"), record("b")));
+        LinksHealthMonitorResult.ResultSpec delta = ResultDelta.encode(keyframeSpec, spec(List.of(record("a"), record("c"))));
+        delta.setKeyframeName("keyframe");
+        delta.setDeltaIndex(1);
+
+        ReactiveExtensionClient client = mock(ReactiveExtensionClient.class);
+        CustomResourceService service = new CustomResourceService(client, mock(ExternalUrlSupplier.class));
+
+        // 关键帧存在
+        when(client.fetch(LinksHealthMonitorResult.class, "keyframe")).thenReturn(Mono.just(result("keyframe", keyframeSpec)));
+        LinksHealthMonitorResult resolved = service.resolveResult(result("delta", delta)).block();
+        assertEquals(List.of("a", "c"), resolved.getResultSpec().getLinkHealthMonitorRecordList().stream()
+            .map(LinksHealthMonitorResult.LinkHealthMonitorRecord::getLinkName).toList());
+
+        // 关键帧不存在
+        when(client.fetch(LinksHealthMonitorResult.class, "keyframe")).thenReturn(Mono.empty());
+        assertNull(service.resolveResult(result("delta", delta)).block());
+    }
+
+    private static LinksHealthMonitorResult result(String name, LinksHealthMonitorResult.ResultSpec resultSpec) {
+        Metadata metadata = new Metadata();
+        metadata.setName(name);
+        LinksHealthMonitorResult result = new LinksHealthMonitorResult();
+        result.setMetadata(metadata);
+        result.setResultSpec(resultSpec);
+        return result;
+    }
+
+    private static LinksHealthMonitorResult.ResultSpec spec(List<LinksHealthMonitorResult.LinkHealthMonitorRecord> records) {
+        LinksHealthMonitorResult.ResultSpec spec = new LinksHealthMonitorResult.ResultSpec();
+        spec.setOurUrl("https://tch.cool");
+        spec.setLinkHealthMonitorRecordList(records);
+        return spec;
+    }
+
+    private static LinksHealthMonitorResult.LinkHealthMonitorRecord record(String linkName) {
+        LinksHealthMonitorResult.LinkHealthMonitorRecord record = new LinksHealthMonitorResult.LinkHealthMonitorRecord();
+        record.setLinkName(linkName);
+        record.setLinkUrl("https://" + linkName + ".example.com");
+        record.setWebsiteAccessible(true);
+        return record;
+    }
+}
@@ -0,0 +1,95 @@
+package cool.tch.linkshealthmonitor.tasks;
+
+import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorDailySummary;
+import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorResult;
+import cool.tch.linkshealthmonitor.task.DailyRollup;
+import cool.tch.linkshealthmonitor.task.LinksHealthMonitorUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/19 11:10
+ * @Desc DailyRollup有关测试
+ */
+public class DailyRollupTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2026-10-18T12:00:00Z");
+
+    @Test
+    @DisplayName("测试按北京时间确定监测结果所属的日期")
+    void testDateOf() {
+        // UTC 16:00 是北京时间第二天 0:00
+        assertEquals(LocalDate.of(2026, 10, 19), DailyRollup.dateOf(Instant.parse("2026-10-18T16:00:00Z")));
+        assertEquals(LocalDate.of(2026, 10, 18), DailyRollup.dateOf(Instant.parse("2026-10-18T15:59:59Z")));
+        assertEquals("links-health-monitor-daily-2026-10-18", DailyRollup.summaryNameOf(LocalDate.of(2026, 10, 18)));
+    }
+
+    @Test
+    @DisplayName("测试汇总每个友链的监测次数和可用率，已汇总过的监测结果不重复汇总")
+    void testFold() {
+        LinksHealthMonitorDailySummary.SummarySpec summarySpec = new LinksHealthMonitorDailySummary.SummarySpec();
+
+        assertTrue(DailyRollup.fold(summarySpec, result(true), CREATED_AT));
+        assertTrue(DailyRollup.fold(summarySpec, result(false), CREATED_AT.plusSeconds(60)));
+        assertTrue(DailyRollup.fold(summarySpec, result(true), CREATED_AT.plusSeconds(120)));
+        // 重复汇总
+        assertFalse(DailyRollup.fold(summarySpec, result(true), CREATED_AT.plusSeconds(120)));
+
+        assertEquals(3, summarySpec.getResultCount());
+        assertEquals(1, summarySpec.getLinkUptimeList().size());
+        LinksHealthMonitorDailySummary.LinkUptime uptime = summarySpec.getLinkUptimeList().get(0);
+        assertEquals(3, uptime.getChecks());
+        assertEquals(2, uptime.getHealthyChecks());
+        assertEquals(2, uptime.getWebsiteAccessibleChecks());
+        assertEquals(3, uptime.getLogoAccessibleChecks());
+        assertEquals(66.67, uptime.getUptime());
+    }
+
+    @Test
+    @DisplayName("测试网站名称一致、包含本站友链的正常友链计入可用率")
+    void testFoldHealthyRecord() {
+        LinksHealthMonitorDailySummary.SummarySpec summarySpec = new LinksHealthMonitorDailySummary.SummarySpec();
+
+        // 与监测时写入的记录相同：网站标题包含网站名称，友链页面包含本站友链
+        LinksHealthMonitorResult.ResultSpec healthy = result(true);
+        LinksHealthMonitorResult.LinkHealthMonitorRecord record = healthy.getLinkHealthMonitorRecordList().get(0);
+        LinksHealthMonitorUtils.applyLatestTitle("朋友的博客 - 记录生活", record.getLinkDisplayName(), record);
+        record.setFriendLinkRoute("https://friend.example.com/links");
+        record.setContainsOurLink(true);
+        assertTrue(DailyRollup.fold(summarySpec, healthy, CREATED_AT));
+
+        // 网站改名
+        LinksHealthMonitorResult.ResultSpec renamed = result(true);
+        LinksHealthMonitorUtils.applyLatestTitle("新的名字", "朋友", renamed.getLinkHealthMonitorRecordList().get(0));
+        assertTrue(DailyRollup.fold(summarySpec, renamed, CREATED_AT.plusSeconds(60)));
+
+        LinksHealthMonitorDailySummary.LinkUptime uptime = summarySpec.getLinkUptimeList().get(0);
+        assertEquals(1, uptime.getHealthyChecks());
+        assertEquals(2, uptime.getWebsiteAccessibleChecks());
+        assertEquals(1, uptime.getContainsOurLinkChecks());
+        assertEquals(50.0, uptime.getUptime());
+    }
+
+    private static LinksHealthMonitorResult.ResultSpec result(boolean websiteAccessible) {
+        LinksHealthMonitorResult.LinkHealthMonitorRecord record = new LinksHealthMonitorResult.LinkHealthMonitorRecord();
+        record.setLinkName("link-1");
+        record.setLinkUrl("https://friend.example.com");
+        record.setLinkDisplayName("朋友");
+        record.setWebsiteAccessible(websiteAccessible);
+        record.setLogoAccessible(true);
+        // 网站标题与网站名称一致
+        record.setDisplayNameChanged(true);
+
+        LinksHealthMonitorResult.ResultSpec resultSpec = new LinksHealthMonitorResult.ResultSpec();
+        resultSpec.setLinkHealthMonitorRecordList(List.of(record));
+        return resultSpec;
+    }
+}
@@ -0,0 +1,139 @@
+package cool.tch.linkshealthmonitor.tasks;
+
+import cool.tch.linkshealthmonitor.task.HostRateLimiter;
+import cool.tch.linkshealthmonitor.task.SharedHttpClient;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/19 22:10
+ * @Desc HostRateLimiter有关测试（不限制每秒请求数时，许可在订阅时或归还时直接交给请求；令牌桶使用注入的时钟）
+ */
+public class HostRateLimiterTest {
+
+    @Test
+    @DisplayName("测试同一主机的并发上限，归还后交给同一主机等待中的请求")
+    void testPerHostConcurrency() {
+        HostRateLimiter limiter = new HostRateLimiter(1, 0, 10);
+
+        AtomicReference<HostRateLimiter.Permit> first = acquire(limiter, "https://a.example.com/1");
+        AtomicReference<HostRateLimiter.Permit> second = acquire(limiter, "https://A.example.com/2");
+        AtomicReference<HostRateLimiter.Permit> other = acquire(limiter, "https://b.example.com/");
+        assertNotNull(first.get());
+        assertNull(second.get());
+        // 其他主机不受影响
+        assertNotNull(other.get());
+
+        first.get().close();
+        assertNotNull(second.get());
+    }
+
+    @Test
+    @DisplayName("测试连接数上限，归还后按到达顺序交给主机未达上限的请求")
+    void testMaxConnections() {
+        HostRateLimiter limiter = new HostRateLimiter(1, 0, 2);
+
+        AtomicReference<HostRateLimiter.Permit> a = acquire(limiter, "https://a.example.com/");
+        AtomicReference<HostRateLimiter.Permit> b = acquire(limiter, "https://b.example.com/");
+        AtomicReference<HostRateLimiter.Permit> a2 = acquire(limiter, "https://a.example.com/2");
+        AtomicReference<HostRateLimiter.Permit> c = acquire(limiter, "https://c.example.com/");
+        AtomicReference<HostRateLimiter.Permit> d = acquire(limiter, "https://d.example.com/");
+        assertNull(a2.get());
+        assertNull(c.get());
+
+        // a.example.com仍在请求中，跳过a2交给c
+        b.get().close();
+        assertNull(a2.get());
+        assertNotNull(c.get());
+        assertNull(d.get());
+
+        // 排在前面的a2先拿到
+        a.get().close();
+        assertNotNull(a2.get());
+        assertNull(d.get());
+
+        // 重复关闭只归还一次
+        a.get().close();
+        assertNull(d.get());
+        c.get().close();
+        assertNotNull(d.get());
+    }
+
+    @Test
+    @DisplayName("测试等待中的请求被取消后不占用许可")
+    void testCancelledWaiter() {
+        HostRateLimiter limiter = new HostRateLimiter(1, 0, 1);
+
+        AtomicReference<HostRateLimiter.Permit> first = acquire(limiter, "https://a.example.com/");
+        AtomicReference<HostRateLimiter.Permit> cancelled = new AtomicReference<>();
+        Disposable waiting = limiter.acquireAsync("https://b.example.com/").subscribe(cancelled::set);
+        AtomicReference<HostRateLimiter.Permit> next = acquire(limiter, "https://c.example.com/");
+
+        waiting.dispose();
+        first.get().close();
+        assertNull(cancelled.get());
+        assertNotNull(next.get());
+
+        // 拿到许可后的取消不会再次归还
+        next.get().close();
+        AtomicReference<HostRateLimiter.Permit> last = acquire(limiter, "https://d.example.com/");
+        AtomicReference<HostRateLimiter.Permit> blocked = acquire(limiter, "https://e.example.com/");
+        assertNotNull(last.get());
+        assertNull(blocked.get());
+    }
+
+    @Test
+    @DisplayName("测试令牌桶：空闲后最多突发每秒请求数个请求，之后按间隔补充令牌")
+    void testTokenBucket() {
+        AtomicLong clock = new AtomicLong();
+        // 每秒4个请求，间隔250毫秒
+        HostRateLimiter limiter = new HostRateLimiter(100, 4, 100, clock::get);
+
+        // 空闲很久以后令牌桶也只有4个令牌
+        clock.set(TimeUnit.SECONDS.toNanos(10));
+        for (int i = 0; i < 4; i++) {
+            assertNotNull(acquire(limiter, "https://site-" + i + ".example.com/").get());
+        }
+
+        // 令牌用完，第5个请求等待一个间隔
+        AtomicReference<HostRateLimiter.Permit> waiting = acquire(limiter, "https://site-4.example.com/");
+        assertNull(waiting.get());
+        long start = System.nanoTime();
+        assertNotNull(limiter.acquireAsync("https://site-5.example.com/").block(Duration.ofSeconds(5)));
+        // 第6个请求排在第5个之后，等待两个间隔
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(400));
+        assertNotNull(waiting.get());
+
+        // 过了两个间隔补充了两个令牌，都被等待的请求预约了；再过一个间隔补充一个
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(750));
+        assertNotNull(acquire(limiter, "https://site-6.example.com/").get());
+        assertNull(acquire(limiter, "https://site-7.example.com/").get());
+    }
+
+    @Test
+    @DisplayName("测试插件内的监测共用一个限流，限流设置变更时重新创建")
+    void testSharedLimiter() {
+        SharedHttpClient sharedHttpClient = new SharedHttpClient();
+        HostRateLimiter limiter = sharedHttpClient.limiter(2, 10, 32);
+        assertSame(limiter, sharedHttpClient.limiter(2, 10, 32));
+        assertNotSame(limiter, sharedHttpClient.limiter(2, 0, 32));
+    }
+
+    private static AtomicReference<HostRateLimiter.Permit> acquire(HostRateLimiter limiter, String url) {
+        AtomicReference<HostRateLimiter.Permit> permit = new AtomicReference<>();
+        limiter.acquireAsync(url).subscribe(permit::set);
+        return permit;
+    }
+}
@@ -0,0 +1,78 @@
+package cool.tch.linkshealthmonitor.tasks;
+
+import cool.tch.linkshealthmonitor.task.ImageMagicBytes;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/18 17:30
+ * @Desc ImageMagicBytes有关测试
+ */
+public class ImageMagicBytesTest {
+
+    @ParameterizedTest
+    @MethodSource("imageHeads")
+    @DisplayName("参数化测试 - 各种文件头")
+    void testIsImage(String desc, byte[] head, boolean expected) {
+        assertEquals(expected, ImageMagicBytes.isImage(head, head.length), desc);
+    }
+
+    private static Stream<Arguments> imageHeads() {
+        return Stream.of(
+            arguments("PNG", bytes(0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0, 0, 0, 0x0D), true),
+            arguments("JPEG", bytes(0xFF, 0xD8, 0xFF, 0xE0, 0, 0x10), true),
+            arguments("GIF", ascii("GIF89a\u0001\u0000"), true),
+            arguments("WEBP", ascii("RIFF\u0000\u0000\u0000\u0000WEBPVP8 "), true),
+            arguments("ICO", bytes(0x00, 0x00, 0x01, 0x00, 0x01, 0x00), true),
+            arguments("AVIF", ascii("\u0000\u0000\u0000\u001CftypavifXXXX"), true),
+            arguments("SVG", ascii("<svg xmlns=\"http://www.w3.org/2000/svg\"></svg>"), true),
+            arguments("SVG（带XML声明和空白）", ascii("  \n<?xml version=\"1.0\"?>\n<svg></svg>"), true),
+            arguments("HTML错误页", ascii("<!DOCTYPE html><html><body>404 <svg></svg></body></html>"), false),
+            arguments("HTML", ascii("<html><head><title>Not Found</title></head></html>"), false),
+            arguments("JSON", ascii("{\"error\":\"not found\"}"), false),
+            arguments("截断的PNG", bytes(0x89, 'P', 'N'), false),
+            arguments("MP4（ftyp但不是图片）", ascii("\u0000\u0000\u0000\u0018ftypisom"), false)
+        );
+    }
+
+    @Test
+    @DisplayName("测试isImage方法 - 空内容")
+    void testIsImage_withEmpty() {
+        assertFalse(ImageMagicBytes.isImage(null, 0));
+        assertFalse(ImageMagicBytes.isImage(new byte[0], 0));
+        // 有效长度以外的内容不参与判断
+        assertFalse(ImageMagicBytes.isImage(bytes(0xFF, 0xD8, 0xFF), 2));
+    }
+
+    @Test
+    @DisplayName("测试isImageContentType方法")
+    void testIsImageContentType() {
+        assertTrue(ImageMagicBytes.isImageContentType("image/png"));
+        assertTrue(ImageMagicBytes.isImageContentType(" Image/SVG+XML; charset=utf-8"));
+        assertFalse(ImageMagicBytes.isImageContentType("text/html; charset=utf-8"));
+        assertFalse(ImageMagicBytes.isImageContentType(null));
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] result = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (byte) values[i];
+        }
+        return result;
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,196 @@
+package cool.tch.linkshealthmonitor.tasks;
+
+import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorResult;
+import cool.tch.linkshealthmonitor.task.IncrementalCheckPlan;
+import cool.tch.linkshealthmonitor.task.PageValidatorCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/18 22:30
+ * @Desc IncrementalCheckPlan有关测试
+ */
+public class IncrementalCheckPlanTest {
+
+    private static final String OUR_URL = "https://tch.cool";
+
+    private static final String FRIEND_LINK_URL = "https://friend.example.com/links";
+
+    private static final Instant NOW = Instant.parse("2026-10-18T12:00:00Z");
+
+    private static final Duration STALE_AFTER = Duration.ofHours(24);
+
+    @Test
+    @DisplayName("测试友链未修改、上次正常且未过期时沿用上次的记录")
+    void testCarryForward() {
+        PageValidatorCache validatorCache = new PageValidatorCache(OUR_URL, List.of(validator()));
+        IncrementalCheckPlan plan = new IncrementalCheckPlan(OUR_URL, previous(record(true, NOW.minus(Duration.ofHours(1)))),
+            STALE_AFTER, NOW, validatorCache);
+
+        LinksHealthMonitorResult.LinkHealthMonitorRecord checkRecord = record(false, NOW);
+        checkRecord.setLinkGroupDisplayName("新分组");
+        LinksHealthMonitorResult.LinkHealthMonitorRecord carried = plan.carryForward(checkRecord, FRIEND_LINK_URL);
+
+        assertNotNull(carried);
+        assertEquals(NOW.minus(Duration.ofHours(1)), carried.getLastCheckedAt());
+        assertEquals("新分组", carried.getLinkGroupDisplayName());
+        assertEquals(1, plan.getCarriedCount());
+        // 沿用记录的友链页面保留条件请求缓存
+        assertEquals(1, validatorCache.toList().size());
+    }
+
+    @Test
+    @DisplayName("测试友链修改过、上次异常或者记录过期时重新监测")
+    void testRecheck() {
+        // 版本变化
+        IncrementalCheckPlan plan = new IncrementalCheckPlan(OUR_URL, previous(record(true, NOW)), STALE_AFTER, NOW, null);
+        LinksHealthMonitorResult.LinkHealthMonitorRecord edited = record(false, NOW);
+        edited.setLinkVersion(2L);
+        assertNull(plan.carryForward(edited, FRIEND_LINK_URL));
+        // 友链页面地址变化
+        assertNull(plan.carryForward(record(false, NOW), "https://friend.example.com/friends"));
+
+        // 上次异常
+        LinksHealthMonitorResult.LinkHealthMonitorRecord failed = record(true, NOW);
+        failed.setContainsOurLink(false);
+        plan = new IncrementalCheckPlan(OUR_URL, previous(failed), STALE_AFTER, NOW, null);
+        assertNull(plan.carryForward(record(false, NOW), FRIEND_LINK_URL));
+
+        // 上次网站标题与网站名称不一致
+        LinksHealthMonitorResult.LinkHealthMonitorRecord renamed = record(true, NOW);
+        renamed.setDisplayNameChanged(false);
+        plan = new IncrementalCheckPlan(OUR_URL, previous(renamed), STALE_AFTER, NOW, null);
+        assertEquals(IncrementalCheckPlan.Reason.FAILING, plan.classify(record(false, NOW), FRIEND_LINK_URL));
+
+        // 记录过期
+        plan = new IncrementalCheckPlan(OUR_URL, previous(record(true, NOW.minus(STALE_AFTER))), STALE_AFTER, NOW, null);
+        assertNull(plan.carryForward(record(false, NOW), FRIEND_LINK_URL));
+
+        assertEquals(0, plan.getCarriedCount());
+    }
+
+    @Test
+    @DisplayName("测试本站地址变更后不沿用上次的记录")
+    void testOurUrlChanged() {
+        IncrementalCheckPlan plan = new IncrementalCheckPlan("https://new.tch.cool", previous(record(true, NOW)), STALE_AFTER, NOW, null);
+        assertNull(plan.carryForward(record(false, NOW), FRIEND_LINK_URL));
+    }
+
+    @Test
+    @DisplayName("测试自适应监测频率：连续正常的次数越多有效期越长，不超过上限")
+    void testAdaptiveStaleAfter() {
+        Duration maxStaleAfter = Duration.ofHours(72);
+        // 连续正常3次：有效期24h -> 96h，上限72h
+        LinksHealthMonitorResult.LinkHealthMonitorRecord stable = record(true, NOW.minus(Duration.ofHours(48)));
+        stable.setHealthyStreak(3);
+        IncrementalCheckPlan plan = new IncrementalCheckPlan(OUR_URL, previous(stable), STALE_AFTER, maxStaleAfter, NOW, null);
+        assertEquals(IncrementalCheckPlan.Reason.FRESH, plan.classify(record(false, NOW), FRIEND_LINK_URL));
+
+        stable.setLastCheckedAt(NOW.minus(maxStaleAfter));
+        plan = new IncrementalCheckPlan(OUR_URL, previous(stable), STALE_AFTER, maxStaleAfter, NOW, null);
+        assertEquals(IncrementalCheckPlan.Reason.STALE, plan.classify(record(false, NOW), FRIEND_LINK_URL));
+
+        // 连续正常的次数：正常时累加，异常时清零，友链修改过时重新计数
+        LinksHealthMonitorResult.LinkHealthMonitorRecord checked = record(true, NOW);
+        assertEquals(4, IncrementalCheckPlan.nextHealthyStreak(stable, checked));
+        checked.setLinkVersion(2L);
+        assertEquals(1, IncrementalCheckPlan.nextHealthyStreak(stable, checked));
+        checked.setWebsiteAccessible(false);
+        assertEquals(0, IncrementalCheckPlan.nextHealthyStreak(stable, checked));
+    }
+
+    @Test
+    @DisplayName("测试网站名称一致的正常友链连续正常的次数累加，有效期随之延长")
+    void testHealthyStreakGrows() {
+        LinksHealthMonitorResult.LinkHealthMonitorRecord previous = null;
+        for (int expected = 1; expected <= 3; expected++) {
+            LinksHealthMonitorResult.LinkHealthMonitorRecord checked = record(true, NOW);
+            assertTrue(checked.isDisplayNameChanged());
+            checked.setHealthyStreak(IncrementalCheckPlan.nextHealthyStreak(previous, checked));
+            assertEquals(expected, checked.getHealthyStreak());
+            previous = checked;
+        }
+
+        // 连续正常3次：有效期24h -> 96h，48h前的记录仍然有效
+        previous.setLastCheckedAt(NOW.minus(Duration.ofHours(48)));
+        IncrementalCheckPlan plan = new IncrementalCheckPlan(OUR_URL, previous(previous), STALE_AFTER, Duration.ofHours(96), NOW, null);
+        assertEquals(IncrementalCheckPlan.Reason.FRESH, plan.classify(record(false, NOW), FRIEND_LINK_URL));
+
+        // 网站标题与网站名称不一致时清零
+        LinksHealthMonitorResult.LinkHealthMonitorRecord renamed = record(true, NOW);
+        renamed.setDisplayNameChanged(false);
+        assertEquals(0, IncrementalCheckPlan.nextHealthyStreak(previous, renamed));
+    }
+
+    @Test
+    @DisplayName("测试请求预算：新增的友链总是监测，其余按上次异常、过期程度优先，超出预算的沿用上次的记录")
+    void testApplyBudget() {
+        LinksHealthMonitorResult.LinkHealthMonitorRecord failing = record(true, NOW);
+        failing.setLinkName("failing");
+        failing.setWebsiteAccessible(false);
+        LinksHealthMonitorResult.LinkHealthMonitorRecord stale = record(true, NOW.minus(STALE_AFTER));
+        stale.setLinkName("stale");
+        LinksHealthMonitorResult.ResultSpec spec = previous(failing);
+        spec.setLinkHealthMonitorRecordList(List.of(failing, stale));
+        IncrementalCheckPlan plan = new IncrementalCheckPlan(OUR_URL, spec, STALE_AFTER, NOW, null);
+
+        LinksHealthMonitorResult.LinkHealthMonitorRecord newLink = record(false, NOW);
+        newLink.setLinkName("new");
+        LinksHealthMonitorResult.LinkHealthMonitorRecord failingLink = record(false, NOW);
+        failingLink.setLinkName("failing");
+        LinksHealthMonitorResult.LinkHealthMonitorRecord staleLink = record(false, NOW);
+        staleLink.setLinkName("stale");
+        int deferred = plan.applyBudget(List.of(
+            new IncrementalCheckPlan.Candidate(newLink, FRIEND_LINK_URL),
+            new IncrementalCheckPlan.Candidate(staleLink, FRIEND_LINK_URL),
+            new IncrementalCheckPlan.Candidate(failingLink, FRIEND_LINK_URL)), 2);
+
+        assertEquals(1, deferred);
+        assertNull(plan.carryForward(newLink, FRIEND_LINK_URL));
+        assertNull(plan.carryForward(failingLink, FRIEND_LINK_URL));
+        assertNotNull(plan.carryForward(staleLink, FRIEND_LINK_URL));
+    }
+
+    private static LinksHealthMonitorResult.ResultSpec previous(LinksHealthMonitorResult.LinkHealthMonitorRecord record) {
+        LinksHealthMonitorResult.ResultSpec spec = new LinksHealthMonitorResult.ResultSpec();
+        spec.setOurUrl(OUR_URL);
+        spec.setLinkHealthMonitorRecordList(List.of(record));
+        return spec;
+    }
+
+    private static LinksHealthMonitorResult.LinkHealthMonitorRecord record(boolean checked, Instant lastCheckedAt) {
+        LinksHealthMonitorResult.LinkHealthMonitorRecord record = new LinksHealthMonitorResult.LinkHealthMonitorRecord();
+        record.setLinkName("link-1");
+        record.setLinkUrl("https://friend.example.com");
+        record.setLinkDisplayName("朋友");
+        record.setLinkLogo("https://friend.example.com/logo.png");
+        record.setLinkVersion(1L);
+        record.setLastCheckedAt(lastCheckedAt);
+        if (checked) {
+            record.setWebsiteAccessible(true);
+            record.setLogoAccessible(true);
+            // 网站标题与网站名称一致
+            record.setDisplayNameChanged(true);
+            record.setFriendLinkRoute(FRIEND_LINK_URL);
+            record.setContainsOurLink(true);
+        }
+        return record;
+    }
+
+    private static LinksHealthMonitorResult.PageValidator validator() {
+        LinksHealthMonitorResult.PageValidator validator = new LinksHealthMonitorResult.PageValidator();
+        validator.setUrl(FRIEND_LINK_URL);
+        validator.setOurUrl(OUR_URL);
+        validator.setEtag("\"v1\"");
+        return validator;
+    }
+}
@@ -0,0 +1,73 @@
+package cool.tch.linkshealthmonitor.tasks;
+
+import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorResult;
+import cool.tch.linkshealthmonitor.service.LatestResultCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import run.halo.app.extension.Metadata;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/19 13:20
+ * @Desc LatestResultCache有关测试
+ */
+public class LatestResultCacheTest {
+
+    @Test
+    @DisplayName("测试保存后替换缓存，监测结果的版本变化时ETag变化")
+    void testPut() {
+        // 已有缓存时不会查询自定义模型
+        LatestResultCache cache = new LatestResultCache(null);
+        LinksHealthMonitorResult.ResultSpec resultSpec = new LinksHealthMonitorResult.ResultSpec();
+
+        cache.put(stored(1L), resultSpec);
+        LatestResultCache.Snapshot first = cache.get().block();
+        assertSame(resultSpec, first.result().getResultSpec());
+        assertEquals("\"links-health-monitor-1-1\"", first.etag());
+
+        cache.put(stored(2L), resultSpec);
+        assertNotEquals(first.etag(), cache.get().block().etag());
+    }
+
+    @Test
+    @DisplayName("测试只接受更新的监测结果（同一个按版本，不同的按创建时间）")
+    void testPutIgnoresOlderResult() {
+        LatestResultCache cache = new LatestResultCache(null);
+        LinksHealthMonitorResult.ResultSpec merged = new LinksHealthMonitorResult.ResultSpec();
+        LinksHealthMonitorResult.ResultSpec full = new LinksHealthMonitorResult.ResultSpec();
+        Instant now = Instant.now();
+
+        // 完整监测先保存，之前开始的合并监测后保存
+        cache.put(stored("links-health-monitor-2", 1L, now), full);
+        cache.put(stored("links-health-monitor-1", 3L, now.minusSeconds(60)), merged);
+        assertSame(full, cache.get().block().result().getResultSpec());
+
+        // 同一个监测结果，旧的版本不覆盖新的版本
+        cache.put(stored("links-health-monitor-2", 3L, now), merged);
+        cache.put(stored("links-health-monitor-2", 2L, now), full);
+        assertSame(merged, cache.get().block().result().getResultSpec());
+
+        // 更新的监测结果
+        cache.put(stored("links-health-monitor-3", 1L, now.plusSeconds(60)), full);
+        assertEquals("\"links-health-monitor-3-1\"", cache.get().block().etag());
+    }
+
+    private static LinksHealthMonitorResult stored(long version) {
+        return stored("links-health-monitor-1", version, null);
+    }
+
+    private static LinksHealthMonitorResult stored(String name, long version, Instant creationTimestamp) {
+        Metadata metadata = new Metadata();
+        metadata.setName(name);
+        metadata.setVersion(version);
+        metadata.setCreationTimestamp(creationTimestamp);
+        LinksHealthMonitorResult result = new LinksHealthMonitorResult();
+        result.setMetadata(metadata);
+        return result;
+    }
+}
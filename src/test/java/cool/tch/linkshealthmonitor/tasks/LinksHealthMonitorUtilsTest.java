@@ -1,11 +1,28 @@
 package cool.tch.linkshealthmonitor.tasks;
 
+import cool.tch.linkshealthmonitor.extension.Link;
+import cool.tch.linkshealthmonitor.task.LinksHealthMonitorUtils;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import run.halo.app.extension.Metadata;
 import java.net.HttpURLConnection;
 import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
+import static cool.tch.linkshealthmonitor.constant.Constant.ANNOTATIONS_FIELD_ENABLE_MONITOR;
+import static cool.tch.linkshealthmonitor.constant.Constant.ANNOTATIONS_FIELD_FRIEND_LINK_URL;
 import static cool.tch.linkshealthmonitor.constant.Constant.HTTP_REQUEST_METHOD_GET;
 import static cool.tch.linkshealthmonitor.constant.Constant.HTTP_TIMEOUT_MS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -20,6 +37,97 @@ public class LinksHealthMonitorUtilsTest {
         // assertTrue(isUrlAccessible("https://tch.cool") == 200);
     }
 
+    @Test
+    @DisplayName("测试按友链name合并监测记录")
+    void mergeByLinkNameTest() {
+        // 记录用"name:状态"表示
+        Function<String, String> nameOf = record -> record.split(":")[0];
+        Map<String, String> updated = new LinkedHashMap<>();
+        updated.put("b", "b:new");
+        updated.put("d", "d:new");
+
+        // b替换、c移除（已删除）、d追加，a保持不变
+        List<String> merged = LinksHealthMonitorUtils.mergeByLinkName(List.of("a:old", "b:old", "c:old"), nameOf,
+            Set.of("b", "c", "d"), updated);
+        assertEquals(List.of("a:old", "b:new", "d:new"), merged);
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        // 原有的处理
+        "https://tch.cool/                      | https://tch.cool",
+        "https:\\\\tch.cool\\links\\           | https://tch.cool/links",
+        "https://tch.cool//links///page/        | https://tch.cool/links/page",
+        "https:/tch.cool                        | https://tch.cool",
+        "http:///tch.cool                       | http://tch.cool",
+        "tch.cool//links/                       | tch.cool/links",
+        "/                                      | ''",
+        "///                                    | ''",
+        "localhost:8080//links                  | localhost:8080/links",
+        // 协议、主机名、端口
+        "HTTPS://Tch.COOL/Links                 | https://tch.cool/Links",
+        "https://tch.cool:443/links             | https://tch.cool/links",
+        "http://tch.cool:80                     | http://tch.cool",
+        "https://tch.cool:8443/                 | https://tch.cool:8443",
+        "http://tch.cool:/                      | http://tch.cool",
+        "https://User@Tch.cool                  | https://User@tch.cool",
+        "http://[::1]:80/                       | http://[::1]",
+        "https://例子.测试/links/               | https://xn--fsqu00a.xn--0zwm56d/links",
+        "ftp://files.example.com/pub/           | ftp://files.example.com/pub",
+        // 查询参数和锚点原样保留
+        "https://tch.cool/go?to=https://a.com// | https://tch.cool/go?to=https://a.com//",
+        "https://tch.cool/#//section            | https://tch.cool/#//section",
+        "https://tch.cool//links/?page=2/       | https://tch.cool/links/?page=2/",
+        "https://tch.cool/links#/               | https://tch.cool/links#/"
+    })
+    @DisplayName("参数化测试 - 标准化url")
+    void normalizeUrlTest(String url, String expected) {
+        String normalized = LinksHealthMonitorUtils.normalizeUrl(url);
+        assertEquals(expected, normalized);
+        // 再次标准化时不变，并且原样返回
+        assertSame(normalized, LinksHealthMonitorUtils.normalizeUrl(normalized));
+    }
+
+    @Test
+    @DisplayName("测试已经是标准格式的url和空的url原样返回")
+    void normalizeUrlUnchangedTest() {
+        String url = "https://tch.cool/links";
+        assertSame(url, LinksHealthMonitorUtils.normalizeUrl(url));
+        assertNull(LinksHealthMonitorUtils.normalizeUrl(null));
+        assertEquals(" ", LinksHealthMonitorUtils.normalizeUrl(" "));
+    }
+
+    @Test
+    @DisplayName("测试影响监测的友链数据（描述、排序不影响，不监测时友链页面不影响）")
+    void fingerprintOfTest() {
+        String fingerprint = LinksHealthMonitorUtils.fingerprintOf(link("https://tch.cool/", "描述", "https://tch.cool/links", "true"));
+        assertEquals(fingerprint, LinksHealthMonitorUtils.fingerprintOf(link("https://tch.cool", "新的描述", "https://tch.cool/links", "true")));
+        assertNotEquals(fingerprint, LinksHealthMonitorUtils.fingerprintOf(link("https://tch.cool", "描述", "https://tch.cool/friends", "true")));
+
+        String disabled = LinksHealthMonitorUtils.fingerprintOf(link("https://tch.cool", "描述", "https://tch.cool/links", "false"));
+        assertNotEquals(fingerprint, disabled);
+        assertEquals(disabled, LinksHealthMonitorUtils.fingerprintOf(link("https://tch.cool", "描述", "https://tch.cool/friends", "false")));
+    }
+
+    private static Link link(String url, String description, String friendLinkUrl, String enabled) {
+        Metadata metadata = new Metadata();
+        metadata.setName("link-1");
+        metadata.setAnnotations(Map.of(
+            ANNOTATIONS_FIELD_ENABLE_MONITOR, enabled,
+            ANNOTATIONS_FIELD_FRIEND_LINK_URL, friendLinkUrl
+        ));
+        Link.LinkSpec spec = new Link.LinkSpec();
+        spec.setUrl(url);
+        spec.setDisplayName("朋友1");
+        spec.setLogo("https://tch.cool/logo.png");
+        spec.setDescription(description);
+        spec.setGroupName("link-group-1");
+        Link link = new Link();
+        link.setMetadata(metadata);
+        link.setSpec(spec);
+        return link;
+    }
+
     public static int isUrlAccessible(String url) {
 
         try{
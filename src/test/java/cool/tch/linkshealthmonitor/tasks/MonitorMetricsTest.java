@@ -0,0 +1,55 @@
+package cool.tch.linkshealthmonitor.tasks;
+
+import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorResult;
+import cool.tch.linkshealthmonitor.task.MonitorMetrics;
+import cool.tch.linkshealthmonitor.task.ProbeTimer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/19 16:20
+ * @Desc MonitorMetrics有关测试
+ */
+public class MonitorMetricsTest {
+
+    @Test
+    @DisplayName("测试按请求类型和结果统计，插件停止时移除指标")
+    void testProbed() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MonitorMetrics metrics = new MonitorMetrics(registry);
+
+        metrics.probed(MonitorMetrics.ProbeType.SITE, timing(200, 1024, null));
+        metrics.probed(MonitorMetrics.ProbeType.SITE, timing(404, 100, null));
+        metrics.probed(MonitorMetrics.ProbeType.SITE, timing(-1, 0, ProbeTimer.FAILURE_TIMEOUT));
+        metrics.probed(MonitorMetrics.ProbeType.LOGO, timing(503, 0, null));
+
+        assertEquals(3, registry.get("links.health.monitor.probe").tag("type", "site").timer().count());
+        assertEquals(1, registry.get("links.health.monitor.probe.outcome").tags("type", "site", "outcome", "success").counter().count());
+        assertEquals(1, registry.get("links.health.monitor.probe.outcome").tags("type", "site", "outcome", "4xx").counter().count());
+        assertEquals(1, registry.get("links.health.monitor.probe.outcome").tags("type", "site", "outcome", "timeout").counter().count());
+        assertEquals(1, registry.get("links.health.monitor.probe.outcome").tags("type", "logo", "outcome", "5xx").counter().count());
+        assertEquals(1124, registry.get("links.health.monitor.probe.downloaded").tag("type", "site").counter().count());
+
+        metrics.checkStarted();
+        metrics.requestQueued();
+        assertEquals(1, registry.get("links.health.monitor.checks.inflight").gauge().value());
+        assertEquals(1, registry.get("links.health.monitor.requests.queued").gauge().value());
+
+        metrics.close();
+        assertTrue(registry.getMeters().isEmpty());
+    }
+
+    private static LinksHealthMonitorResult.ProbeTiming timing(int statusCode, long bytesRead, String failure) {
+        LinksHealthMonitorResult.ProbeTiming timing = new LinksHealthMonitorResult.ProbeTiming();
+        timing.setStatusCode(statusCode);
+        timing.setTotalMillis(120);
+        timing.setBytesRead(bytesRead);
+        timing.setFailure(failure);
+        return timing;
+    }
+}
@@ -0,0 +1,89 @@
+package cool.tch.linkshealthmonitor.tasks;
+
+import cool.tch.linkshealthmonitor.task.MonitorableScheduledFuture;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/19 21:10
+ * @Desc MonitorableScheduledFuture有关测试
+ */
+public class MonitorableScheduledFutureTest {
+
+    @Test
+    @DisplayName("测试响应式的任务不占用调度线程，结束后更新任务状态，执行中时跳过新的触发")
+    void testReactiveTask() {
+        AtomicReference<Runnable> scheduled = new AtomicReference<>();
+        TaskScheduler taskScheduler = mock(TaskScheduler.class);
+        when(taskScheduler.schedule(any(Runnable.class), any(Trigger.class))).thenAnswer(invocation -> {
+            scheduled.set(invocation.getArgument(0));
+            return null;
+        });
+
+        Sinks.Empty<Void> done = Sinks.empty();
+        AtomicInteger runs = new AtomicInteger();
+        MonitorableScheduledFuture future = new MonitorableScheduledFuture(() -> {
+            runs.incrementAndGet();
+            return done.asMono();
+        }, taskScheduler, "0 0 * * * ?");
+        future.start();
+        assertEquals("CREATED", future.getTaskInfo().getTaskStatus());
+
+        // 调度线程订阅后立即返回
+        scheduled.get().run();
+        assertEquals("RUNNING", future.getTaskInfo().getTaskStatus());
+
+        // 上次的任务还没有结束，跳过本次
+        scheduled.get().run();
+        assertEquals(1, runs.get());
+
+        done.tryEmitEmpty();
+        MonitorableScheduledFuture.TaskInfo taskInfo = future.getTaskInfo();
+        assertEquals("COMPLETED", taskInfo.getTaskStatus());
+        assertNotNull(taskInfo.getLastCompletionExecution());
+        assertNotNull(taskInfo.getNextScheduledExecution());
+
+        // 结束后可以再次执行
+        scheduled.get().run();
+        assertEquals(2, runs.get());
+    }
+
+    @Test
+    @DisplayName("测试同步的任务和执行失败的任务")
+    void testSyncAndFailedTask() {
+        AtomicReference<Runnable> scheduled = new AtomicReference<>();
+        TaskScheduler taskScheduler = mock(TaskScheduler.class);
+        when(taskScheduler.schedule(any(Runnable.class), any(Trigger.class))).thenAnswer(invocation -> {
+            scheduled.set(invocation.getArgument(0));
+            return null;
+        });
+
+        AtomicInteger runs = new AtomicInteger();
+        MonitorableScheduledFuture sync = new MonitorableScheduledFuture(() -> Mono.fromRunnable(runs::incrementAndGet),
+            taskScheduler, "0 0 * * * ?");
+        sync.start();
+        scheduled.get().run();
+        assertEquals(1, runs.get());
+        assertEquals("COMPLETED", sync.getTaskInfo().getTaskStatus());
+
+        MonitorableScheduledFuture failed = new MonitorableScheduledFuture(() -> {
+            throw new IllegalStateException("监测失败");
+        }, taskScheduler, "0 0 * * * ?");
+        failed.start();
+        scheduled.get().run();
+        assertEquals("FAILED", failed.getTaskInfo().getTaskStatus());
+    }
+}
@@ -0,0 +1,86 @@
+package cool.tch.linkshealthmonitor.tasks;
+
+import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorResult;
+import cool.tch.linkshealthmonitor.task.PageValidatorCache;
+import cool.tch.linkshealthmonitor.task.SiteResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/18 21:00
+ * @Desc PageValidatorCache有关测试
+ */
+public class PageValidatorCacheTest {
+
+    private static final String OUR_URL = "https://tch.cool";
+
+    private static final String PAGE_URL = "https://friend.example.com/links";
+
+    @Test
+    @DisplayName("测试条件请求和304复用上次的结果")
+    void testNotModified() {
+        PageValidatorCache cache = new PageValidatorCache(OUR_URL, List.of(validator(OUR_URL)));
+
+        Map<String, String> headers = new HashMap<>();
+        cache.applyConditionalHeaders(PAGE_URL, headers::put);
+        assertEquals("\"v1\"", headers.get("If-None-Match"));
+        assertEquals("Sat, 17 Oct 2026 00:00:00 GMT", headers.get("If-Modified-Since"));
+
+        SiteResponse cached = cache.notModified(PAGE_URL);
+        assertTrue(cached.isAccessible());
+        assertTrue(cached.getContainsOurLink());
+        assertEquals("友链", cached.getTitle());
+        assertEquals(1, cache.getNotModifiedCount());
+    }
+
+    @Test
+    @DisplayName("测试本站地址变更后缓存失效")
+    void testOurUrlChanged() {
+        PageValidatorCache cache = new PageValidatorCache(OUR_URL, List.of(validator("https://old.tch.cool")));
+
+        Map<String, String> headers = new HashMap<>();
+        cache.applyConditionalHeaders(PAGE_URL, headers::put);
+        assertTrue(headers.isEmpty());
+        assertNull(cache.notModified(PAGE_URL));
+    }
+
+    @Test
+    @DisplayName("测试更新缓存和只保存本次请求过的页面")
+    void testUpdateAndToList() {
+        PageValidatorCache cache = new PageValidatorCache(OUR_URL, List.of(validator(OUR_URL)));
+
+        // 本次没有请求过的页面不保存
+        assertTrue(cache.toList().isEmpty());
+
+        cache.applyConditionalHeaders(PAGE_URL, (name, value) -> { });
+        cache.update(PAGE_URL, "\"v2\"", null, new SiteResponse(200, PAGE_URL, "友链", false));
+        List<LinksHealthMonitorResult.PageValidator> saved = cache.toList();
+        assertEquals(1, saved.size());
+        assertEquals("\"v2\"", saved.get(0).getEtag());
+        assertEquals(false, saved.get(0).isContainsOurLink());
+
+        // 响应没有ETag和Last-Modified时移除缓存
+        cache.update(PAGE_URL, null, null, new SiteResponse(200, PAGE_URL, "友链", true));
+        assertTrue(cache.toList().isEmpty());
+    }
+
+    private static LinksHealthMonitorResult.PageValidator validator(String ourUrl) {
+        LinksHealthMonitorResult.PageValidator validator = new LinksHealthMonitorResult.PageValidator();
+        validator.setUrl(PAGE_URL);
+        validator.setOurUrl(ourUrl);
+        validator.setEtag("\"v1\"");
+        validator.setLastModified("Sat, 17 Oct 2026 00:00:00 GMT");
+        validator.setFinalUrl(PAGE_URL + "/");
+        validator.setTitle("友链");
+        validator.setContainsOurLink(true);
+        return validator;
+    }
+}
@@ -0,0 +1,93 @@
+package cool.tch.linkshealthmonitor.tasks;
+
+import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorResult;
+import cool.tch.linkshealthmonitor.task.ProbeTimer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Flow;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/19 15:30
+ * @Desc ProbeTimer有关测试
+ */
+public class ProbeTimerTest {
+
+    @Test
+    @DisplayName("测试没有收到响应时只记录总耗时")
+    void testFailed() {
+        ProbeTimer timer = new ProbeTimer();
+        timer.sent();
+        timer.completed();
+
+        LinksHealthMonitorResult.ProbeTiming timing = timer.toTiming();
+        assertEquals(-1, timing.getStatusCode());
+        assertNull(timing.getDnsMillis());
+        assertNull(timing.getTtfbMillis());
+        assertNull(timing.getDownloadMillis());
+        assertEquals(0, timing.getRedirects());
+    }
+
+    @Test
+    @DisplayName("测试记录最终响应的状态码、重定向次数和读取的字节数")
+    void testWrap() {
+        ProbeTimer timer = new ProbeTimer();
+        timer.dnsResolved(3_000_000);
+        timer.sent();
+
+        HttpResponse.BodyHandler<Void> handler = timer.wrap(HttpResponse.BodyHandlers.discarding());
+        handler.apply(responseInfo(301));
+        HttpResponse.BodySubscriber<Void> subscriber = handler.apply(responseInfo(200));
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        subscriber.onNext(List.of(ByteBuffer.wrap("<html>".getBytes(StandardCharsets.UTF_8)),
+            ByteBuffer.wrap("</html>".getBytes(StandardCharsets.UTF_8))));
+        subscriber.onComplete();
+        timer.completed();
+
+        LinksHealthMonitorResult.ProbeTiming timing = timer.toTiming();
+        assertEquals(200, timing.getStatusCode());
+        assertEquals(1, timing.getRedirects());
+        assertEquals(13, timing.getBytesRead());
+        assertEquals(3L, timing.getDnsMillis());
+        assertNotNull(timing.getTtfbMillis());
+        assertNotNull(timing.getDownloadMillis());
+    }
+
+    private static HttpResponse.ResponseInfo responseInfo(int statusCode) {
+        return new HttpResponse.ResponseInfo() {
+            @Override
+            public int statusCode() {
+                return statusCode;
+            }
+
+            @Override
+            public HttpHeaders headers() {
+                return HttpHeaders.of(Map.of(), (name, value) -> true);
+            }
+
+            @Override
+            public HttpClient.Version version() {
+                return HttpClient.Version.HTTP_1_1;
+            }
+        };
+    }
+}
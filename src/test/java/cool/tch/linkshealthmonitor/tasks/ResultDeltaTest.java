@@ -0,0 +1,72 @@
+package cool.tch.linkshealthmonitor.tasks;
+
+import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorResult;
+import cool.tch.linkshealthmonitor.task.ResultDelta;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/19 12:10
+ * @Desc ResultDelta有关测试
+ */
+public class ResultDeltaTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-19T04:00:00Z");
+
+    @Test
+    @DisplayName("测试增量只包含变化和删除的记录，根据关键帧可以还原")
+    void testEncodeAndDecode() {
+        LinksHealthMonitorResult.ResultSpec keyframe = spec(List.of(record("a", true), record("b", true), record("c", true)));
+        LinksHealthMonitorResult.ResultSpec full = spec(List.of(record("a", true), record("b", false), record("d", true)));
+
+        LinksHealthMonitorResult.ResultSpec delta = ResultDelta.encode(keyframe, full);
+        assertEquals(List.of("b", "d"), delta.getLinkHealthMonitorRecordList().stream()
+            .map(LinksHealthMonitorResult.LinkHealthMonitorRecord::getLinkName).toList());
+        assertEquals(List.of("c"), delta.getRemovedLinkNames());
+        assertEquals(3, ResultDelta.sizeOf(delta));
+
+        LinksHealthMonitorResult.ResultSpec decoded = ResultDelta.decode(keyframe, delta);
+        assertEquals(full.getLinkHealthMonitorRecordList(), decoded.getLinkHealthMonitorRecordList());
+        assertEquals(full.getOurUrl(), decoded.getOurUrl());
+    }
+
+    @Test
+    @DisplayName("测试只有监测时间、连续正常的次数变化的记录也写入增量，还原后不是关键帧中的旧值")
+    void testRecheckedRecord() {
+        LinksHealthMonitorResult.ResultSpec keyframe = spec(List.of(record("a", true), record("b", true)));
+        LinksHealthMonitorResult.LinkHealthMonitorRecord rechecked = record("a", true);
+        rechecked.setLastCheckedAt(NOW.plusSeconds(300));
+        rechecked.setHealthyStreak(2);
+        LinksHealthMonitorResult.ResultSpec full = spec(List.of(rechecked, record("b", true)));
+
+        LinksHealthMonitorResult.ResultSpec delta = ResultDelta.encode(keyframe, full);
+        assertEquals(1, ResultDelta.sizeOf(delta));
+
+        LinksHealthMonitorResult.LinkHealthMonitorRecord decoded = ResultDelta.decode(keyframe, delta).getLinkHealthMonitorRecordList().get(0);
+        assertEquals(NOW.plusSeconds(300), decoded.getLastCheckedAt());
+        assertEquals(2, decoded.getHealthyStreak());
+    }
+
+    private static LinksHealthMonitorResult.ResultSpec spec(List<LinksHealthMonitorResult.LinkHealthMonitorRecord> records) {
+        LinksHealthMonitorResult.ResultSpec spec = new LinksHealthMonitorResult.ResultSpec();
+        spec.setOurUrl("https://tch.cool");
+        spec.setLinkHealthMonitorRecordList(records);
+        return spec;
+    }
+
+    private static LinksHealthMonitorResult.LinkHealthMonitorRecord record(String linkName, boolean websiteAccessible) {
+        LinksHealthMonitorResult.LinkHealthMonitorRecord record = new LinksHealthMonitorResult.LinkHealthMonitorRecord();
+        record.setLinkName(linkName);
+        record.setLinkUrl("https://" + linkName + ".example.com");
+        record.setWebsiteAccessible(websiteAccessible);
+        record.setLogoAccessible(true);
+        record.setLastCheckedAt(NOW);
+        record.setHealthyStreak(1);
+        return record;
+    }
+}
@@ -0,0 +1,123 @@
+package cool.tch.linkshealthmonitor.tasks;
+
+import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorResult;
+import cool.tch.linkshealthmonitor.service.ResultIndex;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import run.halo.app.extension.ListResult;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/19 14:00
+ * @Desc ResultIndex有关测试
+ */
+public class ResultIndexTest {
+
+    @Test
+    @DisplayName("测试按状态、分组筛选并分页")
+    void testQuery() {
+        ResultIndex index = new ResultIndex(spec());
+
+        // 网站无法访问或者logo无法访问：link-0（logo）、link-3（网站）、link-6（logo）、link-9（网站）
+        ListResult<Object> result = index.query(query(1, 3, EnumSet.of(ResultIndex.RecordStatus.INACCESSIBLE,
+            ResultIndex.RecordStatus.LOGO_BROKEN), null, List.of()));
+        assertEquals(4, result.getTotal());
+        assertEquals(3, result.getItems().size());
+        assertEquals("link-0", ((LinksHealthMonitorResult.LinkHealthMonitorRecord) result.getItems().get(0)).getLinkName());
+
+        result = index.query(query(2, 3, EnumSet.of(ResultIndex.RecordStatus.INACCESSIBLE,
+            ResultIndex.RecordStatus.LOGO_BROKEN), null, List.of()));
+        assertEquals(1, result.getItems().size());
+
+        // 分组
+        result = index.query(query(1, 0, Set.of(), "group-1", List.of()));
+        assertEquals(5, result.getTotal());
+        result = index.query(query(1, 0, EnumSet.of(ResultIndex.RecordStatus.INACCESSIBLE), "group-1", List.of()));
+        assertEquals(List.of("link-3", "link-9"), result.getItems().stream()
+            .map(item -> ((LinksHealthMonitorResult.LinkHealthMonitorRecord) item).getLinkName()).toList());
+        assertEquals(0, index.query(query(1, 0, Set.of(), "group-x", List.of())).getTotal());
+    }
+
+    @Test
+    @DisplayName("测试网站无法访问时不计入logo无法访问和网站名称有变更")
+    void testStatusRequiresAccessibleWebsite() {
+        // 网站无法访问（logo和网站名称都没有监测）
+        LinksHealthMonitorResult.LinkHealthMonitorRecord inaccessible = new LinksHealthMonitorResult.LinkHealthMonitorRecord();
+        inaccessible.setLinkName("inaccessible");
+        // 网站名称一致
+        LinksHealthMonitorResult.LinkHealthMonitorRecord consistent = accessible("consistent", true);
+        // 网站名称有变更、logo无法访问
+        LinksHealthMonitorResult.LinkHealthMonitorRecord renamed = accessible("renamed", false);
+        renamed.setLogoAccessible(false);
+
+        LinksHealthMonitorResult.ResultSpec spec = new LinksHealthMonitorResult.ResultSpec();
+        spec.setLinkHealthMonitorRecordList(List.of(inaccessible, consistent, renamed));
+        ResultIndex index = new ResultIndex(spec);
+
+        assertEquals(List.of("renamed"), linkNames(index.query(query(1, 0, EnumSet.of(ResultIndex.RecordStatus.NAME_CHANGED), null, List.of()))));
+        assertEquals(List.of("renamed"), linkNames(index.query(query(1, 0, EnumSet.of(ResultIndex.RecordStatus.LOGO_BROKEN), null, List.of()))));
+    }
+
+    @Test
+    @DisplayName("测试只返回需要的字段")
+    void testFields() {
+        ResultIndex index = new ResultIndex(spec());
+        ListResult<Object> result = index.query(query(1, 1, Set.of(), null, List.of("linkName", "websiteAccessible", "unknown")));
+
+        assertEquals(Map.of("linkName", "link-0", "websiteAccessible", true), result.getItems().get(0));
+    }
+
+    @Test
+    @DisplayName("测试查询无需友链监测记录")
+    void testNoMonitor() {
+        ResultIndex index = new ResultIndex(spec());
+        ListResult<Object> result = index.query(new ResultIndex.RecordQuery(1, 0, true, Set.of(), null, List.of()));
+
+        assertEquals(1, result.getTotal());
+    }
+
+    private static LinksHealthMonitorResult.LinkHealthMonitorRecord accessible(String linkName, boolean displayNameConsistent) {
+        LinksHealthMonitorResult.LinkHealthMonitorRecord record = new LinksHealthMonitorResult.LinkHealthMonitorRecord();
+        record.setLinkName(linkName);
+        record.setWebsiteAccessible(true);
+        record.setLogoAccessible(true);
+        record.setDisplayNameChanged(displayNameConsistent);
+        return record;
+    }
+
+    private static List<String> linkNames(ListResult<Object> result) {
+        return result.getItems().stream()
+            .map(item -> ((LinksHealthMonitorResult.LinkHealthMonitorRecord) item).getLinkName()).toList();
+    }
+
+    private static ResultIndex.RecordQuery query(int page, int size, Set<ResultIndex.RecordStatus> statuses, String group,
+        List<String> fields) {
+        return new ResultIndex.RecordQuery(page, size, false, statuses, group, fields);
+    }
+
+    private static LinksHealthMonitorResult.ResultSpec spec() {
+        List<LinksHealthMonitorResult.LinkHealthMonitorRecord> records = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            LinksHealthMonitorResult.LinkHealthMonitorRecord record = new LinksHealthMonitorResult.LinkHealthMonitorRecord();
+            record.setLinkName("link-" + i);
+            record.setLinkGroup("group-" + (i % 2));
+            record.setWebsiteAccessible(i % 3 != 0 || i % 2 == 0);
+            record.setLogoAccessible(i % 3 != 0 || i % 2 == 1);
+            records.add(record);
+        }
+        LinksHealthMonitorResult.NoMonitorRecord noMonitorRecord = new LinksHealthMonitorResult.NoMonitorRecord();
+        noMonitorRecord.setLinkName("link-10");
+
+        LinksHealthMonitorResult.ResultSpec spec = new LinksHealthMonitorResult.ResultSpec();
+        spec.setLinkHealthMonitorRecordList(records);
+        spec.setNoMonitorRecordList(List.of(noMonitorRecord));
+        return spec;
+    }
+}
@@ -0,0 +1,65 @@
+package cool.tch.linkshealthmonitor.tasks;
+
+import cool.tch.linkshealthmonitor.task.RunPhases;
+import cool.tch.linkshealthmonitor.task.RunProgress;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/19 17:00
+ * @Desc RunPhases有关测试
+ */
+public class RunPhasesTest {
+
+    @Test
+    @DisplayName("测试记录当前阶段和已进行的阶段")
+    void testPhases() {
+        RunPhases phases = new RunPhases(RunProgress.RunType.FULL);
+        phases.begin(RunPhases.Phase.LIST_LINKS);
+        phases.begin(RunPhases.Phase.PROBE);
+
+        RunPhases.Breakdown running = phases.snapshot(10);
+        assertFalse(running.isFinished());
+        assertEquals("probe", running.getCurrentPhase());
+        assertEquals(List.of("listLinks", "probe"), List.copyOf(running.getPhaseMillis().keySet()));
+        assertNull(running.getProbeP50Millis());
+
+        phases.begin(RunPhases.Phase.PERSIST);
+        phases.finish();
+        RunPhases.Breakdown finished = phases.snapshot(10);
+        assertTrue(finished.isFinished());
+        assertNull(finished.getCurrentPhase());
+        assertEquals(List.of("listLinks", "probe", "persist"), List.copyOf(finished.getPhaseMillis().keySet()));
+    }
+
+    @Test
+    @DisplayName("测试单个友链监测耗时的百分位数和最慢的主机")
+    void testLatencies() {
+        RunPhases phases = new RunPhases(RunProgress.RunType.PARTIAL);
+        for (int i = 1; i <= 100; i++) {
+            phases.linkChecked("https://site" + i + ".example.com/", TimeUnit.MILLISECONDS.toNanos(i * 10L));
+        }
+        phases.linkChecked("https://SITE100.example.com/blog", TimeUnit.MILLISECONDS.toNanos(5));
+
+        RunPhases.Breakdown breakdown = phases.snapshot(2);
+        assertEquals(101, breakdown.getCheckedLinks());
+        assertEquals(500L, breakdown.getProbeP50Millis());
+        assertEquals(950L, breakdown.getProbeP95Millis());
+        assertEquals(990L, breakdown.getProbeP99Millis());
+
+        List<RunPhases.HostLatency> slowest = breakdown.getSlowestHosts();
+        assertEquals(2, slowest.size());
+        assertEquals("site100.example.com", slowest.get(0).getHost());
+        assertEquals(2, slowest.get(0).getLinks());
+        assertEquals(1000L, slowest.get(0).getMaxMillis());
+        assertEquals("site99.example.com", slowest.get(1).getHost());
+    }
+}
@@ -0,0 +1,43 @@
+package cool.tch.linkshealthmonitor.tasks;
+
+import cool.tch.linkshealthmonitor.task.RunProgress;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/19 14:50
+ * @Desc RunProgress有关测试
+ */
+public class RunProgressTest {
+
+    @Test
+    @DisplayName("测试统计已完成数、剩余数，新的订阅者收到最近一次的进度")
+    void testLinkChecked() {
+        RunProgress runProgress = new RunProgress();
+        RunProgress.Tracker tracker = runProgress.start(RunProgress.RunType.FULL, 4);
+
+        RunProgress.ProgressEvent started = runProgress.events().blockFirst();
+        assertEquals(RunProgress.EventType.STARTED, started.getType());
+        assertEquals(4, started.getRemaining());
+        assertNull(started.getEtaSeconds());
+
+        tracker.linkChecked("link-1", "朋友1", true, false);
+        tracker.linkChecked("link-2", "朋友2", null, true);
+        tracker.linkChecked("link-3", "朋友3", null, false);
+
+        RunProgress.ProgressEvent latest = runProgress.events().blockFirst();
+        assertEquals(RunProgress.EventType.LINK_CHECKED, latest.getType());
+        assertEquals("link-3", latest.getLinkName());
+        assertEquals(3, latest.getDone());
+        assertEquals(1, latest.getRemaining());
+        assertEquals(1, latest.getHealthy());
+        assertEquals(1, latest.getUnhealthy());
+
+        tracker.finish();
+        assertEquals(RunProgress.EventType.FINISHED, runProgress.events().blockFirst().getType());
+    }
+}
@@ -0,0 +1,612 @@
+package cool.tch.linkshealthmonitor.tasks;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import cool.tch.linkshealthmonitor.config.LinksHealthMonitorConfig;
+import cool.tch.linkshealthmonitor.extension.Link;
+import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorResult;
+import cool.tch.linkshealthmonitor.service.CustomResourceService;
+import cool.tch.linkshealthmonitor.service.LatestResultCache;
+import cool.tch.linkshealthmonitor.task.LinksHealthMonitorTask;
+import cool.tch.linkshealthmonitor.task.MonitorMetrics;
+import cool.tch.linkshealthmonitor.task.ResultRetention;
+import cool.tch.linkshealthmonitor.task.RunProgress;
+import cool.tch.linkshealthmonitor.task.SharedHttpClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.Data;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.Trigger;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import run.halo.app.extension.Metadata;
+import run.halo.app.extension.ReactiveExtensionClient;
+import run.halo.app.plugin.ReactiveSettingFetcher;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.net.spi.InetAddressResolver;
+import java.net.spi.InetAddressResolverProvider;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import static cool.tch.linkshealthmonitor.constant.Constant.ANNOTATIONS_FIELD_ENABLE_MONITOR;
+import static cool.tch.linkshealthmonitor.constant.Constant.ANNOTATIONS_FIELD_FRIEND_LINK_URL;
+import static cool.tch.linkshealthmonitor.constant.Constant.HTTP_TIMEOUT_MS;
+import static cool.tch.linkshealthmonitor.task.MonitorableScheduledFuture.TaskStatus.RUNNING;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/19 18:40
+ * @Desc 模拟的互联网：本地HTTP服务器模拟大量友链网站，不访问真实网站也能端到端地执行监测（测试和基准测试共用）
+ * 每个网站有自己的主机名（site-N.sim.test，由Resolver解析到本机），按Profile中的比例分配行为：
+ * 正常、超时、5xx、重定向、大页面、慢速发送、持续慢速发送；友链页面按比例包含本站友链，响应前按对数正态分布延迟
+ */
+public class SimulatedInternet implements AutoCloseable {
+
+    // 模拟网站的域名后缀（由Resolver解析到本机）
+    static final String DOMAIN_SUFFIX = ".sim.test";
+
+    // 本站外部访问地址
+    public static final String OUR_URL = "https://our-blog" + DOMAIN_SUFFIX;
+
+    // 本机地址
+    private static final byte[] LOOPBACK = {127, 0, 0, 1};
+
+    // 超时的网站挂起的时长（超过监测请求的超时）
+    private static final long HANG_MILLIS = HTTP_TIMEOUT_MS + 5000;
+
+    // 单次延迟的上限（毫秒）
+    private static final long MAX_LATENCY_MILLIS = 5000;
+
+    // 大页面的填充内容（约2MB，所有请求共用）
+    private static final byte[] LARGE_FILLER = filler(2 * 1024 * 1024);
+
+    // 慢速发送的分块数、每块的填充内容和发送间隔
+    private static final int DRIP_CHUNKS = 16;
+
+    private static final byte[] DRIP_FILLER = filler(1024);
+
+    private static final long DRIP_INTERVAL_MILLIS = 25;
+
+    // 持续慢速发送时每块的填充内容和发送间隔（读取标题的上限以内，直到超过监测请求的超时都发不完）
+    private static final byte[] STALL_FILLER = filler(64);
+
+    private static final long STALL_INTERVAL_MILLIS = 100;
+
+    // 等待一次完整监测结束的时长上限（分钟）
+    private static final long RUN_TIMEOUT_MINUTES = 30;
+
+    // 友链页面中其他网站的友链数
+    private static final int OTHER_FRIEND_LINKS = 30;
+
+    // logo（PNG文件头 + 填充）
+    private static final byte[] LOGO = Arrays.copyOf(new byte[] {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'}, 2048);
+
+    private static final String TEXT_HTML = "text/html; charset=utf-8";
+
+    // 网站的行为比例
+    private final Profile profile;
+
+    // 所有的网站（下标就是网站的序号）
+    private final List<Site> sites;
+
+    private final HttpServer server;
+
+    // 处理请求的虚拟线程（延迟、挂起和慢速发送时不占用平台线程）
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // 监测使用的HTTP客户端（与插件一样在多次监测之间共用）
+    private final SharedHttpClient sharedHttpClient = new SharedHttpClient();
+
+    // 收到的请求数
+    private final LongAdder requests = new LongAdder();
+
+    /**
+     * 启动模拟的互联网
+     * @param siteCount 网站数
+     * @param profile 网站的行为比例
+     */
+    public SimulatedInternet(int siteCount, Profile profile) throws IOException {
+        this.profile = profile;
+        this.sites = assignSites(siteCount, profile);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getByAddress(LOOPBACK), 0), 1024);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /**
+     * 所有网站对应的友链（都启用了友链健康监测）
+     * @return 友链
+     */
+    public List<Link> links() {
+        List<Link> links = new ArrayList<>(sites.size());
+        for (Site site : sites) {
+            String url = urlOf(site);
+
+            Metadata metadata = new Metadata();
+            metadata.setName(linkNameOf(site));
+            metadata.setVersion(1L);
+            metadata.setAnnotations(Map.of(
+                ANNOTATIONS_FIELD_ENABLE_MONITOR, "true",
+                ANNOTATIONS_FIELD_FRIEND_LINK_URL, url + "/links"
+            ));
+
+            Link.LinkSpec spec = new Link.LinkSpec();
+            spec.setUrl(url);
+            spec.setDisplayName(titleOf(site));
+            spec.setLogo(url + "/logo.png");
+            spec.setGroupName("link-group-simulated");
+
+            Link link = new Link();
+            link.setMetadata(metadata);
+            link.setSpec(spec);
+            links.add(link);
+        }
+        return links;
+    }
+
+    /**
+     * 对所有网站执行一次完整监测（与定时任务相同的流程，自定义模型的读写由mock代替）
+     * @param config 插件配置
+     * @return 完整的监测结果
+     */
+    public LinksHealthMonitorResult.ResultSpec runFullCheck(LinksHealthMonitorConfig config) {
+        return runFullCheck(config, new RunProgress());
+    }
+
+    /**
+     * 对所有网站执行一次完整监测，监测进度推送到指定的RunProgress
+     * @param config 插件配置
+     * @param runProgress 监测进度的广播
+     * @return 完整的监测结果
+     */
+    public LinksHealthMonitorResult.ResultSpec runFullCheck(LinksHealthMonitorConfig config, RunProgress runProgress) {
+        List<Link> links = links();
+
+        CustomResourceService service = mock(CustomResourceService.class);
+        when(service.getExternalUrl()).thenReturn(OUR_URL);
+        when(service.getLatestResult()).thenReturn(Mono.empty());
+        when(service.getAllLinks()).thenReturn(links);
+        when(service.listAllLinks()).thenReturn(Flux.fromIterable(links));
+        when(service.getGroupDisplayNames()).thenReturn(Map.of());
+        when(service.listGroupDisplayNames()).thenReturn(Mono.just(Map.of()));
+
+        AtomicReference<LinksHealthMonitorResult> created = new AtomicReference<>();
+        ReactiveExtensionClient client = mock(ReactiveExtensionClient.class);
+        when(client.create(any(LinksHealthMonitorResult.class))).thenAnswer(invocation -> {
+            created.set(invocation.getArgument(0));
+            return Mono.just(created.get());
+        });
+
+        // 定时任务立即在当前线程执行
+        TaskScheduler taskScheduler = mock(TaskScheduler.class);
+        when(taskScheduler.schedule(any(Runnable.class), any(Trigger.class))).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        });
+
+        LinksHealthMonitorTask task = new LinksHealthMonitorTask(mock(ReactiveSettingFetcher.class), client, service,
+            taskScheduler, sharedHttpClient, mock(ResultRetention.class), new LatestResultCache(service), runProgress,
+            new MonitorMetrics(new SimpleMeterRegistry()));
+        task.executeTask(config);
+        // 响应式监测订阅后立即返回，等待整个流程结束
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(RUN_TIMEOUT_MINUTES);
+        while (RUNNING.getValue().equals(task.getTaskExecuteInfo().getTaskStatus())) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("监测超时");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("等待监测结束时被中断", e);
+            }
+        }
+
+        if (created.get() == null) {
+            throw new IllegalStateException("监测失败，没有创建监测结果");
+        }
+        return created.get().getResultSpec();
+    }
+
+    /**
+     * 友链对应的网站
+     * @param linkName 友链的name
+     * @return 网站
+     */
+    public Site siteOf(String linkName) {
+        return sites.get(Integer.parseInt(linkName.substring("link-".length())));
+    }
+
+    public List<Site> getSites() {
+        return sites;
+    }
+
+    /**
+     * 收到的请求数
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * 网站的标题（与友链的网站名称相同）
+     */
+    public static String titleOf(Site site) {
+        return "Site " + site.index();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        // 中断挂起和慢速发送中的请求
+        executor.shutdownNow();
+        sharedHttpClient.close();
+    }
+
+    /**
+     * 按比例给每个网站分配行为（同一个seed每次分配的结果相同）
+     */
+    private static List<Site> assignSites(int siteCount, Profile profile) {
+        SplittableRandom random = new SplittableRandom(profile.getSeed());
+        List<Site> sites = new ArrayList<>(siteCount);
+        for (int i = 0; i < siteCount; i++) {
+            double r = random.nextDouble();
+            Behavior behavior;
+            if ((r -= profile.getTimeoutRate()) < 0) {
+                behavior = Behavior.TIMEOUT;
+            } else if ((r -= profile.getServerErrorRate()) < 0) {
+                behavior = Behavior.SERVER_ERROR;
+            } else if ((r -= profile.getRedirectRate()) < 0) {
+                behavior = Behavior.REDIRECT;
+            } else if ((r -= profile.getLargePageRate()) < 0) {
+                behavior = Behavior.LARGE_PAGE;
+            } else if ((r -= profile.getSlowDripRate()) < 0) {
+                behavior = Behavior.SLOW_DRIP;
+            } else if ((r -= profile.getStallRate()) < 0) {
+                behavior = Behavior.STALL;
+            } else {
+                behavior = Behavior.NORMAL;
+            }
+            sites.add(new Site(i, behavior, random.nextDouble() < profile.getBacklinkRate()));
+        }
+        return sites;
+    }
+
+    /**
+     * 处理请求（按Host找到网站，延迟后按网站的行为响应）
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            requests.increment();
+            Site site = siteOf(exchange);
+            if (site == null) {
+                respond(exchange, 404, TEXT_HTML, new byte[0]);
+                return;
+            }
+
+            Thread.sleep(nextLatencyMillis());
+            switch (site.behavior()) {
+                case TIMEOUT -> Thread.sleep(HANG_MILLIS);
+                case SERVER_ERROR -> respond(exchange, 503, TEXT_HTML, utf8("<h1>503 Service Unavailable</h1>"));
+                default -> route(exchange, site);
+            }
+        } catch (InterruptedException e) {
+            // 模拟的互联网已关闭
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // 监测已取消请求（超时、读到标题或者找到本站友链）
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * 按路径响应
+     */
+    private void route(HttpExchange exchange, Site site) throws IOException, InterruptedException {
+        boolean redirect = site.behavior() == Behavior.REDIRECT;
+        switch (exchange.getRequestURI().getPath()) {
+            case "", "/" -> {
+                if (redirect) {
+                    redirect(exchange, 301, "/home");
+                } else {
+                    page(exchange, site, homePage(site));
+                }
+            }
+            case "/home" -> page(exchange, site, homePage(site));
+            case "/links" -> {
+                if (redirect) {
+                    redirect(exchange, 302, "/friends");
+                } else {
+                    page(exchange, site, friendLinkPage(site));
+                }
+            }
+            case "/friends" -> page(exchange, site, friendLinkPage(site));
+            case "/logo.png" -> respond(exchange, 200, "image/png", LOGO);
+            default -> respond(exchange, 404, TEXT_HTML, utf8("<h1>404 Not Found</h1>"));
+        }
+    }
+
+    /**
+     * 网站首页（大页面的标题在最前面，慢速发送的标题在最后，持续慢速发送只发送开头）
+     */
+    private static List<byte[]> homePage(Site site) {
+        String title = "<title>" + titleOf(site) + "</title>";
+        return switch (site.behavior()) {
+            case LARGE_PAGE -> List.of(utf8("<!DOCTYPE html><html><head>" + title + "</head><body>"), LARGE_FILLER,
+                utf8("</body></html>"));
+            case SLOW_DRIP, STALL -> dripped(utf8("<!DOCTYPE html><html><head>"), utf8(title + "</head><body></body></html>"));
+            default -> List.of(utf8("<!DOCTYPE html><html><head>" + title + "</head><body><h1>" + titleOf(site)
+                + "</h1></body></html>"));
+        };
+    }
+
+    /**
+     * 友链页面（大页面和慢速发送的友链都在最后，持续慢速发送只发送开头）
+     */
+    private static List<byte[]> friendLinkPage(Site site) {
+        StringBuilder friendLinks = new StringBuilder("<ul>");
+        for (int i = 1; i <= OTHER_FRIEND_LINKS; i++) {
+            friendLinks.append("<li><a href=\"https://friend-").append((site.index() + i) % 997).append(".example.com\">友链</a></li>");
+        }
+        if (site.backlink()) {
+            friendLinks.append("<li><a href=\"").append(OUR_URL).append("\">本站</a></li>");
+        }
+        friendLinks.append("</ul></body></html>");
+
+        byte[] head = utf8("<!DOCTYPE html><html><head><title>友链 - " + titleOf(site) + "</title></head><body>");
+        byte[] tail = utf8(friendLinks.toString());
+        return switch (site.behavior()) {
+            case LARGE_PAGE -> List.of(head, LARGE_FILLER, tail);
+            case SLOW_DRIP, STALL -> dripped(head, tail);
+            default -> List.of(head, tail);
+        };
+    }
+
+    /**
+     * 慢速发送的页面（开头和结尾之间是间隔发送的填充内容）
+     */
+    private static List<byte[]> dripped(byte[] head, byte[] tail) {
+        List<byte[]> chunks = new ArrayList<>(DRIP_CHUNKS + 2);
+        chunks.add(head);
+        for (int i = 0; i < DRIP_CHUNKS; i++) {
+            chunks.add(DRIP_FILLER);
+        }
+        chunks.add(tail);
+        return chunks;
+    }
+
+    /**
+     * 发送页面（慢速发送的网站每块之间等待）
+     */
+    private static void page(HttpExchange exchange, Site site, List<byte[]> chunks) throws IOException, InterruptedException {
+        if (site.behavior() == Behavior.STALL && !"HEAD".equals(exchange.getRequestMethod())) {
+            stall(exchange, chunks.get(0));
+            return;
+        }
+        if (site.behavior() != Behavior.SLOW_DRIP || "HEAD".equals(exchange.getRequestMethod())) {
+            respond(exchange, 200, TEXT_HTML, chunks.toArray(new byte[0][]));
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", TEXT_HTML);
+        // 分块传输
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream body = exchange.getResponseBody();
+        for (byte[] chunk : chunks) {
+            body.write(chunk);
+            body.flush();
+            Thread.sleep(DRIP_INTERVAL_MILLIS);
+        }
+    }
+
+    /**
+     * 持续慢速发送：立即发送响应头和页面开头，之后每隔一段时间发送少量填充内容，超过监测请求的超时后才结束（不发送标题和友链）
+     */
+    private static void stall(HttpExchange exchange, byte[] head) throws IOException, InterruptedException {
+        exchange.getResponseHeaders().set("Content-Type", TEXT_HTML);
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream body = exchange.getResponseBody();
+        body.write(head);
+        body.flush();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(HANG_MILLIS);
+        while (System.nanoTime() < deadline) {
+            Thread.sleep(STALL_INTERVAL_MILLIS);
+            body.write(STALL_FILLER);
+            body.flush();
+        }
+    }
+
+    private static void redirect(HttpExchange exchange, int statusCode, String location) throws IOException {
+        exchange.getResponseHeaders().set("Location", location);
+        respond(exchange, statusCode, TEXT_HTML, new byte[0]);
+    }
+
+    /**
+     * 发送完整的响应（HEAD请求只发送响应头）
+     */
+    private static void respond(HttpExchange exchange, int statusCode, String contentType, byte[]... parts) throws IOException {
+        long length = 0;
+        for (byte[] part : parts) {
+            length += part.length;
+        }
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        if (length == 0 || "HEAD".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(statusCode, -1);
+            return;
+        }
+
+        exchange.sendResponseHeaders(statusCode, length);
+        OutputStream body = exchange.getResponseBody();
+        for (byte[] part : parts) {
+            body.write(part);
+        }
+    }
+
+    /**
+     * 根据Host找到网站（site-N.sim.test:端口）
+     */
+    private Site siteOf(HttpExchange exchange) {
+        String host = exchange.getRequestHeaders().getFirst("Host");
+        if (host == null || !host.startsWith("site-")) {
+            return null;
+        }
+        int end = host.indexOf(DOMAIN_SUFFIX);
+        try {
+            int index = Integer.parseInt(host.substring("site-".length(), end < 0 ? host.length() : end));
+            return index >= 0 && index < sites.size() ? sites.get(index) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 本次请求的延迟（对数正态分布，中位数为medianLatencyMillis）
+     */
+    private long nextLatencyMillis() {
+        double latency = profile.getMedianLatencyMillis() * Math.exp(profile.getLatencySigma() * ThreadLocalRandom.current().nextGaussian());
+        return Math.min(Math.round(latency), MAX_LATENCY_MILLIS);
+    }
+
+    private String urlOf(Site site) {
+        return "http://site-" + site.index() + DOMAIN_SUFFIX + ":" + server.getAddress().getPort();
+    }
+
+    private static String linkNameOf(Site site) {
+        return "link-" + site.index();
+    }
+
+    private static byte[] utf8(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 页面中的填充内容（HTML注释）
+     */
+    private static byte[] filler(int size) {
+        byte[] bytes = new byte[size];
+        Arrays.fill(bytes, (byte) 'x');
+        byte[] open = utf8("<!--");
+        byte[] close = utf8("-->");
+        System.arraycopy(open, 0, bytes, 0, open.length);
+        System.arraycopy(close, 0, bytes, size - close.length, close.length);
+        return bytes;
+    }
+
+    /**
+     * 网站的行为
+     */
+    public enum Behavior {
+        // 正常响应
+        NORMAL,
+        // 一直不响应（监测请求超时）
+        TIMEOUT,
+        // 所有请求都返回503
+        SERVER_ERROR,
+        // 首页和友链页面都重定向
+        REDIRECT,
+        // 约2MB的页面（首页的标题在最前面，友链页面的友链在最后）
+        LARGE_PAGE,
+        // 分块间隔发送的页面（标题和友链都在最后）
+        SLOW_DRIP,
+        // 立即返回响应头，页面内容持续慢速发送，超过监测请求的超时也发不完
+        STALL
+    }
+
+    /**
+     * 模拟的网站
+     * @param index 序号（主机名是site-序号.sim.test）
+     * @param behavior 行为
+     * @param backlink 友链页面是否包含本站友链
+     */
+    public record Site(int index, Behavior behavior, boolean backlink) {
+    }
+
+    /**
+     * 网站的行为比例（剩余的比例是正常的网站）
+     */
+    @Data
+    public static class Profile {
+
+        // 延迟的中位数（毫秒）
+        private long medianLatencyMillis = 80;
+
+        // 延迟的对数标准差（越大长尾越明显，0表示固定延迟）
+        private double latencySigma = 0.6;
+
+        // 超时的网站比例
+        private double timeoutRate = 0.005;
+
+        // 返回5xx的网站比例
+        private double serverErrorRate = 0.02;
+
+        // 重定向的网站比例
+        private double redirectRate = 0.1;
+
+        // 大页面的网站比例
+        private double largePageRate = 0.02;
+
+        // 慢速发送的网站比例
+        private double slowDripRate = 0.02;
+
+        // 持续慢速发送的网站比例
+        private double stallRate = 0.005;
+
+        // 友链页面包含本站友链的比例
+        private double backlinkRate = 0.8;
+
+        // 随机数种子（同一个种子分配的行为相同）
+        private long seed = 42;
+    }
+
+    /**
+     * 把模拟网站的主机名解析到本机，其他主机名交给JVM内置的解析
+     * 通过META-INF/services注册，只在测试和基准测试的classpath中生效
+     */
+    public static class Resolver extends InetAddressResolverProvider {
+
+        @Override
+        public InetAddressResolver get(Configuration configuration) {
+            InetAddressResolver builtin = configuration.builtinResolver();
+            return new InetAddressResolver() {
+                @Override
+                public Stream<InetAddress> lookupByName(String host, LookupPolicy lookupPolicy) throws UnknownHostException {
+                    if (host.toLowerCase(Locale.ROOT).endsWith(DOMAIN_SUFFIX)) {
+                        return Stream.of(InetAddress.getByAddress(host, LOOPBACK));
+                    }
+                    return builtin.lookupByName(host, lookupPolicy);
+                }
+
+                @Override
+                public String lookupByAddress(byte[] address) throws UnknownHostException {
+                    return builtin.lookupByAddress(address);
+                }
+            };
+        }
+
+        @Override
+        public String name() {
+            return "simulated-internet";
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package cool.tch.linkshealthmonitor.tasks;
+
+import cool.tch.linkshealthmonitor.config.LinksHealthMonitorConfig;
+import cool.tch.linkshealthmonitor.extension.Link;
+import cool.tch.linkshealthmonitor.extension.LinkMetadataAnnotations;
+import cool.tch.linkshealthmonitor.extension.LinksHealthMonitorResult;
+import cool.tch.linkshealthmonitor.task.HostRateLimiter;
+import cool.tch.linkshealthmonitor.task.LinkProber;
+import cool.tch.linkshealthmonitor.task.MonitorMetrics;
+import cool.tch.linkshealthmonitor.task.ProbeTimer;
+import cool.tch.linkshealthmonitor.task.RunProgress;
+import cool.tch.linkshealthmonitor.task.SharedHttpClient;
+import cool.tch.linkshealthmonitor.task.SiteResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/19 19:10
+ * @Desc 在模拟的互联网上端到端执行完整监测的测试（超时和持续慢速发送的网站需要等待请求超时，完整监测中不模拟）
+ */
+public class SimulatedInternetTest {
+
+    // 网站数
+    private static final int SITE_COUNT = 60;
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    @DisplayName("测试完整监测的结果与每个网站的行为一致（虚拟线程、响应式）")
+    void testRunFullCheck(boolean reactiveCheckEnable) throws Exception {
+        try (SimulatedInternet internet = new SimulatedInternet(SITE_COUNT, profile())) {
+            // 除了超时和持续慢速发送，每种行为都有网站
+            Set<SimulatedInternet.Behavior> behaviors = EnumSet.noneOf(SimulatedInternet.Behavior.class);
+            internet.getSites().forEach(site -> behaviors.add(site.behavior()));
+            assertEquals(EnumSet.complementOf(EnumSet.of(SimulatedInternet.Behavior.TIMEOUT, SimulatedInternet.Behavior.STALL)), behaviors);
+
+            LinksHealthMonitorResult.ResultSpec resultSpec = internet.runFullCheck(config(reactiveCheckEnable));
+            assertEquals(SimulatedInternet.OUR_URL, resultSpec.getOurUrl());
+
+            List<LinksHealthMonitorResult.LinkHealthMonitorRecord> records = resultSpec.getLinkHealthMonitorRecordList();
+            assertEquals(SITE_COUNT, records.size());
+            for (LinksHealthMonitorResult.LinkHealthMonitorRecord record : records) {
+                SimulatedInternet.Site site = internet.siteOf(record.getLinkName());
+                boolean accessible = site.behavior() != SimulatedInternet.Behavior.SERVER_ERROR;
+                String message = record.getLinkName() + " " + site;
+
+                assertEquals(accessible, record.isWebsiteAccessible(), message);
+                assertEquals(accessible, record.isLogoAccessible(), message);
+                assertEquals(accessible && site.backlink(), record.isContainsOurLink(), message);
+                assertEquals(accessible ? SimulatedInternet.titleOf(site) : null, record.getLatestDisplayName(), message);
+                assertEquals(site.behavior() == SimulatedInternet.Behavior.REDIRECT ? 1 : 0, record.getSiteTiming().getRedirects(), message);
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    @DisplayName("测试监测进度中的正常、异常数（网站名称一致、包含本站友链的友链是正常的）")
+    void testProgressCounts(boolean reactiveCheckEnable) throws Exception {
+        try (SimulatedInternet internet = new SimulatedInternet(SITE_COUNT, profile())) {
+            RunProgress runProgress = new RunProgress();
+            internet.runFullCheck(config(reactiveCheckEnable), runProgress);
+
+            long healthy = internet.getSites().stream()
+                .filter(site -> site.behavior() != SimulatedInternet.Behavior.SERVER_ERROR && site.backlink())
+                .count();
+            RunProgress.ProgressEvent finished = runProgress.events().blockFirst();
+            assertEquals(RunProgress.EventType.FINISHED, finished.getType());
+            assertEquals(SITE_COUNT, finished.getDone());
+            assertTrue(healthy > 0);
+            assertEquals(healthy, finished.getHealthy());
+            assertEquals(SITE_COUNT - healthy, finished.getUnhealthy());
+        }
+    }
+
+    @Test
+    @DisplayName("测试响应头之后持续慢速发送的网站在请求超时后结束，不会一直占用请求")
+    void testStalledSite() throws Exception {
+        SimulatedInternet.Profile profile = profile();
+        profile.setServerErrorRate(0);
+        profile.setRedirectRate(0);
+        profile.setLargePageRate(0);
+        profile.setSlowDripRate(0);
+        profile.setStallRate(1);
+        Duration timeout = Duration.ofMillis(1000);
+        SharedHttpClient sharedHttpClient = new SharedHttpClient();
+        try (SimulatedInternet internet = new SimulatedInternet(2, profile)) {
+            LinkProber prober = new LinkProber(sharedHttpClient.get(false), new HostRateLimiter(2, 0, 8),
+                new MonitorMetrics(new SimpleMeterRegistry()), timeout);
+            Link link = internet.links().get(0);
+            String friendLinkUrl = LinkMetadataAnnotations.fromMap(link.getMetadata().getAnnotations()).getFriendLinkUrl();
+
+            long start = System.nanoTime();
+            SiteResponse site = prober.fetchSite(link.getSpec().getUrl(), null, null).block();
+            SiteResponse friendLinkPage = prober.fetchSite(friendLinkUrl, SimulatedInternet.OUR_URL, null).block();
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+            // 两次请求都在超时后结束（持续慢速发送超过监测请求的超时）
+            assertTrue(elapsed.compareTo(timeout.multipliedBy(4)) < 0, elapsed.toString());
+            for (SiteResponse response : List.of(site, friendLinkPage)) {
+                assertFalse(response.isAccessible());
+                assertEquals(ProbeTimer.FAILURE_TIMEOUT, response.getTiming().getFailure());
+                assertTrue(response.getTiming().getBytesRead() > 0);
+            }
+        } finally {
+            sharedHttpClient.close();
+        }
+    }
+
+    private static SimulatedInternet.Profile profile() {
+        SimulatedInternet.Profile profile = new SimulatedInternet.Profile();
+        profile.setMedianLatencyMillis(5);
+        profile.setLatencySigma(0.3);
+        profile.setTimeoutRate(0);
+        profile.setServerErrorRate(0.1);
+        profile.setRedirectRate(0.15);
+        profile.setLargePageRate(0.15);
+        profile.setSlowDripRate(0.15);
+        profile.setStallRate(0);
+        profile.setBacklinkRate(0.7);
+        return profile;
+    }
+
+    private static LinksHealthMonitorConfig config(boolean reactiveCheckEnable) {
+        LinksHealthMonitorConfig config = new LinksHealthMonitorConfig();
+        config.setCheckConcurrency(16);
+        // 所有网站都在本机，不限制每秒请求数
+        config.setRequestsPerSecond(0);
+        config.setReactiveCheckEnable(reactiveCheckEnable);
+        return config;
+    }
+}
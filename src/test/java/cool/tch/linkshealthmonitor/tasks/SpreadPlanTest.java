@@ -0,0 +1,48 @@
+package cool.tch.linkshealthmonitor.tasks;
+
+import cool.tch.linkshealthmonitor.task.SpreadPlan;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/19 09:40
+ * @Desc SpreadPlan有关测试
+ */
+public class SpreadPlanTest {
+
+    private static final Duration WINDOW = Duration.ofHours(1);
+
+    @Test
+    @DisplayName("测试偏移固定且在监测周期内")
+    void testOffsetOf() {
+        for (int i = 0; i < 1000; i++) {
+            Duration offset = SpreadPlan.offsetOf("link-" + i, WINDOW);
+            assertEquals(offset, SpreadPlan.offsetOf("link-" + i, WINDOW));
+            assertTrue(!offset.isNegative() && offset.compareTo(WINDOW) < 0);
+        }
+    }
+
+    @Test
+    @DisplayName("测试友链均匀分布到各个时间片")
+    void testPlan() {
+        List<String> linkNames = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            linkNames.add("link-" + i);
+        }
+
+        SortedMap<Duration, List<String>> slots = SpreadPlan.plan(linkNames, WINDOW, Duration.ofMinutes(1));
+        assertEquals(600, slots.values().stream().mapToInt(List::size).sum());
+        // 60个时间片平均10个，没有时间片过于集中
+        assertTrue(slots.size() > 50);
+        assertTrue(slots.values().stream().allMatch(names -> names.size() <= 30));
+        assertTrue(slots.lastKey().compareTo(WINDOW) < 0);
+    }
+}
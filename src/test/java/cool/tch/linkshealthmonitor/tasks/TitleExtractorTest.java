@@ -0,0 +1,97 @@
+package cool.tch.linkshealthmonitor.tasks;
+
+import cool.tch.linkshealthmonitor.task.TitleExtractor;
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @Author Denchouka
+ * @Date 2026/10/18 18:50
+ * @Desc TitleExtractor有关测试
+ */
+public class TitleExtractorTest {
+
+    private static final int MAX_BYTES = 64 * 1024;
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "<html><head><title>天成诸君の博客</title></head><body></body></html>",
+        "<!DOCTYPE html><HTML><HEAD><TITLE data-x=\"1\">\n  Hello &amp;  World \n</TITLE></HEAD></HTML>",
+        "<html><head><meta charset=\"utf-8\"><title></title></head></html>",
+        "<html><head><title>A &lt; B &#x4E2D;</title></head></html>",
+        "<html><head></head><body><title>正文里的标题</title></body></html>"
+    })
+    @DisplayName("参数化测试 - 与Jsoup的document.title()结果一致（每次只输入一个字节）")
+    void testGetTitle_sameAsJsoup(String html) {
+        byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
+        TitleExtractor extractor = new TitleExtractor(MAX_BYTES);
+        for (int i = 0; i < bytes.length && !extractor.isDone(); i++) {
+            extractor.feed(bytes, i, 1);
+        }
+
+        String expected = Jsoup.parse(html).head().select("title").isEmpty() ? "" : Jsoup.parse(html).title();
+        assertEquals(expected, extractor.getTitle("utf-8"));
+    }
+
+    @Test
+    @DisplayName("测试读到</title>后停止读取")
+    void testFeed_stopAfterTitle() {
+        String head = "<html><head><title>标题</title>";
+        byte[] bytes = (head + "<script>" + "x".repeat(100_000) + "</script></head></html>").getBytes(StandardCharsets.UTF_8);
+
+        TitleExtractor extractor = new TitleExtractor(MAX_BYTES);
+        boolean done = false;
+        int offset = 0;
+        while (!done) {
+            int count = Math.min(1024, bytes.length - offset);
+            done = extractor.feed(bytes, offset, count);
+            offset += count;
+        }
+
+        assertEquals("标题", extractor.getTitle(null));
+        assertEquals(1024, extractor.getBytesRead());
+    }
+
+    @Test
+    @DisplayName("测试读到</head>后停止读取（没有标题）")
+    void testFeed_stopAfterHead() {
+        byte[] bytes = "<html><head><meta name=\"a\"></head><body>...".getBytes(StandardCharsets.UTF_8);
+
+        TitleExtractor extractor = new TitleExtractor(MAX_BYTES);
+        assertTrue(extractor.feed(bytes, 0, bytes.length));
+        assertEquals("", extractor.getTitle(null));
+    }
+
+    @Test
+    @DisplayName("测试超过读取上限")
+    void testFeed_maxBytes() {
+        byte[] bytes = ("<html><head><style>" + "x".repeat(2048) + "</style><title>标题</title>").getBytes(StandardCharsets.UTF_8);
+
+        TitleExtractor extractor = new TitleExtractor(1024);
+        assertTrue(extractor.feed(bytes, 0, bytes.length));
+        assertEquals(1024, extractor.getBytesRead());
+        assertEquals("", extractor.getTitle(null));
+    }
+
+    @Test
+    @DisplayName("测试页面<meta>中声明的字符集")
+    void testGetTitle_metaCharset() {
+        Charset gbk = Charset.forName("GBK");
+        byte[] bytes = "<html><head><meta http-equiv=\"Content-Type\" content=\"text/html; charset=gbk\"><title>中文标题</title>".getBytes(gbk);
+
+        TitleExtractor extractor = new TitleExtractor(MAX_BYTES);
+        extractor.feed(bytes, 0, bytes.length);
+        assertEquals("中文标题", extractor.getTitle(null));
+        // 响应头中的字符集优先
+        assertFalse("中文标题".equals(extractor.getTitle("utf-8")));
+    }
+}